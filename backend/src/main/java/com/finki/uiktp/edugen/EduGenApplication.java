@@ -3,8 +3,10 @@ package com.finki.uiktp.edugen;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class EduGenApplication {
 
 	public static void main(String[] args) {
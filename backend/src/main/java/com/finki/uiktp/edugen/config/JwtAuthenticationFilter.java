@@ -1,26 +1,40 @@
 package com.finki.uiktp.edugen.config;
 
+import com.finki.uiktp.edugen.service.Implementation.TokenDenylist;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenDenylist tokenDenylist;
+
+    @Value("${app.auth.verify-user:false}")
+    private boolean verifyUser;
 
+    /**
+     * The token is verified once, signature and expiry together, and the principal is rebuilt from
+     * its claims. Invalid and revoked tokens leave the request unauthenticated.
+     */
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -28,37 +42,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        try {
-            userEmail = jwtUtil.extractUsername(jwt);
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+        Optional<JwtClaims> claims = jwtUtil.parse(authHeader.substring(BEARER_PREFIX.length()));
+        if (claims.isPresent() && !tokenDenylist.isRevoked(claims.get().jti())) {
+            try {
+                UserDetails userDetails = resolvePrincipal(claims.get());
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            } catch (UsernameNotFoundException e) {
+                logger.debug("Token subject no longer exists: " + claims.get().subject());
             }
-        } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stateless unless app.auth.verify-user is set, in which case the user is checked against the
+     * database through the short-lived principal cache. Tokens issued before the id and role claims
+     * were added always take the lookup.
+     */
+    private UserDetails resolvePrincipal(JwtClaims claims) {
+        if (!verifyUser && claims.userId() != null && claims.role() != null) {
+            return UserPrincipal.fromClaims(claims);
+        }
+        return userDetailsService.loadPrincipal(claims.subject());
+    }
+}
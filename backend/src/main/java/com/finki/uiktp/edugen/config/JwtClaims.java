@@ -0,0 +1,10 @@
+package com.finki.uiktp.edugen.config;
+
+import java.time.Instant;
+
+/**
+ * The claims of a token whose signature and expiry have already been verified.
+ * userId, role and jti are null in tokens issued before they were added.
+ */
+public record JwtClaims(String subject, Long userId, String role, String jti, Instant issuedAt, Instant expiresAt) {
+}
@@ -0,0 +1,61 @@
+package com.finki.uiktp.edugen.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically measures how far the replica is behind the primary and takes it out of rotation
+ * while the lag exceeds the limit or the replica cannot be reached, so reads are never staler than that.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaRoutingDataSource routingDataSource, String lagQuery,
+                             double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+
+        meterRegistry.gauge("edugen.datasource.replica.lag.ms", lagMillis);
+        meterRegistry.gauge("edugen.datasource.replica.usable", routingDataSource, r -> r.isReplicaUsable() ? 1 : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean usable;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            double seconds = lag != null ? lag : 0;
+            lagMillis.set((long) (seconds * 1000));
+            usable = seconds <= maxLagSeconds;
+            if (!usable && routingDataSource.isReplicaUsable()) {
+                logger.warn("Replica is {}s behind the primary (limit {}s), routing reads to the primary", seconds, maxLagSeconds);
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            if (routingDataSource.isReplicaUsable()) {
+                logger.warn("Replica is unreachable, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+
+        if (usable && !routingDataSource.isReplicaUsable()) {
+            logger.info("Replica caught up, routing read-only transactions to it again");
+        }
+        routingDataSource.setReplicaUsable(usable);
+    }
+}
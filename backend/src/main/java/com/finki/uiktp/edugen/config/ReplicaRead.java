@@ -0,0 +1,21 @@
+package com.finki.uiktp.edugen.config;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A read-only transaction that may run on the replica when one is configured. Only for reads that
+ * tolerate data a few seconds old: a user reading back what they just wrote must stay on the primary,
+ * which plain read-only transactions (including the repositories' own) do.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReplicaRead {
+}
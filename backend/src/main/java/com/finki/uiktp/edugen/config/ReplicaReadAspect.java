@@ -0,0 +1,26 @@
+package com.finki.uiktp.edugen.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the thread for {@link ReplicaRoutingDataSource} while a {@link ReplicaRead} method runs.
+ * The pool is picked at the first statement, so it does not matter whether this runs inside or
+ * outside the transaction interceptor.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.finki.uiktp.edugen.config.ReplicaRead)")
+    public Object markReplicaRead(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.setReplicaRead(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.setReplicaRead(previous);
+        }
+    }
+}
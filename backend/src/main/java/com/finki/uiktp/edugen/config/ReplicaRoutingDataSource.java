@@ -0,0 +1,76 @@
+package com.finki.uiktp.edugen.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only transactions started by a {@link ReplicaRead} method and
+ * primary connections to everything else, other read-only transactions included: most of those read
+ * back what the same user just wrote. The decision is taken when a connection is acquired, so this has
+ * to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction
+ * managers acquire the connection before the transaction is marked read-only.
+ * While the replica is marked unusable (lagging or unreachable) replica reads fall back to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Pool {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> replicaRead = ThreadLocal.withInitial(() -> false);
+
+    private volatile boolean replicaUsable = true;
+
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.writes = meterRegistry.counter("edugen.datasource.routed", "pool", "primary", "read.only", "false");
+        this.replicaReads = meterRegistry.counter("edugen.datasource.routed", "pool", "replica", "read.only", "true");
+        this.primaryReads = meterRegistry.counter("edugen.datasource.routed", "pool", "primary", "read.only", "true");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return Pool.PRIMARY;
+        }
+        if (!replicaRead.get() || !replicaUsable) {
+            primaryReads.increment();
+            return Pool.PRIMARY;
+        }
+        replicaReads.increment();
+        return Pool.REPLICA;
+    }
+
+    /**
+     * Allows or forbids replica connections for the current thread's read-only transactions.
+     *
+     * @return the previous setting, to restore afterwards
+     */
+    static boolean setReplicaRead(boolean allowed) {
+        boolean previous = replicaRead.get();
+        replicaRead.set(allowed);
+        return previous;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public void setReplicaUsable(boolean replicaUsable) {
+        this.replicaUsable = replicaUsable;
+    }
+}
@@ -2,12 +2,19 @@ package com.finki.uiktp.edugen.config;
 
 import com.finki.uiktp.edugen.model.User;
 import com.finki.uiktp.edugen.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @Service
@@ -15,6 +22,25 @@ import java.util.Optional;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auth.principal-cache.ttl-seconds:30}")
+    private long principalCacheTtlSeconds;
+
+    @Value("${app.auth.principal-cache.max-size:10000}")
+    private long principalCacheMaxSize;
+
+    private Cache<String, UserPrincipal> principals;
+
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(principalCacheTtlSeconds))
+                .maximumSize(principalCacheMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -25,4 +51,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Looks the user up for an authenticated request, at most once per TTL per user, so deleted users
+     * and role changes take effect within the TTL. The cached principal has no password.
+     */
+    public UserPrincipal loadPrincipal(String email) throws UsernameNotFoundException {
+        UserPrincipal principal = principals.get(email, key -> userRepository.findByEmail(key)
+                .map(user -> {
+                    UserPrincipal created = UserPrincipal.create(user);
+                    return new UserPrincipal(created.getId(), created.getEmail(), null, created.getAuthorities());
+                })
+                .orElse(null));
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return principal;
+    }
+}
@@ -8,9 +8,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 @Getter
 public class UserPrincipal implements UserDetails {
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final Long id;
     private final String email;
     private final String password;
@@ -24,7 +27,7 @@ public class UserPrincipal implements UserDetails {
     }
 
     public static UserPrincipal create(User user) {
-        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
+        GrantedAuthority authority = new SimpleGrantedAuthority(ROLE_PREFIX + user.getRole().name());
 
         return new UserPrincipal(
                 user.getId(),
@@ -34,6 +37,30 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    /**
+     * Rebuilds the principal of a verified token without touching the database. It has no password.
+     */
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        return new UserPrincipal(
+                claims.userId(),
+                claims.subject(),
+                null,
+                List.of(new SimpleGrantedAuthority(ROLE_PREFIX + claims.role()))
+        );
+    }
+
+    /**
+     * @return the role name without the authority prefix, e.g. TEACHER
+     */
+    public String getRole() {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                .findFirst()
+                .orElse(null);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
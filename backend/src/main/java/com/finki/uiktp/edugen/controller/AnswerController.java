@@ -18,8 +18,13 @@ public class AnswerController {
     }
 
     @GetMapping
-    public List<Answer> findAll() {
-        return this.answerService.listAll();
+    public ResponseEntity<?> findAll(@RequestParam(value = "limit", required = false) Integer limit,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        if (limit != null || cursor != null) {
+            return ResponseEntity.ok(this.answerService.listPage(cursor, limit, includeTotal));
+        }
+        return ResponseEntity.ok(this.answerService.listAll());
     }
 
     @GetMapping("/{id}")
@@ -1,25 +1,38 @@
 package com.finki.uiktp.edugen.controller;
 
+import com.finki.uiktp.edugen.model.Exceptions.ServiceBusyException;
+import com.finki.uiktp.edugen.model.Exceptions.TooManyAttemptsException;
 import com.finki.uiktp.edugen.model.dto.AuthDto.AuthResponse;
 import com.finki.uiktp.edugen.model.dto.AuthDto.LoginRequest;
 import com.finki.uiktp.edugen.model.dto.AuthDto.RegisterRequest;
+import com.finki.uiktp.edugen.model.dto.AuthDto.RevokeRequest;
 import com.finki.uiktp.edugen.service.Implementation.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RequiredArgsConstructor
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthService authService;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         try {
-            AuthResponse response = authService.register(request);
+            AuthResponse response = authService.register(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -27,14 +40,54 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            AuthResponse response = authService.login(request);
+            AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (TooManyAttemptsException | ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("Login error: " + e.getMessage());
-            e.printStackTrace();
+            // Mostly wrong credentials, the stack trace only helps when something else went wrong
+            logger.warn("Login failed: {}", e.getMessage());
+            logger.debug("Login failure", e);
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * Revokes the caller's token. Always succeeds, the client discards the token either way.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            authService.revoke(authorization.substring(BEARER_PREFIX.length()));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes any user's token, admins only.
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Map<String, Object>> revoke(@RequestBody RevokeRequest request) {
+        if (request.getToken() == null || !authService.revoke(request.getToken())) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "The token is invalid, expired or cannot be revoked"));
+        }
+        return ResponseEntity.ok(Map.of("revoked", true));
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<Map<String, Object>> handleThrottled(TooManyAttemptsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage(), "retryAfter", e.getRetryAfterSeconds()));
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", e.getMessage()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.finki.uiktp.edugen.controller;
+
+import com.finki.uiktp.edugen.config.UserPrincipal;
+import com.finki.uiktp.edugen.model.dto.DashboardSummaryDto;
+import com.finki.uiktp.edugen.service.DashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * Document and question counts by type and format, generation usage and the newest documents of the user.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummaryDto> getSummary(
+            @RequestParam(value = "recent", defaultValue = "5") int recent,
+            Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(dashboardService.getSummary(userPrincipal.getId(), recent));
+    }
+}
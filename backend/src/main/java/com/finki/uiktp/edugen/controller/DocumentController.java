@@ -2,19 +2,19 @@ package com.finki.uiktp.edugen.controller;
 
 import com.finki.uiktp.edugen.config.UserPrincipal;
 import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.DocumentChunk;
 import com.finki.uiktp.edugen.model.Exceptions.DocumentNotFoundException;
-import com.finki.uiktp.edugen.model.Exceptions.UserNotFoundException;
-import com.finki.uiktp.edugen.model.User;
 import com.finki.uiktp.edugen.model.enums.DocumentFormat;
 import com.finki.uiktp.edugen.model.enums.DocumentType;
-import com.finki.uiktp.edugen.repository.UserRepository;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+import com.finki.uiktp.edugen.service.DocumentChunkService;
 import com.finki.uiktp.edugen.service.DocumentService;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import com.finki.uiktp.edugen.service.ExportService;
+import com.finki.uiktp.edugen.service.ThumbnailService;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,51 +22,55 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/documents")
 public class DocumentController {
 
     private final DocumentService documentService;
-    private final UserRepository userRepository;
-    private final String UPLOAD_DIR = "uploads/";
+    private final DocumentChunkService documentChunkService;
+    private final ThumbnailService thumbnailService;
+    private final ExportService exportService;
 
-    public DocumentController(DocumentService documentService, UserRepository userRepository) {
+    public DocumentController(DocumentService documentService, DocumentChunkService documentChunkService,
+                              ThumbnailService thumbnailService, ExportService exportService) {
         this.documentService = documentService;
-        this.userRepository = userRepository;
-
-        new java.io.File(UPLOAD_DIR).mkdirs();
+        this.documentChunkService = documentChunkService;
+        this.thumbnailService = thumbnailService;
+        this.exportService = exportService;
     }
 
+    /**
+     * Without limit and cursor all documents of the user are returned, with either of them
+     * a keyset page. Both list summaries with question counts, newest first.
+     */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllDocuments(Authentication authentication) {
+    public ResponseEntity<?> getAllDocuments(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long userId = userPrincipal.getId();
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-
-        List<Document> documents = user.getDocuments();
-
-        List<Map<String, Object>> result = documents.stream()
-                .map(this::convertDocumentToMap)
-                .collect(Collectors.toList());
+        if (limit != null || cursor != null) {
+            return ResponseEntity.ok(documentService.listPageByUserId(userId, cursor, limit, includeTotal));
+        }
 
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(documentService.listSummariesByUserId(userId));
     }
 
     @GetMapping("/{id}")
@@ -99,30 +103,8 @@ public class DocumentController {
         Long userId = userPrincipal.getId();
 
         try {
-            String originalFilename = file.getOriginalFilename();
-            String extension = null;
-            if (originalFilename != null) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1);
-            }
-            String uniqueFilename = UUID.randomUUID() + "_" + originalFilename;
-            Path filePath = Paths.get(UPLOAD_DIR + uniqueFilename);
-            Files.write(filePath, file.getBytes());
-
             DocumentType type = DocumentType.valueOf(documentType);
-            DocumentFormat format = null;
-            if (extension != null) {
-                format = DocumentFormat.valueOf(extension.toUpperCase());
-            }
-
-            Document document = documentService.create(
-                    userId,
-                    title,
-                    LocalDateTime.now(),
-                    language,
-                    type,
-                    format,
-                    filePath.toString()
-            );
+            Document document = documentService.uploadDocument(userId, title, language, type, file);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(convertDocumentToMap(document));
@@ -220,6 +202,11 @@ public class DocumentController {
         map.put("language", document.getLanguage());
         map.put("type", document.getType().name());
         map.put("format", document.getFormat().name());
+        map.put("fileSize", document.getFileSize());
+        map.put("pageCount", document.getPageCount());
+        map.put("characterCount", document.getCharacterCount());
+        map.put("wordCount", document.getWordCount());
+        map.put("estimatedTokens", document.getEstimatedTokens());
         return map;
     }
     /**
@@ -279,29 +266,7 @@ public class DocumentController {
                 return ResponseEntity.notFound().build();
             }
 
-            if (document.getFormat() == DocumentFormat.TXT) {
-                String content = Files.readString(filePath, StandardCharsets.UTF_8);
-                return ResponseEntity.ok(content);
-            }
-
-            else if (document.getFormat() == DocumentFormat.PDF) {
-                try (PDDocument pdf = PDDocument.load(filePath.toFile())) {
-                    PDFTextStripper stripper = new PDFTextStripper();
-                    String text = stripper.getText(pdf);
-                    return ResponseEntity.ok(text);
-                }
-            }
-
-            else if (document.getFormat() == DocumentFormat.DOCX) {
-                try (FileInputStream fis = new FileInputStream(filePath.toFile());
-                     XWPFDocument docx = new XWPFDocument(fis)) {
-                    XWPFWordExtractor extractor = new XWPFWordExtractor(docx);
-                    String text = extractor.getText();
-                    return ResponseEntity.ok(text);
-                }
-            }
-
-            return ResponseEntity.badRequest().body("Preview is not available for this file format");
+            return ResponseEntity.ok(documentService.getDocumentContent(document));
 
         } catch (DocumentNotFoundException e) {
             return ResponseEntity.notFound().build();
@@ -310,6 +275,107 @@ public class DocumentController {
         }
     }
 
+    /**
+     * Get the indexed chunks of a document, optionally narrowed to one page or to a search term
+     * @param id - Document ID
+     * @param page - Page number, only set for paginated formats
+     * @param q - Text to search for in chunk content and section titles
+     * @return ResponseEntity with the matching chunks in reading order
+     */
+    @GetMapping("/{id}/chunks")
+    public ResponseEntity<List<DocumentChunk>> getDocumentChunks(
+            @PathVariable Long id,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "q", required = false) String q,
+            Authentication authentication) {
+
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long userId = userPrincipal.getId();
+
+        Document document = documentService.findById(id)
+                .orElseThrow(() -> new DocumentNotFoundException(id));
+
+        if (!document.getUser().getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (page != null) {
+            return ResponseEntity.ok(documentChunkService.findByPage(id, page));
+        }
+        return ResponseEntity.ok(documentChunkService.search(id, q));
+    }
+
+    /**
+     * Get a PNG thumbnail of the first page of a PDF document
+     * @param id - Document ID
+     * @param width - Requested width in pixels, rounded up to the nearest cached size
+     * @return ResponseEntity with the thumbnail, cacheable by the browser since stored files never change
+     */
+    @GetMapping("/{id}/thumbnail")
+    public ResponseEntity<Resource> getDocumentThumbnail(
+            @PathVariable Long id,
+            @RequestParam(value = "width", defaultValue = "200") int width,
+            Authentication authentication) throws IOException {
+
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long userId = userPrincipal.getId();
+
+        Document document = documentService.findById(id)
+                .orElseThrow(() -> new DocumentNotFoundException(id));
+
+        if (!document.getUser().getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        Optional<InputStream> thumbnail = thumbnailService.getThumbnail(document, width);
+        if (thumbnail.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .body(new InputStreamResource(thumbnail.get()));
+    }
+
+    /**
+     * Export all questions of a document as a question bank, written to the response while they are read
+     * @param id - Document ID
+     * @param format - moodle, gift, qti, csv or docx
+     * @return ResponseEntity streaming the file
+     */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportDocumentQuestions(
+            @PathVariable Long id,
+            @RequestParam("format") String format,
+            Authentication authentication) {
+
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long userId = userPrincipal.getId();
+
+        Document document = documentService.findById(id)
+                .orElseThrow(() -> new DocumentNotFoundException(id));
+
+        if (!document.getUser().getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType()));
+        headers.setContentDispositionFormData("attachment", "document_" + id + "_questions" + exportFormat.getExtension());
+        headers.setCacheControl(CacheControl.noStore());
+
+        StreamingResponseBody body = out -> exportService.exportDocument(id, exportFormat, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     /**
      * View a document in the browser
      * @param id - Document ID
@@ -359,19 +425,10 @@ public class DocumentController {
             Document document = documentService.findById(id)
                     .orElseThrow(() -> new DocumentNotFoundException(id));
 
-            Path filePath = Paths.get(document.getFilePath());
-            if (!Files.exists(filePath)) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("id", document.getId());
-            metadata.put("title", document.getTitle());
-            metadata.put("format", document.getFormat().toString());
-            metadata.put("type", document.getType().toString());
-            metadata.put("language", document.getLanguage());
+            Map<String, Object> metadata = convertDocumentToMap(document);
             metadata.put("uploadedDate", document.getUploadedDate().toString());
-            metadata.put("fileSize", Files.size(filePath));
+            metadata.put("extractionDurationMs", document.getExtractionDurationMs());
+            metadata.put("contentHash", document.getContentHash());
             metadata.put("canPreview", document.getFormat() == DocumentFormat.TXT ||
                     document.getFormat() == DocumentFormat.PDF);
             metadata.put("canView", document.getFormat() == DocumentFormat.TXT ||
@@ -381,8 +438,6 @@ public class DocumentController {
 
         } catch (DocumentNotFoundException e) {
             return ResponseEntity.notFound().build();
-        } catch (IOException e) {
-            return ResponseEntity.badRequest().body("Error reading file: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
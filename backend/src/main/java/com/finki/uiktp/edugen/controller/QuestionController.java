@@ -1,22 +1,30 @@
 package com.finki.uiktp.edugen.controller;
 
+import com.finki.uiktp.edugen.config.UserPrincipal;
 import com.finki.uiktp.edugen.model.Answer;
 import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.dto.BulkQuestionUpdateRequest;
 import com.finki.uiktp.edugen.model.dto.QuestionDto;
+import com.finki.uiktp.edugen.model.dto.QuestionPatchRequest;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
 import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.service.ExportService;
 import com.finki.uiktp.edugen.service.Implementation.PdfExportService;
 import com.finki.uiktp.edugen.service.QuestionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,17 +32,37 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class QuestionController {
 
+    /**
+     * Answer ids from here on are temporary ids of the legacy update, see {@link #updateQuestion}.
+     */
+    private static final long FIRST_TEMPORARY_ANSWER_ID = 1_000_000_000_000L;
+
     private final QuestionService questionService;
     private final ObjectMapper objectMapper;
     private final PdfExportService pdfExportService;
-    public QuestionController(QuestionService questionService, ObjectMapper objectMapper, PdfExportService pdfExportService) {
+    private final ExportService exportService;
+    public QuestionController(QuestionService questionService, ObjectMapper objectMapper, PdfExportService pdfExportService,
+                              ExportService exportService) {
         this.questionService = questionService;
         this.objectMapper = objectMapper;
         this.pdfExportService = pdfExportService;
+        this.exportService = exportService;
     }
 
+    /**
+     * Without limit and cursor the whole list is returned as before,
+     * with either of them a keyset page ordered by id.
+     */
     @GetMapping
-    public ResponseEntity<List<QuestionDto>> getAllQuestions() {
+    public ResponseEntity<?> getAllQuestions(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        if (limit != null || cursor != null) {
+            return ResponseEntity.ok(questionService.listPage(null, cursor, limit, includeTotal)
+                    .map(QuestionDto::fromQuestion));
+        }
+
         List<Question> questions = questionService.listAll();
         List<QuestionDto> questionDtos = questions.stream()
                 .map(QuestionDto::fromQuestion)
@@ -99,6 +127,11 @@ public class QuestionController {
         }
     }
 
+    /**
+     * Form-encoded update kept for existing clients, the answers are merged like in {@link #patchQuestion}.
+     * These clients give new answers temporary ids from the current time in milliseconds, such ids
+     * are treated as new answers here, while PATCH rejects any id the question does not have.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<?> updateQuestion(
             @PathVariable Long id,
@@ -106,61 +139,36 @@ public class QuestionController {
             @RequestParam("text") String text,
             @RequestParam(value = "answers", required = false) String answers) {
 
-        try {
-            System.out.println("Updating question ID: " + id);
-            System.out.println("Type: " + type);
-            System.out.println("Text: " + text);
-            System.out.println("Answers: " + answers);
-
-            Optional<Question> questionOpt = questionService.update(id, type, text);
-            if (!questionOpt.isPresent()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Question question = questionOpt.get();
-
-            if (answers != null && !answers.isEmpty()) {
-                try {
-                    question.getAnswers().clear();
-
-                    List<Map<String, Object>> answerMaps = objectMapper.readValue(
-                            answers,
-                            new TypeReference<List<Map<String, Object>>>() {}
-                    );
-
-                    for (Map<String, Object> answerMap : answerMaps) {
-                        String answerText = (String) answerMap.get("text");
-                        Boolean isCorrect = (Boolean) answerMap.get("isCorrect");
-
-                        Answer answer = new Answer(question, answerText, isCorrect != null ? isCorrect : false);
-
-                        Object idObj = answerMap.get("id");
-                        if (idObj != null && idObj instanceof Number) {
-                            long answerId = ((Number) idObj).longValue();
-                            if (answerId < 1000000000000L) {
-                                answer.setId(answerId);
-                            }
-                        }
-
-                        question.addAnswer(answer);
+        QuestionPatchRequest patch = new QuestionPatchRequest();
+        patch.setType(type);
+        patch.setText(text);
+        if (answers != null && !answers.isEmpty()) {
+            try {
+                List<QuestionPatchRequest.AnswerPatch> answerPatches = objectMapper.readValue(answers,
+                        new TypeReference<List<QuestionPatchRequest.AnswerPatch>>() {});
+                for (QuestionPatchRequest.AnswerPatch answerPatch : answerPatches) {
+                    if (answerPatch.getId() != null && answerPatch.getId() >= FIRST_TEMPORARY_ANSWER_ID) {
+                        answerPatch.setId(null);
                     }
-
-                    question = questionService.updateQuestion(id, question);
-
-                    question = questionService.findById(id).orElse(question);
-
-                } catch (Exception e) {
-                    System.err.println("Error parsing answers during update: " + e.getMessage());
-                    e.printStackTrace();
-                    return ResponseEntity.badRequest().body("Error parsing answers: " + e.getMessage());
                 }
+                patch.setAnswers(answerPatches);
+            } catch (JsonProcessingException e) {
+                return ResponseEntity.badRequest().body("Error parsing answers: " + e.getOriginalMessage());
             }
+        }
+        return patchQuestion(id, patch);
+    }
 
-            return ResponseEntity.ok(QuestionDto.fromQuestion(question));
-        } catch (Exception e) {
-            System.err.println("Error updating question: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error updating question: " + e.getMessage());
+    /**
+     * Updates only the given fields and diffs the answers by id, see {@link QuestionPatchRequest}.
+     * Responds with the merged question.
+     */
+    @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> patchQuestion(@PathVariable Long id, @RequestBody QuestionPatchRequest patch) {
+        try {
+            return ResponseEntity.ok(QuestionDto.fromQuestion(questionService.patch(id, patch)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error updating question: " + e.getMessage());
         }
     }
 
@@ -176,6 +184,34 @@ public class QuestionController {
         }
     }
 
+    /**
+     * Deletes many questions at once, e.g. {@code DELETE /api/questions?ids=1,2,3}.
+     * Only questions in the caller's documents are deleted, the response tells how many.
+     */
+    @DeleteMapping
+    public ResponseEntity<?> deleteQuestions(@RequestParam("ids") List<Long> ids, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(Map.of("deleted", questionService.deleteAll(ids, userPrincipal.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves many questions to another document and/or changes their type, see {@link BulkQuestionUpdateRequest}.
+     * Only questions in the caller's documents are changed, the response tells how many.
+     */
+    @PatchMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> updateQuestions(@RequestBody BulkQuestionUpdateRequest request, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(Map.of("updated", questionService.bulkUpdate(request, userPrincipal.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/document/{documentId}")
     public ResponseEntity<List<QuestionDto>> getQuestionsByDocumentId(@PathVariable Long documentId) {
         List<Question> questions = questionService.findByDocumentId(documentId);
@@ -186,33 +222,92 @@ public class QuestionController {
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<QuestionDto>> getQuestionsByType(@PathVariable QuestionType type) {
+    public ResponseEntity<?> getQuestionsByType(
+            @PathVariable QuestionType type,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        if (limit != null || cursor != null) {
+            return ResponseEntity.ok(questionService.listPage(type, cursor, limit, includeTotal)
+                    .map(QuestionDto::fromQuestion));
+        }
+
         List<Question> questions = questionService.findByType(type);
         List<QuestionDto> questionDtos = questions.stream()
                 .map(QuestionDto::fromQuestion)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(questionDtos);
     }
+
+    /**
+     * The caller's questions among the ids are written to the response while they are read, nothing is buffered.
+     * An error after the first bytes are sent can only abort the download.
+     * The export is a read, so If-None-Match is honoured despite the POST: the ETag changes with
+     * every edit of the questions or their answers.
+     */
     @PostMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportQuestionsToPdf(@RequestBody Map<String, List<Long>> request) {
+    public ResponseEntity<StreamingResponseBody> exportQuestionsToPdf(
+            @RequestBody Map<String, List<Long>> request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        List<Long> questionIds = request.get("questionIds");
+        if (questionIds == null || questionIds.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long userId = userPrincipal.getId();
+
+        String fingerprint;
         try {
-            List<Long> questionIds = request.get("questionIds");
-            if (questionIds == null || questionIds.isEmpty()) {
-                return ResponseEntity.badRequest().build();
-            }
+            fingerprint = pdfExportService.fingerprint(questionIds, userId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            byte[] pdfContent = pdfExportService.exportQuestionsToPdf(questionIds);
+        String eTag = "\"" + fingerprint + "\"";
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "questions_export_" + System.currentTimeMillis() + ".pdf");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "questions_export_" + System.currentTimeMillis() + ".pdf");
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        headers.setETag(eTag);
 
-            return new ResponseEntity<>(pdfContent, headers, HttpStatus.OK);
-        } catch (Exception e) {
-            System.err.println("Error exporting questions to PDF: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        StreamingResponseBody body = out -> pdfExportService.exportQuestionsToPdf(questionIds, userId, fingerprint, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Streams the caller's questions among the ids in a question bank format: moodle, gift, qti, csv or docx.
+     * The PDF export above takes precedence for "pdf".
+     */
+    @PostMapping("/export/{format}")
+    public ResponseEntity<StreamingResponseBody> exportQuestions(
+            @PathVariable String format,
+            @RequestBody Map<String, List<Long>> request,
+            Authentication authentication) {
+        List<Long> questionIds = request.get("questionIds");
+        if (questionIds == null || questionIds.isEmpty()) {
+            return ResponseEntity.badRequest().build();
         }
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromName(format);
+            exportService.checkExportSize(questionIds);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long userId = userPrincipal.getId();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType()));
+        headers.setContentDispositionFormData("attachment", "questions_export_" + System.currentTimeMillis() + exportFormat.getExtension());
+        headers.setCacheControl(CacheControl.noStore());
+
+        StreamingResponseBody body = out -> exportService.exportQuestions(questionIds, userId, exportFormat, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
-}
\ No newline at end of file
+}
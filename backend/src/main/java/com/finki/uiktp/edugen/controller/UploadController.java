@@ -0,0 +1,163 @@
+package com.finki.uiktp.edugen.controller;
+
+import com.finki.uiktp.edugen.config.UserPrincipal;
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.UploadConflictException;
+import com.finki.uiktp.edugen.model.UploadSession;
+import com.finki.uiktp.edugen.model.dto.DocumentDTO;
+import com.finki.uiktp.edugen.model.dto.InitiateUploadRequest;
+import com.finki.uiktp.edugen.service.UploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumable upload protocol:
+ * POST /api/uploads starts an upload of a known size,
+ * HEAD /api/uploads/{id} reports the offset to resume from in the Upload-Offset header,
+ * PUT /api/uploads/{id} appends the request body at the offset given in Upload-Offset,
+ * POST /api/uploads/{id}/complete turns the finished upload into a document,
+ * DELETE /api/uploads/{id} discards it.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+public class UploadController {
+
+    public static final String UPLOAD_OFFSET = "Upload-Offset";
+    public static final String UPLOAD_LENGTH = "Upload-Length";
+
+    private final UploadService uploadService;
+
+    public UploadController(UploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> initiateUpload(
+            @RequestBody InitiateUploadRequest request,
+            Authentication authentication) {
+
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+
+        try {
+            UploadSession session = uploadService.initiate(userPrincipal.getId(), request.getTitle(),
+                    request.getLanguage(), request.getType(), request.getFilename(), request.getSize());
+
+            return ResponseEntity.created(URI.create("/api/uploads/" + session.getId()))
+                    .header(UPLOAD_OFFSET, String.valueOf(session.getReceivedBytes()))
+                    .header(UPLOAD_LENGTH, String.valueOf(session.getTotalSize()))
+                    .body(convertSessionToMap(session));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to start upload: " + e.getMessage()));
+        }
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getUploadOffset(@PathVariable String id, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        UploadSession session = uploadService.getSession(id, userPrincipal.getId());
+
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(session.getReceivedBytes()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getTotalSize()))
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .build();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getUpload(@PathVariable String id, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        UploadSession session = uploadService.getSession(id, userPrincipal.getId());
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(convertSessionToMap(session));
+    }
+
+    /**
+     * Append a chunk. The body is read as a raw stream, so any content type is accepted and
+     * the chunk is never buffered in memory or limited by the multipart size settings.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable String id,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request,
+            Authentication authentication) {
+
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+
+        try {
+            UploadSession session = uploadService.appendChunk(id, userPrincipal.getId(), offset, request.getInputStream());
+            return ResponseEntity.noContent()
+                    .header(UPLOAD_OFFSET, String.valueOf(session.getReceivedBytes()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to write chunk: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String id, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+
+        try {
+            Document document = uploadService.complete(id, userPrincipal.getId());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Document uploaded successfully");
+            response.put("documentId", document.getId());
+            response.put("document", DocumentDTO.fromEntity(document));
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to complete upload: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String id, Authentication authentication) throws IOException {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        uploadService.abort(id, userPrincipal.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Report the offset the client has to resume from together with the conflict.
+     */
+    @ExceptionHandler(UploadConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(UploadConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(UPLOAD_OFFSET, String.valueOf(e.getExpectedOffset()))
+                .body(Map.of("message", e.getMessage(), "offset", e.getExpectedOffset()));
+    }
+
+    private Map<String, Object> convertSessionToMap(UploadSession session) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", session.getId());
+        map.put("title", session.getTitle());
+        map.put("filename", session.getOriginalFilename());
+        map.put("format", session.getFormat().name());
+        map.put("totalSize", session.getTotalSize());
+        map.put("receivedBytes", session.getReceivedBytes());
+        map.put("createdAt", session.getCreatedAt());
+        map.put("updatedAt", session.getUpdatedAt());
+        return map;
+    }
+}
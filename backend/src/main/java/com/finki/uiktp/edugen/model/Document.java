@@ -6,13 +6,18 @@ import com.finki.uiktp.edugen.model.enums.DocumentFormat;
 import com.finki.uiktp.edugen.model.enums.DocumentType;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "document")
 @Data
+@Table(indexes = @Index(name = "idx_document_user_uploaded_date", columnList = "user_id, uploaded_date, id"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Document {
     @Id
@@ -37,6 +42,33 @@ public class Document {
     @Column(name = "file_path")
     private String filePath;
 
+    // Statistics computed when the document is indexed, null until then
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "page_count")
+    private Integer pageCount;
+
+    @Column(name = "character_count")
+    private Long characterCount;
+
+    @Column(name = "word_count")
+    private Long wordCount;
+
+    @Column(name = "estimated_tokens")
+    private Long estimatedTokens;
+
+    @Column(name = "extraction_duration_ms")
+    private Long extractionDurationMs;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Set when the chunks are stored, a document without any text is indexed but has no chunks
+    @Column(name = "indexed_at")
+    private LocalDateTime indexedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
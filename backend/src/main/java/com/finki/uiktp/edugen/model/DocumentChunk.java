@@ -0,0 +1,64 @@
+package com.finki.uiktp.edugen.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "document_chunk", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_document_chunk_document_index", columnNames = {"document_id", "chunk_index"})
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class DocumentChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_chunk_seq")
+    @SequenceGenerator(name = "document_chunk_seq", sequenceName = "document_chunk_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id", nullable = false)
+    @JsonIgnore
+    private Document document;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Column(name = "page_number")
+    private Integer pageNumber;
+
+    @Column(name = "section_title", length = 500)
+    private String sectionTitle;
+
+    @Column(name = "paragraph_index", nullable = false)
+    private int paragraphIndex;
+
+    @Column(name = "paragraph_count", nullable = false)
+    private int paragraphCount;
+
+    @Column(name = "start_offset", nullable = false)
+    private int startOffset;
+
+    @Column(name = "end_offset", nullable = false)
+    private int endOffset;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    public DocumentChunk() {
+    }
+
+    public DocumentChunk(Document document, int chunkIndex, Integer pageNumber, String sectionTitle,
+                         int paragraphIndex, int paragraphCount, int startOffset, int endOffset, String content) {
+        this.document = document;
+        this.chunkIndex = chunkIndex;
+        this.pageNumber = pageNumber;
+        this.sectionTitle = sectionTitle;
+        this.paragraphIndex = paragraphIndex;
+        this.paragraphCount = paragraphCount;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.content = content;
+    }
+}
@@ -0,0 +1,11 @@
+package com.finki.uiktp.edugen.model.Exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ExtractionCapacityExceededException extends RuntimeException {
+    public ExtractionCapacityExceededException(Long documentId) {
+        super(String.format("Too many large documents are being processed, document with id: %d was not extracted", documentId));
+    }
+}
@@ -0,0 +1,11 @@
+package com.finki.uiktp.edugen.model.Exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UploadSessionNotFoundException extends RuntimeException {
+    public UploadSessionNotFoundException(String id) {
+        super(String.format("Upload with id: %s was not found", id));
+    }
+}
@@ -5,16 +5,26 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.finki.uiktp.edugen.model.enums.QuestionType;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "question")
 @Data
+@Table(indexes = {
+        @Index(name = "idx_question_document_id", columnList = "document_id, id"),
+        @Index(name = "idx_question_type_id", columnList = "type, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Question {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,7 +38,16 @@ public class Question {
     @Enumerated(EnumType.STRING)
     private QuestionType type;
 
+    /**
+     * Also raised when the answers collection changes. Primitive, so Spring Data tells new questions by their id.
+     */
+    @Version
+    @JsonIgnore
+    private long version;
+
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "question-answers")
     private List<Answer> answers = new ArrayList<>();
 
     @Transient
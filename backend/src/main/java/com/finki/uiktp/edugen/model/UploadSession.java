@@ -0,0 +1,78 @@
+package com.finki.uiktp.edugen.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload in progress. The bytes received so far live in a partial file
+ * under the upload temp directory and receivedBytes is the offset the next chunk must start at.
+ */
+@Entity
+@Data
+@Table(name = "upload_session", indexes = @Index(name = "idx_upload_session_updated_at", columnList = "updated_at"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
+    private User user;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String language;
+
+    @Enumerated(EnumType.STRING)
+    private DocumentType type;
+
+    @Enumerated(EnumType.STRING)
+    private DocumentFormat format;
+
+    @Column(name = "original_filename", nullable = false)
+    private String originalFilename;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Column(name = "received_bytes", nullable = false)
+    private long receivedBytes;
+
+    @Column(name = "temp_path", nullable = false)
+    @JsonIgnore
+    private String tempPath;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UploadSession() {
+    }
+
+    public UploadSession(String id, User user, String title, String language, DocumentType type,
+                         DocumentFormat format, String originalFilename, long totalSize, String tempPath) {
+        this.id = id;
+        this.user = user;
+        this.title = title;
+        this.language = language;
+        this.type = type;
+        this.format = format;
+        this.originalFilename = originalFilename;
+        this.totalSize = totalSize;
+        this.tempPath = tempPath;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.finki.uiktp.edugen.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One named per-user count behind the dashboard, e.g. "documents.type.LECTURE".
+ * Rows are only changed by the additive statements of
+ * {@link com.finki.uiktp.edugen.repository.UserCounterRepository}.
+ */
+@Entity
+@Table(name = "user_counter")
+@IdClass(UserCounter.Key.class)
+@Getter
+public class UserCounter {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String name;
+    }
+}
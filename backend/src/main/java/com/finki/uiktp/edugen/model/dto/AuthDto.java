@@ -41,4 +41,11 @@ public class AuthDto {
         private String email;
         private String role;
     }
-}
\ No newline at end of file
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RevokeRequest {
+        private String token;
+    }
+}
@@ -0,0 +1,17 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Moves the given questions to another document and/or changes their type.
+ * Fields left null are not changed.
+ */
+@Data
+public class BulkQuestionUpdateRequest {
+    private List<Long> ids;
+    private Long documentId;
+    private QuestionType type;
+}
@@ -0,0 +1,23 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the dashboard shows for one user, read from the user's counters
+ * and the first page of the document summaries.
+ */
+public record DashboardSummaryDto(
+        long totalDocuments,
+        Map<DocumentType, Long> documentsByType,
+        Map<DocumentFormat, Long> documentsByFormat,
+        long totalQuestions,
+        Map<QuestionType, Long> questionsByType,
+        long generationRequests,
+        long generatedQuestions,
+        List<DocumentSummaryDto> recentDocuments) {
+}
@@ -19,6 +19,11 @@ public class DocumentDTO {
     private DocumentFormat format;
     private String filePath;
     private int questionCount;
+    private Long fileSize;
+    private Integer pageCount;
+    private Long characterCount;
+    private Long wordCount;
+    private Long estimatedTokens;
 
     public DocumentDTO() {
     }
@@ -55,6 +60,11 @@ public class DocumentDTO {
         dto.setType(document.getType());
         dto.setFormat(document.getFormat());
         dto.setFilePath(document.getFilePath());
+        dto.setFileSize(document.getFileSize());
+        dto.setPageCount(document.getPageCount());
+        dto.setCharacterCount(document.getCharacterCount());
+        dto.setWordCount(document.getWordCount());
+        dto.setEstimatedTokens(document.getEstimatedTokens());
 
         if (document.getQuestions() != null) {
             dto.setQuestionCount(document.getQuestions().size());
@@ -0,0 +1,25 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the document list, selected by a single aggregate query
+ * instead of loading Document entities and their questions.
+ */
+public record DocumentSummaryDto(
+        Long id,
+        String title,
+        LocalDateTime uploadedDate,
+        String language,
+        DocumentType type,
+        DocumentFormat format,
+        Long fileSize,
+        Integer pageCount,
+        Long characterCount,
+        Long wordCount,
+        Long estimatedTokens,
+        long questionCount) {
+}
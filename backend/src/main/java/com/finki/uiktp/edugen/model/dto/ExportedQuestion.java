@@ -0,0 +1,15 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+
+import java.util.List;
+
+/**
+ * A question with its answers as read by an export, detached from the entities.
+ */
+public record ExportedQuestion(Long id, String text, QuestionType type, Long documentId, String documentTitle,
+                               List<ExportedAnswer> answers) {
+
+    public record ExportedAnswer(String text, boolean correct) {
+    }
+}
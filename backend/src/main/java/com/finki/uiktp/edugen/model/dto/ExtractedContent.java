@@ -0,0 +1,28 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ExtractedContent {
+    private List<ExtractedParagraph> paragraphs = new ArrayList<>();
+    private Integer pageCount;
+    private long originalCharacters;
+    private long normalizedCharacters;
+    private Long fileSize;
+    private String contentHash;
+    private long extractionDurationMs;
+
+    public ExtractedContent() {
+    }
+
+    public ExtractedContent(List<ExtractedParagraph> paragraphs, Integer pageCount,
+                            long originalCharacters, long normalizedCharacters) {
+        this.paragraphs = paragraphs;
+        this.pageCount = pageCount;
+        this.originalCharacters = originalCharacters;
+        this.normalizedCharacters = normalizedCharacters;
+    }
+}
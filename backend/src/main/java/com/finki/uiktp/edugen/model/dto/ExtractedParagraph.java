@@ -0,0 +1,21 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import lombok.Data;
+
+@Data
+public class ExtractedParagraph {
+    private Integer pageNumber;
+    private String sectionTitle;
+    private boolean heading;
+    private String text;
+
+    public ExtractedParagraph() {
+    }
+
+    public ExtractedParagraph(Integer pageNumber, String sectionTitle, boolean heading, String text) {
+        this.pageNumber = pageNumber;
+        this.sectionTitle = sectionTitle;
+        this.heading = heading;
+        this.text = text;
+    }
+}
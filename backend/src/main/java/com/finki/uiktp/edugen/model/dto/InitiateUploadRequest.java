@@ -0,0 +1,13 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import lombok.Data;
+
+@Data
+public class InitiateUploadRequest {
+    private String title;
+    private String language;
+    private DocumentType type;
+    private String filename;
+    private long size;
+}
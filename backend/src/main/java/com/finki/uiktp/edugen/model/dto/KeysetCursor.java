@@ -0,0 +1,52 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.Exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor holding the sort key of the last row of a page,
+ * either just the id or an (uploadedDate, id) pair. Clients must not parse it.
+ */
+public record KeysetCursor(LocalDateTime timestamp, long id) {
+    private static final String SEPARATOR = "|";
+
+    public static KeysetCursor ofId(long id) {
+        return new KeysetCursor(null, id);
+    }
+
+    public static KeysetCursor of(LocalDateTime timestamp, long id) {
+        return new KeysetCursor(timestamp, id);
+    }
+
+    public String encode() {
+        String value = timestamp == null ? String.valueOf(id) : timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a missing cursor, meaning the first page
+     * @throws InvalidCursorException when the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor, boolean withTimestamp) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (withTimestamp != separator >= 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            if (!withTimestamp) {
+                return ofId(Long.parseLong(value));
+            }
+            return of(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
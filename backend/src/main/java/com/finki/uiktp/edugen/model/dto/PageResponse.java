@@ -0,0 +1,42 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is null on the last page and
+ * total is only filled when the client asked for it, since counting scans the whole table.
+ */
+@Data
+public class PageResponse<T> {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+    private Long total;
+
+    public PageResponse() {
+    }
+
+    public PageResponse(List<T> items, String nextCursor, int limit, Long total) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+        this.total = total;
+    }
+
+    public <R> PageResponse<R> map(Function<T, R> mapper) {
+        return new PageResponse<>(items.stream().map(mapper).toList(), nextCursor, limit, total);
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
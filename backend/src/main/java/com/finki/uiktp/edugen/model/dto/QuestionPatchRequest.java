@@ -0,0 +1,25 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Partial update of a question. Fields left null keep their current value.
+ * When answers are given they replace the current set: entries with an id update that answer,
+ * entries without one are added, and current answers that are not listed are removed.
+ */
+@Data
+public class QuestionPatchRequest {
+    private QuestionType type;
+    private String text;
+    private List<AnswerPatch> answers;
+
+    @Data
+    public static class AnswerPatch {
+        private Long id;
+        private String text;
+        private Boolean isCorrect;
+    }
+}
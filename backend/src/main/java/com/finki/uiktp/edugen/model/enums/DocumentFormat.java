@@ -3,5 +3,23 @@ package com.finki.uiktp.edugen.model.enums;
 public enum DocumentFormat {
     PDF,
     DOCX,
-    TXT,
+    TXT;
+
+    /**
+     * Resolves the format from the extension of an uploaded file name.
+     *
+     * @throws IllegalArgumentException when the name has no extension or the extension is not supported
+     */
+    public static DocumentFormat fromFilename(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            throw new IllegalArgumentException("Invalid file name");
+        }
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toUpperCase();
+        for (DocumentFormat format : values()) {
+            if (format.name().equals(extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Only PDF, DOCX, and TXT files are allowed");
+    }
 }
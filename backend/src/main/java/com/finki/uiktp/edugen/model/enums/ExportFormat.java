@@ -0,0 +1,45 @@
+package com.finki.uiktp.edugen.model.enums;
+
+/**
+ * Question bank formats written by the exporters, in addition to the PDF export.
+ */
+public enum ExportFormat {
+    MOODLE_XML("moodle", "application/xml", ".xml"),
+    GIFT("gift", "text/plain;charset=UTF-8", ".gift.txt"),
+    QTI("qti", "application/zip", ".zip"),
+    CSV("csv", "text/csv;charset=UTF-8", ".csv"),
+    DOCX("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document", ".docx");
+
+    private final String name;
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String name, String contentType, String extension) {
+        this.name = name;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolves the format from its name in export URLs, e.g. "moodle" or "qti".
+     *
+     * @throws IllegalArgumentException when the format is not supported
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + name
+                + ", use one of moodle, gift, qti, csv or docx");
+    }
+}
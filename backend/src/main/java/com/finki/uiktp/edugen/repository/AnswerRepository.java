@@ -1,9 +1,28 @@
 package com.finki.uiktp.edugen.repository;
 
 import com.finki.uiktp.edugen.model.Answer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AnswerRepository extends JpaRepository<Answer, Long> {
+    List<Answer> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    // Set-based deletes, they run before the questions they belong to are deleted
+
+    @Modifying
+    @Query("DELETE FROM Answer a WHERE a.question.id IN " +
+            "(SELECT q.id FROM Question q WHERE q.document.id = :documentId)")
+    int deleteByDocumentId(@Param("documentId") Long documentId);
+
+    @Modifying
+    @Query("DELETE FROM Answer a WHERE a.question.id IN " +
+            "(SELECT q.id FROM Question q WHERE q.id IN :questionIds AND " + QuestionRepository.OWNED_BY_USER + ")")
+    int deleteByQuestionIdInOwnedBy(@Param("questionIds") List<Long> questionIds, @Param("userId") Long userId);
 }
@@ -0,0 +1,31 @@
+package com.finki.uiktp.edugen.repository;
+
+import com.finki.uiktp.edugen.model.DocumentChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, Long> {
+    List<DocumentChunk> findByDocumentIdOrderByChunkIndex(Long documentId);
+
+    List<DocumentChunk> findByDocumentIdAndPageNumberOrderByChunkIndex(Long documentId, Integer pageNumber);
+
+    @Query("SELECT c FROM DocumentChunk c WHERE c.document.id = :documentId " +
+            "AND (LOWER(c.content) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(c.sectionTitle) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+            "ORDER BY c.chunkIndex")
+    List<DocumentChunk> search(@Param("documentId") Long documentId, @Param("query") String query);
+
+    boolean existsByDocumentId(Long documentId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentChunk c WHERE c.document.id = :documentId")
+    int deleteByDocumentId(@Param("documentId") Long documentId);
+}
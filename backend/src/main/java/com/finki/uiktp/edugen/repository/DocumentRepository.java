@@ -2,13 +2,22 @@ package com.finki.uiktp.edugen.repository;
 
 import com.finki.uiktp.edugen.model.Document;
 import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.dto.DocumentSummaryDto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
@@ -20,4 +29,87 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     @Query(value = "SELECT d.* FROM document d WHERE d.user_id = :#{#user.id} ORDER BY d.uploaded_date DESC LIMIT :limit", nativeQuery = true)
     List<Document> findByUserOrderByUploadedDateDesc(@Param("user") User user, @Param("limit") int limit);
-}
\ No newline at end of file
+
+    String SUMMARY_SELECT = "SELECT new com.finki.uiktp.edugen.model.dto.DocumentSummaryDto(" +
+            "d.id, d.title, d.uploadedDate, d.language, d.type, d.format, d.fileSize, d.pageCount, " +
+            "d.characterCount, d.wordCount, d.estimatedTokens, COUNT(q.id)) " +
+            "FROM Document d LEFT JOIN d.questions q ";
+    String SUMMARY_GROUP_BY = "GROUP BY d.id, d.title, d.uploadedDate, d.language, d.type, d.format, d.fileSize, " +
+            "d.pageCount, d.characterCount, d.wordCount, d.estimatedTokens " +
+            "ORDER BY d.uploadedDate DESC, d.id DESC";
+
+    /**
+     * Summaries of a user's documents with their question counts, newest first, in one aggregate query.
+     * Nothing is loaded into the persistence context.
+     */
+    @Query(SUMMARY_SELECT + "WHERE d.user.id = :userId " + SUMMARY_GROUP_BY)
+    List<DocumentSummaryDto> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Keyset pages of the summaries, served by the (user_id, uploaded_date, id) index.
+     */
+    @Query(SUMMARY_SELECT + "WHERE d.user.id = :userId " + SUMMARY_GROUP_BY)
+    List<DocumentSummaryDto> findSummaryPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE d.user.id = :userId " +
+            "AND (d.uploadedDate < :uploadedDate OR (d.uploadedDate = :uploadedDate AND d.id < :id)) " +
+            SUMMARY_GROUP_BY)
+    List<DocumentSummaryDto> findSummaryPageByUserIdBefore(@Param("userId") Long userId,
+                                                           @Param("uploadedDate") LocalDateTime uploadedDate,
+                                                           @Param("id") Long id,
+                                                           Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    boolean existsByFilePathEndingWith(String fileName);
+
+    boolean existsByIdAndIndexedAtIsNotNull(Long id);
+
+    /**
+     * Loads a document with a row lock held until the transaction ends, which serializes the indexing of one document.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.id = :id")
+    Optional<Document> lockById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Document d SET d.indexedAt = :indexedAt WHERE d.id = :id")
+    int markIndexed(@Param("id") Long id, @Param("indexedAt") LocalDateTime indexedAt);
+
+    /**
+     * Stores the statistics computed while indexing without touching the fields users can edit.
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.fileSize = :fileSize, d.pageCount = :pageCount, " +
+            "d.characterCount = :characterCount, d.wordCount = :wordCount, d.estimatedTokens = :estimatedTokens, " +
+            "d.extractionDurationMs = :extractionDurationMs, d.contentHash = :contentHash WHERE d.id = :id")
+    int updateStatistics(@Param("id") Long id,
+                         @Param("fileSize") Long fileSize,
+                         @Param("pageCount") Integer pageCount,
+                         @Param("characterCount") Long characterCount,
+                         @Param("wordCount") Long wordCount,
+                         @Param("estimatedTokens") Long estimatedTokens,
+                         @Param("extractionDurationMs") Long extractionDurationMs,
+                         @Param("contentHash") String contentHash);
+
+    /**
+     * Streams the stored file of every document in no particular order. Must run inside a transaction.
+     */
+    @Query("SELECT d.id AS id, d.filePath AS path FROM Document d WHERE d.filePath IS NOT NULL")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<StoredFile> streamStoredFiles();
+
+    interface StoredFile {
+        Long getId();
+
+        String getPath();
+    }
+
+    /**
+     * Deletes the row without loading the document or cascading to its collections,
+     * the questions, answers and chunks have to be deleted first.
+     */
+    @Modifying
+    @Query("DELETE FROM Document d WHERE d.id = :id")
+    int deleteRowById(@Param("id") Long id);
+}
@@ -3,16 +3,157 @@ package com.finki.uiktp.edugen.repository;
 import com.finki.uiktp.edugen.model.Document;
 import com.finki.uiktp.edugen.model.Question;
 import com.finki.uiktp.edugen.model.enums.QuestionType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * The list queries load questions together with their document and answers in a single
+ * statement, so mapping them to {@link com.finki.uiktp.edugen.model.dto.QuestionDto} issues no further queries.
+ */
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
+    /**
+     * Restricts a bulk statement on questions aliased q to those in documents of the user bound to :userId.
+     */
+    String OWNED_BY_USER = "q.document.id IN (SELECT d.id FROM Document d WHERE d.user.id = :userId)";
+
+    /**
+     * Restricts a bulk statement on questions aliased q to those of the type bound to :type, or without a type when it is null.
+     */
+    String OF_TYPE = "q.type IS NOT DISTINCT FROM :type";
+
+    /**
+     * Select and joins of the {@link ExportRow} streams, the document is aliased d and the answer a.
+     */
+    String EXPORT_ROWS = "SELECT q.id AS questionId, q.text AS questionText, q.type AS questionType, " +
+            "d.id AS documentId, d.title AS documentTitle, a.text AS answerText, a.isCorrect AS answerCorrect " +
+            "FROM Question q JOIN q.document d LEFT JOIN q.answers a ";
+
     List<Question> findByDocument(Document document);
 
     List<Question> findByType(QuestionType type);
 
     List<Question> findByDocumentAndType(Document document, QuestionType type);
+
+    @Override
+    @EntityGraph(attributePaths = {"document", "answers"})
+    Optional<Question> findById(Long id);
+
+    @EntityGraph(attributePaths = {"document", "answers"})
+    @Query("SELECT q FROM Question q ORDER BY q.id")
+    List<Question> findAllWithDocumentAndAnswers();
+
+    @EntityGraph(attributePaths = {"document", "answers"})
+    List<Question> findByDocumentIdOrderById(Long documentId);
+
+    @EntityGraph(attributePaths = {"document", "answers"})
+    List<Question> findByTypeOrderById(QuestionType type);
+
+    /**
+     * First step of a keyset page: the ids after the cursor, limited by the pageable's size.
+     * The questions are then loaded with {@link #findAllWithDocumentAndAnswersByIdIn(List)},
+     * limiting a fetch join over a collection would otherwise page in memory.
+     */
+    @Query("SELECT q.id FROM Question q WHERE q.id > :afterId ORDER BY q.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT q.id FROM Question q WHERE q.type = :type AND q.id > :afterId ORDER BY q.id")
+    List<Long> findIdsByTypeAfter(@Param("type") QuestionType type, @Param("afterId") long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"document", "answers"})
+    @Query("SELECT q FROM Question q WHERE q.id IN :ids ORDER BY q.id")
+    List<Question> findAllWithDocumentAndAnswersByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * One row per answer (or per question without answers), grouped by document and question, for exports.
+     * The rows are projections, so a long export neither fills the persistence context nor the second-level cache.
+     * Must be consumed inside a transaction and closed, like the other export streams.
+     */
+    @Query(EXPORT_ROWS + "WHERE q.id IN :ids AND d.user.id = :userId ORDER BY d.title, d.id, q.id, a.id")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<ExportRow> streamExportRowsByIdInOwnedBy(@Param("ids") List<Long> ids, @Param("userId") Long userId);
+
+    @Query(EXPORT_ROWS + "WHERE d.id = :documentId ORDER BY q.id, a.id")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<ExportRow> streamExportRowsByDocumentId(@Param("documentId") Long documentId);
+
+    interface ExportRow {
+        Long getQuestionId();
+
+        String getQuestionText();
+
+        QuestionType getQuestionType();
+
+        Long getDocumentId();
+
+        String getDocumentTitle();
+
+        String getAnswerText();
+
+        Boolean getAnswerCorrect();
+    }
+
+    /**
+     * One row per document of the questions, summing up their state: any edit, move, addition or removal
+     * of a question or answer changes a count, a version sum or the highest answer id.
+     * The question versions are summed once per answer row, which still grows with every question update.
+     */
+    @Query("SELECT d.id AS documentId, d.title AS documentTitle, COUNT(DISTINCT q.id) AS questionCount, " +
+            "COUNT(a.id) AS answerCount, SUM(q.version) AS questionVersions, SUM(a.version) AS answerVersions, " +
+            "MAX(a.id) AS lastAnswerId " +
+            "FROM Question q JOIN q.document d LEFT JOIN q.answers a " +
+            "WHERE q.id IN :ids AND d.user.id = :userId GROUP BY d.id, d.title ORDER BY d.id")
+    List<ExportStamp> findExportStampsByIdInOwnedBy(@Param("ids") List<Long> ids, @Param("userId") Long userId);
+
+    interface ExportStamp {
+        Long getDocumentId();
+
+        String getDocumentTitle();
+
+        Long getQuestionCount();
+
+        Long getAnswerCount();
+
+        Long getQuestionVersions();
+
+        Long getAnswerVersions();
+
+        Long getLastAnswerId();
+    }
+
+    long countByType(QuestionType type);
+
+    // Set-based bulk statements, they bypass the persistence context and never load the questions.
+    // Updates raise the version themselves, like an update of a loaded question would.
+    // The type-restricted ones run once per type, so their update counts are exact per-type deltas for the dashboard
+
+    @Modifying
+    @Query("DELETE FROM Question q WHERE q.document.id = :documentId AND " + OF_TYPE)
+    int deleteByDocumentIdAndType(@Param("documentId") Long documentId, @Param("type") QuestionType type);
+
+    @Modifying
+    @Query("DELETE FROM Question q WHERE q.id IN :ids AND " + OF_TYPE + " AND " + OWNED_BY_USER)
+    int deleteByIdInAndTypeOwnedBy(@Param("ids") List<Long> ids, @Param("type") QuestionType type,
+                                   @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Question q SET q.document = :document, q.version = q.version + 1 WHERE q.id IN :ids AND " + OWNED_BY_USER)
+    int moveToDocument(@Param("ids") List<Long> ids, @Param("document") Document document, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Question q SET q.type = :to, q.version = q.version + 1 " +
+            "WHERE q.id IN :ids AND " + OF_TYPE + " AND " + OWNED_BY_USER)
+    int updateType(@Param("ids") List<Long> ids, @Param("type") QuestionType from, @Param("to") QuestionType to,
+                   @Param("userId") Long userId);
 }
@@ -0,0 +1,17 @@
+package com.finki.uiktp.edugen.repository;
+
+import com.finki.uiktp.edugen.model.UploadSession;
+import com.finki.uiktp.edugen.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    Optional<UploadSession> findByIdAndUser(String id, User user);
+
+    List<UploadSession> findByUpdatedAtBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,50 @@
+package com.finki.uiktp.edugen.repository;
+
+import com.finki.uiktp.edugen.model.UserCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserCounterRepository extends JpaRepository<UserCounter, UserCounter.Key> {
+    List<UserCounter> findByUserId(Long userId);
+
+    // Counters are changed in place through DashboardServiceImplementation, the query spaces keep Hibernate
+    // from evicting the whole second-level cache after these native statements. Both clamp at zero only as a
+    // guard, the deltas come from rows that were actually changed
+
+    /**
+     * Adds the delta to an existing counter. Concurrent adds to the same counter serialize on its row.
+     *
+     * @return 0 when the counter does not exist yet
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE user_counter SET amount = GREATEST(amount + :delta, 0) WHERE user_id = :userId AND name = :name",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_counter"))
+    int increment(@Param("userId") Long userId, @Param("name") String name, @Param("delta") long delta);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_counter (user_id, name, amount) VALUES (:userId, :name, GREATEST(:delta, 0))",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_counter"))
+    int insert(@Param("userId") Long userId, @Param("name") String name, @Param("delta") long delta);
+
+    /**
+     * Locks the user's row until the transaction ends, so only one transaction at a time creates that user's counters.
+     */
+    @Query(value = "SELECT id FROM app_user WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "app_user"))
+    Optional<Long> lockUser(@Param("userId") Long userId);
+}
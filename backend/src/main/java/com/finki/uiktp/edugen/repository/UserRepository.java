@@ -1,13 +1,21 @@
 package com.finki.uiktp.edugen.repository;
 
 import com.finki.uiktp.edugen.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Runs on every authenticated request, the result is kept in the query cache
+     * and invalidated whenever the user table changes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
 }
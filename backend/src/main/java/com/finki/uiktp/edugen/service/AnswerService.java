@@ -1,6 +1,7 @@
 package com.finki.uiktp.edugen.service;
 
 import com.finki.uiktp.edugen.model.Answer;
+import com.finki.uiktp.edugen.model.dto.PageResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +9,8 @@ import java.util.Optional;
 public interface AnswerService {
     List<Answer> listAll();
 
+    PageResponse<Answer> listPage(String cursor, Integer limit, boolean includeTotal);
+
     Optional<Answer> findById(Long id);
 
     Answer create(Long questionId, String text, Boolean isCorrect);
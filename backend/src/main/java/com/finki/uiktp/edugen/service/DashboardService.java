@@ -0,0 +1,18 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.dto.DashboardSummaryDto;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+
+public interface DashboardService {
+    DashboardSummaryDto getSummary(Long userId, int recentLimit);
+
+    void documentsChanged(Long userId, DocumentType type, DocumentFormat format, long delta);
+
+    void questionsAdded(Long userId, QuestionType type, long delta);
+
+    void questionsRetyped(Long userId, QuestionType from, QuestionType to, long count);
+
+    void generationRecorded(Long userId, int generatedQuestions);
+}
@@ -0,0 +1,32 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.DocumentChunk;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface DocumentChunkService {
+    /**
+     * Extracts a document and replaces its stored chunks with the freshly extracted structure
+     *
+     * @param document the document to index
+     * @return the stored chunks in reading order
+     */
+    List<DocumentChunk> indexDocument(Document document) throws IOException;
+
+    /**
+     * Returns the chunks of a document, indexing it first if it has never been indexed
+     */
+    List<DocumentChunk> findOrIndex(Document document) throws IOException;
+
+    List<DocumentChunk> findByDocumentId(Long documentId);
+
+    List<DocumentChunk> findByPage(Long documentId, Integer pageNumber);
+
+    List<DocumentChunk> search(Long documentId, String query);
+
+    void deleteByDocumentId(Long documentId);
+
+    String joinContent(List<DocumentChunk> chunks);
+}
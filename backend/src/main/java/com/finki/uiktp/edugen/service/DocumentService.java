@@ -1,11 +1,14 @@
 package com.finki.uiktp.edugen.service;
 
 import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.dto.DocumentSummaryDto;
+import com.finki.uiktp.edugen.model.dto.PageResponse;
 import com.finki.uiktp.edugen.model.enums.DocumentFormat;
 import com.finki.uiktp.edugen.model.enums.DocumentType;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +18,8 @@ public interface DocumentService {
     Optional<Document> findById(Long id);
     Optional<Document> findByTitle(String title);
     List<Document> listAllByUserId(Long userId);
+    List<DocumentSummaryDto> listSummariesByUserId(Long userId);
+    PageResponse<DocumentSummaryDto> listPageByUserId(Long userId, String cursor, Integer limit, boolean includeTotal);
     List<Document> getRecentDocuments(int limit, Long userId);
     Optional<Document> findByIdAndUserId(Long id, Long userId);
 
@@ -24,6 +29,11 @@ public interface DocumentService {
     Document uploadDocument(Long userId, String title, String language,
                             DocumentType type, MultipartFile file) throws IOException;
 
+    Document uploadDocument(Long userId, String title, String language, DocumentType type,
+                            String originalFilename, Path file) throws IOException;
+
+    DocumentFormat validateUpload(String title, String originalFilename, long size);
+
     Optional<Document> update(Long id, Long userId, String title, String language,
                               DocumentType type, DocumentFormat format);
 
@@ -0,0 +1,15 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface ExportService {
+    void checkExportSize(List<Long> questionIds);
+
+    void exportQuestions(List<Long> questionIds, Long userId, ExportFormat format, OutputStream out) throws IOException;
+
+    void exportDocument(Long documentId, ExportFormat format, OutputStream out) throws IOException;
+}
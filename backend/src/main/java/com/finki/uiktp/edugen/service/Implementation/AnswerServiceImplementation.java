@@ -1,12 +1,16 @@
 package com.finki.uiktp.edugen.service.Implementation;
 
+import com.finki.uiktp.edugen.config.ReplicaRead;
 import com.finki.uiktp.edugen.model.Answer;
 import com.finki.uiktp.edugen.model.Exceptions.AnswerNotFoundException;
 import com.finki.uiktp.edugen.model.Exceptions.QuestionNotFoundException;
 import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.dto.KeysetCursor;
+import com.finki.uiktp.edugen.model.dto.PageResponse;
 import com.finki.uiktp.edugen.repository.AnswerRepository;
 import com.finki.uiktp.edugen.repository.QuestionRepository;
 import com.finki.uiktp.edugen.service.AnswerService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,10 +28,28 @@ public class AnswerServiceImplementation implements AnswerService {
     }
 
     @Override
+    @ReplicaRead
     public List<Answer> listAll() {
         return answerRepository.findAll();
     }
 
+    @Override
+    @ReplicaRead
+    public PageResponse<Answer> listPage(String cursor, Integer limit, boolean includeTotal) {
+        int pageSize = PageResponse.clampLimit(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor, false);
+
+        List<Answer> answers = answerRepository.findByIdGreaterThanOrderById(
+                after != null ? after.id() : 0L, PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (answers.size() > pageSize) {
+            answers = answers.subList(0, pageSize);
+            nextCursor = KeysetCursor.ofId(answers.get(pageSize - 1).getId()).encode();
+        }
+        return new PageResponse<>(answers, nextCursor, pageSize, includeTotal ? answerRepository.count() : null);
+    }
+
     @Override
     public Optional<Answer> findById(Long id) {
         return answerRepository.findById(id);
@@ -6,15 +6,19 @@ import com.finki.uiktp.edugen.model.dto.AuthDto.RegisterRequest;
 import com.finki.uiktp.edugen.model.User;
 import com.finki.uiktp.edugen.model.enums.Role;
 import com.finki.uiktp.edugen.repository.UserRepository;
+import com.finki.uiktp.edugen.config.JwtClaims;
 import com.finki.uiktp.edugen.config.JwtUtil;
 import com.finki.uiktp.edugen.config.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -23,8 +27,11 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final LoginThrottle loginThrottle;
+    private final TokenDenylist tokenDenylist;
 
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientIp) {
+        loginThrottle.checkRegistration(clientIp);
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new IllegalArgumentException("Email already in use");
         }
@@ -51,13 +58,26 @@ public class AuthService {
                 .build();
     }
 
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+    /**
+     * @throws com.finki.uiktp.edugen.model.Exceptions.TooManyAttemptsException when the client IP or the account is throttled
+     * @throws com.finki.uiktp.edugen.model.Exceptions.ServiceBusyException when password hashing is saturated
+     */
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginThrottle.checkLogin(clientIp, request.getEmail());
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(request.getEmail());
+            throw e;
+        }
+        loginThrottle.recordSuccess(request.getEmail());
 
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
@@ -74,4 +94,18 @@ public class AuthService {
                 .role(user.getRole().name())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Revokes the token until it expires, on logout or by an admin.
+     *
+     * @return false when the token is invalid, already expired or was issued without an id
+     */
+    public boolean revoke(String token) {
+        Optional<JwtClaims> claims = jwtUtil.parse(token);
+        if (claims.isEmpty() || claims.get().jti() == null) {
+            return false;
+        }
+        tokenDenylist.revoke(claims.get().jti(), claims.get().userId(), claims.get().expiresAt());
+        return true;
+    }
+}
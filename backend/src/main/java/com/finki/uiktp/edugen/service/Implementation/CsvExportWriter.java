@@ -0,0 +1,79 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * RFC 4180 CSV with one row per answer, so any number of answers fits the same columns.
+ * A question without answers gets a single row with empty answer columns.
+ */
+@Component
+public class CsvExportWriter implements QuestionExportWriter {
+
+    private static final String HEADER = "question_id,document,type,question,answer,correct";
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.CSV;
+    }
+
+    @Override
+    public void write(Iterator<ExportedQuestion> questions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // Byte order mark, without it Excel reads the file in the system code page
+        writer.write('\uFEFF');
+        writer.write(HEADER);
+        writer.write("\r\n");
+
+        while (questions.hasNext()) {
+            ExportedQuestion question = questions.next();
+            if (question.answers().isEmpty()) {
+                writeRow(writer, question, "", "");
+            }
+            for (ExportedAnswer answer : question.answers()) {
+                writeRow(writer, question, answer.text(), String.valueOf(answer.correct()));
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeRow(Writer writer, ExportedQuestion question, String answer, String correct) throws IOException {
+        writer.write(String.valueOf(question.id()));
+        writer.write(',');
+        writeField(writer, question.documentTitle());
+        writer.write(',');
+        writer.write(question.type() != null ? question.type().name() : "");
+        writer.write(',');
+        writeField(writer, question.text());
+        writer.write(',');
+        writeField(writer, answer);
+        writer.write(',');
+        writer.write(correct);
+        writer.write("\r\n");
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quoted = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,160 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.UserCounter;
+import com.finki.uiktp.edugen.model.dto.DashboardSummaryDto;
+import com.finki.uiktp.edugen.model.dto.DocumentSummaryDto;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.repository.UserCounterRepository;
+import com.finki.uiktp.edugen.service.DashboardService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the dashboard from per-user counters instead of counting the user's documents and questions.
+ * The document and question services adjust the counters in the same transaction as every
+ * create, delete and type change, so they are exact without ever scanning. The V4 migration
+ * computed the starting values.
+ */
+@Service
+public class DashboardServiceImplementation implements DashboardService {
+
+    private static final String DOCUMENTS = "documents";
+    private static final String QUESTIONS = "questions";
+    private static final String DOCUMENT_TYPE = "documents.type.";
+    private static final String DOCUMENT_FORMAT = "documents.format.";
+    private static final String QUESTION_TYPE = "questions.type.";
+    private static final String GENERATION_REQUESTS = "generation.requests";
+    private static final String GENERATION_QUESTIONS = "generation.questions";
+
+    private final UserCounterRepository userCounterRepository;
+    private final DocumentRepository documentRepository;
+
+    @Value("${app.dashboard.max-recent-documents:20}")
+    private int maxRecentDocuments;
+
+    public DashboardServiceImplementation(UserCounterRepository userCounterRepository,
+                                          DocumentRepository documentRepository) {
+        this.userCounterRepository = userCounterRepository;
+        this.documentRepository = documentRepository;
+    }
+
+    /**
+     * Two indexed reads: the user's counter rows and the newest document summaries.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardSummaryDto getSummary(Long userId, int recentLimit) {
+        Map<DocumentType, Long> documentsByType = new EnumMap<>(DocumentType.class);
+        Map<DocumentFormat, Long> documentsByFormat = new EnumMap<>(DocumentFormat.class);
+        Map<QuestionType, Long> questionsByType = new EnumMap<>(QuestionType.class);
+        long totalDocuments = 0;
+        long totalQuestions = 0;
+        long generationRequests = 0;
+        long generatedQuestions = 0;
+
+        for (UserCounter counter : userCounterRepository.findByUserId(userId)) {
+            String name = counter.getName();
+            long amount = counter.getAmount();
+            if (amount == 0) {
+                continue;
+            }
+            try {
+                if (name.startsWith(DOCUMENT_TYPE)) {
+                    documentsByType.put(DocumentType.valueOf(name.substring(DOCUMENT_TYPE.length())), amount);
+                } else if (name.startsWith(DOCUMENT_FORMAT)) {
+                    documentsByFormat.put(DocumentFormat.valueOf(name.substring(DOCUMENT_FORMAT.length())), amount);
+                } else if (name.startsWith(QUESTION_TYPE)) {
+                    questionsByType.put(QuestionType.valueOf(name.substring(QUESTION_TYPE.length())), amount);
+                } else if (name.equals(DOCUMENTS)) {
+                    totalDocuments = amount;
+                } else if (name.equals(QUESTIONS)) {
+                    totalQuestions = amount;
+                } else if (name.equals(GENERATION_REQUESTS)) {
+                    generationRequests = amount;
+                } else if (name.equals(GENERATION_QUESTIONS)) {
+                    generatedQuestions = amount;
+                }
+            } catch (IllegalArgumentException e) {
+                // Counter of an enum constant that no longer exists
+            }
+        }
+
+        int limit = Math.max(0, Math.min(recentLimit, maxRecentDocuments));
+        List<DocumentSummaryDto> recentDocuments = limit == 0
+                ? List.of()
+                : documentRepository.findSummaryPageByUserId(userId, PageRequest.of(0, limit));
+
+        return new DashboardSummaryDto(
+                totalDocuments, documentsByType, documentsByFormat,
+                totalQuestions, questionsByType,
+                generationRequests, generatedQuestions, recentDocuments);
+    }
+
+    @Override
+    @Transactional
+    public void documentsChanged(Long userId, DocumentType type, DocumentFormat format, long delta) {
+        add(userId, DOCUMENTS, delta);
+        if (type != null) {
+            add(userId, DOCUMENT_TYPE + type.name(), delta);
+        }
+        if (format != null) {
+            add(userId, DOCUMENT_FORMAT + format.name(), delta);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void questionsAdded(Long userId, QuestionType type, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        add(userId, QUESTIONS, delta);
+        if (type != null) {
+            add(userId, QUESTION_TYPE + type.name(), delta);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void questionsRetyped(Long userId, QuestionType from, QuestionType to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        if (from != null) {
+            add(userId, QUESTION_TYPE + from.name(), -count);
+        }
+        if (to != null) {
+            add(userId, QUESTION_TYPE + to.name(), count);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void generationRecorded(Long userId, int generatedQuestions) {
+        add(userId, GENERATION_REQUESTS, 1);
+        add(userId, GENERATION_QUESTIONS, generatedQuestions);
+    }
+
+    /**
+     * Adds the delta to a counter, creating it on first use. Two transactions creating the same counter
+     * would both insert it, so creating takes the user's row lock and tries the update once more first.
+     */
+    private void add(Long userId, String name, long delta) {
+        if (userCounterRepository.increment(userId, name, delta) > 0) {
+            return;
+        }
+        userCounterRepository.lockUser(userId);
+        if (userCounterRepository.increment(userId, name, delta) == 0) {
+            userCounterRepository.insert(userId, name, delta);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A size-bounded cache of files in one directory, evicting the least recently used entries
+ * once the total size exceeds the limit. Entries are written to a hidden temp file and moved
+ * into place, so readers never see a partial entry. The access order survives restarts through
+ * the files' modification times, which are refreshed on every hit.
+ * Keys are used as file names and must be safe as such.
+ */
+public class DiskLruCache {
+    private static final Logger logger = LoggerFactory.getLogger(DiskLruCache.class);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    @FunctionalInterface
+    public interface EntryWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    public DiskLruCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    /**
+     * @return the file of the entry, or null when the key is not cached
+     */
+    public synchronized Path get(String key) {
+        if (entries.get(key) == null) {
+            return null;
+        }
+        Path file = directory.resolve(key);
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Deleted behind our back
+            totalBytes -= entries.remove(key);
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * Opens the entry under the cache lock, so it cannot be evicted or replaced between the lookup and the open.
+     * Once open, the stream keeps reading the content even if the entry is evicted or replaced meanwhile.
+     *
+     * @return a stream of the entry, or null when the key is not cached
+     */
+    public synchronized InputStream open(String key) throws IOException {
+        Path file = get(key);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            totalBytes -= entries.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Writes an entry, replacing any previous value, and evicts older entries to stay within the limit.
+     * The writer runs without holding the cache lock.
+     */
+    public Path put(String key, EntryWriter writer) throws IOException {
+        Path temp = Files.createTempFile(directory, ".", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            long size = Files.size(temp);
+            Path file = directory.resolve(key);
+            synchronized (this) {
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Long previous = entries.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evict();
+            }
+            return file;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+            deleteQuietly(directory.resolve(key));
+        }
+    }
+
+    public synchronized void removeByPrefix(String prefix) {
+        for (String key : new ArrayList<>(entries.keySet())) {
+            if (key.startsWith(prefix)) {
+                remove(key);
+            }
+        }
+    }
+
+    public synchronized long size() {
+        return totalBytes;
+    }
+
+    public synchronized int count() {
+        return entries.size();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            deleteQuietly(directory.resolve(entry.getKey()));
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().startsWith(".")) {
+                    // Temp file of a write that never finished
+                    deleteQuietly(file);
+                } else if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+
+        files.sort(Comparator.comparing(DiskLruCache::lastModified));
+        synchronized (this) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evict();
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete cache file {}: {}", file, e.getMessage());
+        }
+    }
+}
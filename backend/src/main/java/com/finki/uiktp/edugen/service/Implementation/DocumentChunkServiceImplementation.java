@@ -0,0 +1,298 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.DocumentChunk;
+import com.finki.uiktp.edugen.model.dto.ExtractedContent;
+import com.finki.uiktp.edugen.model.dto.ExtractedParagraph;
+import com.finki.uiktp.edugen.repository.DocumentChunkRepository;
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.service.DocumentChunkService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+public class DocumentChunkServiceImplementation implements DocumentChunkService {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentChunkServiceImplementation.class);
+
+    private static final String PARAGRAPH_SEPARATOR = "\n\n";
+    private static final int MAX_SECTION_TITLE_LENGTH = 500;
+
+    private final DocumentChunkRepository documentChunkRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentTextExtractor documentTextExtractor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chunking.max-chunk-chars:2000}")
+    private int maxChunkChars;
+
+    public DocumentChunkServiceImplementation(DocumentChunkRepository documentChunkRepository,
+                                              DocumentRepository documentRepository,
+                                              DocumentTextExtractor documentTextExtractor,
+                                              PlatformTransactionManager transactionManager,
+                                              MeterRegistry meterRegistry) {
+        this.documentChunkRepository = documentChunkRepository;
+        this.documentRepository = documentRepository;
+        this.documentTextExtractor = documentTextExtractor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<DocumentChunk> indexDocument(Document document) throws IOException {
+        return index(document, true);
+    }
+
+    @Override
+    public List<DocumentChunk> findOrIndex(Document document) throws IOException {
+        if (documentRepository.existsByIdAndIndexedAtIsNotNull(document.getId())) {
+            return documentChunkRepository.findByDocumentIdOrderByChunkIndex(document.getId());
+        }
+        return index(document, false);
+    }
+
+    /**
+     * Extraction runs outside the transaction, only the swap of the chunk rows is atomic. The swap holds
+     * a row lock on the document, so concurrent indexing of one document runs one after the other,
+     * and a first index that finds the document indexed meanwhile keeps the chunks already stored.
+     * A missing file throws before anything is written, so the document is indexed on a later request.
+     */
+    private List<DocumentChunk> index(Document document, boolean replace) throws IOException {
+        ExtractedContent content = documentTextExtractor.extractContent(document);
+        List<DocumentChunk> chunks = content == null
+                ? List.of()
+                : buildChunks(document, content.getParagraphs());
+        if (content != null) {
+            reportNormalization(document, content);
+            applyStatistics(document, content);
+        }
+
+        List<DocumentChunk> saved = transactionTemplate.execute(status -> {
+            Optional<Document> locked = documentRepository.lockById(document.getId());
+            if (locked.isEmpty()) {
+                return List.<DocumentChunk>of();
+            }
+            if (!replace && locked.get().getIndexedAt() != null) {
+                logger.debug("Document ID: {} was indexed by a concurrent request", document.getId());
+                return documentChunkRepository.findByDocumentIdOrderByChunkIndex(document.getId());
+            }
+
+            documentChunkRepository.deleteByDocumentId(document.getId());
+            if (content != null) {
+                documentRepository.updateStatistics(document.getId(), document.getFileSize(), document.getPageCount(),
+                        document.getCharacterCount(), document.getWordCount(), document.getEstimatedTokens(),
+                        document.getExtractionDurationMs(), document.getContentHash());
+            }
+            documentRepository.markIndexed(document.getId(), LocalDateTime.now());
+            return documentChunkRepository.saveAll(chunks);
+        });
+
+        logger.info("Indexed document ID: {} into {} chunks", document.getId(), saved.size());
+        return saved;
+    }
+
+    @Override
+    public List<DocumentChunk> findByDocumentId(Long documentId) {
+        return documentChunkRepository.findByDocumentIdOrderByChunkIndex(documentId);
+    }
+
+    @Override
+    public List<DocumentChunk> findByPage(Long documentId, Integer pageNumber) {
+        return documentChunkRepository.findByDocumentIdAndPageNumberOrderByChunkIndex(documentId, pageNumber);
+    }
+
+    @Override
+    public List<DocumentChunk> search(Long documentId, String query) {
+        if (query == null || query.isBlank()) {
+            return findByDocumentId(documentId);
+        }
+        return documentChunkRepository.search(documentId, query.strip());
+    }
+
+    @Override
+    public void deleteByDocumentId(Long documentId) {
+        documentChunkRepository.deleteByDocumentId(documentId);
+    }
+
+    @Override
+    public String joinContent(List<DocumentChunk> chunks) {
+        StringBuilder content = new StringBuilder();
+        for (DocumentChunk chunk : chunks) {
+            if (!content.isEmpty()) {
+                content.append(PARAGRAPH_SEPARATOR);
+            }
+            content.append(chunk.getContent());
+        }
+        return content.toString();
+    }
+
+    /**
+     * Counts are taken from the normalized paragraphs, the text that is actually sent to the AI.
+     */
+    private static void applyStatistics(Document document, ExtractedContent content) {
+        long characters = 0;
+        long words = 0;
+        for (ExtractedParagraph paragraph : content.getParagraphs()) {
+            characters += paragraph.getText().length();
+            words += TextNormalizer.countWords(paragraph.getText());
+        }
+
+        document.setFileSize(content.getFileSize());
+        document.setPageCount(content.getPageCount());
+        document.setCharacterCount(characters);
+        document.setWordCount(words);
+        document.setEstimatedTokens(TextNormalizer.estimateTokens(characters));
+        document.setExtractionDurationMs(content.getExtractionDurationMs());
+        document.setContentHash(content.getContentHash());
+    }
+
+    private void reportNormalization(Document document, ExtractedContent content) {
+        long original = content.getOriginalCharacters();
+        long normalized = content.getNormalizedCharacters();
+        long saved = Math.max(0, original - normalized);
+
+        meterRegistry.counter("edugen.normalization.characters", "stage", "original").increment(original);
+        meterRegistry.counter("edugen.normalization.characters", "stage", "normalized").increment(normalized);
+        meterRegistry.summary("edugen.normalization.saved.tokens").record(TextNormalizer.estimateTokens(saved));
+
+        logger.info("Normalized document ID: {} from {} to {} characters ({}% smaller, ~{} prompt tokens saved)",
+                document.getId(), original, normalized,
+                original > 0 ? saved * 100 / original : 0,
+                TextNormalizer.estimateTokens(saved));
+    }
+
+    /**
+     * Groups consecutive paragraphs into chunks of at most max-chunk-chars characters.
+     * A chunk never spans two pages or two sections, and every heading starts a new chunk,
+     * so a chunk can be located by its page and section alone. A paragraph longer than
+     * max-chunk-chars is cut into pieces that each get a chunk of their own. Offsets refer
+     * to the document content as returned by {@link #joinContent(List)}.
+     */
+    private List<DocumentChunk> buildChunks(Document document, List<ExtractedParagraph> paragraphs) {
+        List<DocumentChunk> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        ExtractedParagraph first = null;
+        int firstParagraphIndex = 0;
+        int paragraphCount = 0;
+        int offset = 0;
+
+        for (int i = 0; i < paragraphs.size(); i++) {
+            ExtractedParagraph paragraph = paragraphs.get(i);
+            List<String> pieces = splitOversized(paragraph.getText(), maxChunkChars);
+            for (int p = 0; p < pieces.size(); p++) {
+                String text = pieces.get(p);
+                boolean startsNewChunk = first != null && ((p == 0 && paragraph.isHeading())
+                        || !Objects.equals(first.getPageNumber(), paragraph.getPageNumber())
+                        || !Objects.equals(first.getSectionTitle(), paragraph.getSectionTitle())
+                        || current.length() + PARAGRAPH_SEPARATOR.length() + text.length() > maxChunkChars);
+
+                if (startsNewChunk) {
+                    offset = addChunk(chunks, document, first, firstParagraphIndex, paragraphCount, offset, current);
+                    current.setLength(0);
+                    first = null;
+                }
+
+                if (first == null) {
+                    first = paragraph;
+                    firstParagraphIndex = i;
+                    paragraphCount = 1;
+                } else {
+                    current.append(PARAGRAPH_SEPARATOR);
+                    if (p == 0) {
+                        paragraphCount++;
+                    }
+                }
+                current.append(text);
+            }
+        }
+
+        if (first != null) {
+            addChunk(chunks, document, first, firstParagraphIndex, paragraphCount, offset, current);
+        }
+        return chunks;
+    }
+
+    /**
+     * Cuts text longer than maxChars into pieces of at most maxChars characters. A piece ends after
+     * the last sentence in the limit when that keeps at least half of it, otherwise at the last
+     * whitespace, and a single word longer than the limit is cut where the limit falls.
+     */
+    private static List<String> splitOversized(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return List.of(text);
+        }
+
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (text.length() - start > maxChars) {
+            int limit = start + maxChars;
+            int cut = lastSentenceEnd(text, start + maxChars / 2, limit);
+            if (cut < 0) {
+                cut = lastWhitespace(text, start + 1, limit);
+            }
+            if (cut < 0) {
+                cut = limit > start + 1 && Character.isLowSurrogate(text.charAt(limit)) ? limit - 1 : limit;
+            }
+
+            String piece = text.substring(start, cut).strip();
+            if (!piece.isEmpty()) {
+                pieces.add(piece);
+            }
+            start = cut;
+            while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+                start++;
+            }
+        }
+        if (start < text.length()) {
+            pieces.add(text.substring(start));
+        }
+        return pieces;
+    }
+
+    /**
+     * Returns the index just past the last sentence terminator followed by whitespace in [from, limit], or -1.
+     */
+    private static int lastSentenceEnd(String text, int from, int limit) {
+        for (int i = Math.min(limit, text.length() - 1); i > from; i--) {
+            char terminator = text.charAt(i - 1);
+            if ((terminator == '.' || terminator == '!' || terminator == '?') && Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastWhitespace(String text, int from, int limit) {
+        for (int i = limit; i >= from; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int addChunk(List<DocumentChunk> chunks, Document document, ExtractedParagraph first,
+                                int paragraphIndex, int paragraphCount, int offset, StringBuilder content) {
+        int startOffset = chunks.isEmpty() ? offset : offset + PARAGRAPH_SEPARATOR.length();
+        int endOffset = startOffset + content.length();
+        String sectionTitle = first.getSectionTitle();
+        if (sectionTitle != null && sectionTitle.length() > MAX_SECTION_TITLE_LENGTH) {
+            sectionTitle = sectionTitle.substring(0, MAX_SECTION_TITLE_LENGTH);
+        }
+        chunks.add(new DocumentChunk(document, chunks.size(), first.getPageNumber(), sectionTitle,
+                paragraphIndex, paragraphCount, startOffset, endOffset, content.toString()));
+        return endOffset;
+    }
+}
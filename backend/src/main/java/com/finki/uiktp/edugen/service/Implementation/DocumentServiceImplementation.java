@@ -1,30 +1,41 @@
 package com.finki.uiktp.edugen.service.Implementation;
 
+import com.finki.uiktp.edugen.config.ReplicaRead;
 import com.finki.uiktp.edugen.model.Document;
 import com.finki.uiktp.edugen.model.Exceptions.DocumentNotFoundException;
 import com.finki.uiktp.edugen.model.Exceptions.UserNotFoundException;
 import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.dto.DocumentSummaryDto;
+import com.finki.uiktp.edugen.model.dto.KeysetCursor;
+import com.finki.uiktp.edugen.model.dto.PageResponse;
 import com.finki.uiktp.edugen.model.enums.DocumentFormat;
 import com.finki.uiktp.edugen.model.enums.DocumentType;
 import com.finki.uiktp.edugen.repository.DocumentRepository;
 import com.finki.uiktp.edugen.repository.UserRepository;
+import com.finki.uiktp.edugen.service.DashboardService;
+import com.finki.uiktp.edugen.service.DocumentChunkService;
 import com.finki.uiktp.edugen.service.DocumentService;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import com.finki.uiktp.edugen.service.QuestionService;
+import com.finki.uiktp.edugen.service.ThumbnailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import jakarta.annotation.PostConstruct;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -32,16 +43,33 @@ import java.util.UUID;
 
 @Service
 public class DocumentServiceImplementation implements DocumentService {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentServiceImplementation.class);
 
     private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
+    private final DocumentChunkService documentChunkService;
+    private final QuestionService questionService;
+    private final ThumbnailService thumbnailService;
+    private final DashboardService dashboardService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
-    public DocumentServiceImplementation(DocumentRepository documentRepository, UserRepository userRepository) {
+    @Value("${app.upload.max-file-size-mb:500}")
+    private long maxFileSizeMb;
+
+    public DocumentServiceImplementation(DocumentRepository documentRepository, UserRepository userRepository,
+                                         DocumentChunkService documentChunkService, QuestionService questionService,
+                                         ThumbnailService thumbnailService, DashboardService dashboardService,
+                                         PlatformTransactionManager transactionManager) {
         this.documentRepository = documentRepository;
         this.userRepository = userRepository;
+        this.documentChunkService = documentChunkService;
+        this.questionService = questionService;
+        this.thumbnailService = thumbnailService;
+        this.dashboardService = dashboardService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @PostConstruct
@@ -53,11 +81,13 @@ public class DocumentServiceImplementation implements DocumentService {
     }
 
     @Override
+    @ReplicaRead
     public List<Document> listAll() {
         return this.documentRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Document> listAllByUserId(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
@@ -65,6 +95,37 @@ public class DocumentServiceImplementation implements DocumentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<DocumentSummaryDto> listSummariesByUserId(Long userId) {
+        return documentRepository.findSummariesByUserId(userId);
+    }
+
+    /**
+     * Keyset page of a user's document summaries, newest first, keyed on (uploadedDate, id).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<DocumentSummaryDto> listPageByUserId(Long userId, String cursor, Integer limit, boolean includeTotal) {
+        int pageSize = PageResponse.clampLimit(limit);
+        KeysetCursor before = KeysetCursor.decode(cursor, true);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<DocumentSummaryDto> documents = before == null
+                ? documentRepository.findSummaryPageByUserId(userId, pageable)
+                : documentRepository.findSummaryPageByUserIdBefore(userId, before.timestamp(), before.id(), pageable);
+
+        String nextCursor = null;
+        if (documents.size() > pageSize) {
+            documents = documents.subList(0, pageSize);
+            DocumentSummaryDto last = documents.get(pageSize - 1);
+            nextCursor = KeysetCursor.of(last.uploadedDate(), last.id()).encode();
+        }
+        return new PageResponse<>(documents, nextCursor, pageSize,
+                includeTotal ? documentRepository.countByUserId(userId) : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Document> getRecentDocuments(int limit, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
@@ -99,39 +160,92 @@ public class DocumentServiceImplementation implements DocumentService {
         }
 
         Document document = new Document(title, type, format, language, filePath, user);
-        return this.documentRepository.save(document);
+        return index(save(document));
     }
 
     @Override
     public Document uploadDocument(Long userId, String title, String language, DocumentType type, MultipartFile file) throws IOException {
+        validateUpload(title, file.getOriginalFilename(), file.getSize());
+
+        // Hidden scratch file so a failed request never leaves a visible orphan in the upload directory
+        Path partial = Files.createTempFile(Paths.get(uploadDir), ".upload-", ".part");
+        try {
+            file.transferTo(partial);
+            return uploadDocument(userId, title, language, type, file.getOriginalFilename(), partial);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    @Override
+    public Document uploadDocument(Long userId, String title, String language, DocumentType type,
+                                   String originalFilename, Path file) throws IOException {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
 
-        if (title == null || title.isEmpty()) {
-            throw new IllegalArgumentException("Title cannot be empty");
-        }
+        DocumentFormat format = validateUpload(title, originalFilename, Files.size(file));
 
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toUpperCase();
-        DocumentFormat format;
+        Path filePath = Paths.get(uploadDir, UUID.randomUUID() + "." + format.name().toLowerCase());
+        Files.createDirectories(filePath.getParent());
+        moveFile(file, filePath);
+
+        Document document = new Document(title, type, format, language, filePath.toString(), user);
         try {
-            format = DocumentFormat.valueOf(extension);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Unsupported file format: " + extension);
+            document = save(document);
+        } catch (RuntimeException e) {
+            // Without its row the file would only be removed by the storage reconciler after the grace period
+            Files.deleteIfExists(filePath);
+            throw e;
         }
+        return index(document);
+    }
 
-        String newFilename = UUID.randomUUID() + "." + extension.toLowerCase();
-        Path filePath = Paths.get(uploadDir, newFilename);
+    @Override
+    public DocumentFormat validateUpload(String title, String originalFilename, long size) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Title cannot be empty");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Please select a file to upload");
+        }
+        if (size > maxFileSizeMb * 1024 * 1024) {
+            throw new IllegalArgumentException(String.format("File size should not exceed %dMB", maxFileSizeMb));
+        }
+        return DocumentFormat.fromFilename(originalFilename);
+    }
 
-        Files.createDirectories(filePath.getParent());
+    private static void moveFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
 
-        Files.write(filePath, file.getBytes());
+    /**
+     * Inserts a new document and counts it for the dashboard in one transaction.
+     */
+    private Document save(Document document) {
+        return transactionTemplate.execute(status -> {
+            Document saved = this.documentRepository.save(document);
+            dashboardService.documentsChanged(saved.getUser().getId(), saved.getType(), saved.getFormat(), 1);
+            return saved;
+        });
+    }
 
-        Document document = new Document(title, type, format, language, filePath.toString(), user);
-        return this.documentRepository.save(document);
+    private Document index(Document document) {
+        thumbnailService.scheduleRender(document);
+        try {
+            documentChunkService.indexDocument(document);
+        } catch (IOException | RuntimeException e) {
+            // The document stays usable, its chunks are rebuilt on the first content request
+            logger.warn("Failed to index document ID: {}: {}", document.getId(), e.getMessage());
+        }
+        return document;
     }
 
     @Override
+    @Transactional
     public Optional<Document> update(Long id, Long userId, String title, String language, DocumentType type, DocumentFormat format) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
@@ -139,6 +253,11 @@ public class DocumentServiceImplementation implements DocumentService {
         Document document = documentRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new DocumentNotFoundException(id));
 
+        if (document.getType() != type || document.getFormat() != format) {
+            dashboardService.documentsChanged(userId, document.getType(), document.getFormat(), -1);
+            dashboardService.documentsChanged(userId, type, format, 1);
+        }
+
         document.setTitle(title);
         document.setLanguage(language);
         document.setType(type);
@@ -155,16 +274,28 @@ public class DocumentServiceImplementation implements DocumentService {
         Document document = documentRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new DocumentNotFoundException(id));
 
+        // Children first, each with one set-based statement, so none of them is loaded into memory
+        Integer questions = transactionTemplate.execute(status -> {
+            int deleted = questionService.deleteByDocumentId(id);
+            documentChunkService.deleteByDocumentId(id);
+            documentRepository.deleteRowById(id);
+            dashboardService.documentsChanged(userId, document.getType(), document.getFormat(), -1);
+            return deleted;
+        });
+
+        // The file goes only once the rows are gone, a failed delete leaves the document intact
         try {
             Path filePath = Paths.get(document.getFilePath());
             if (Files.exists(filePath)) {
                 Files.delete(filePath);
             }
         } catch (IOException e) {
-            System.err.println("Failed to delete file: " + document.getFilePath() + " - " + e.getMessage());
+            // Left for the storage reconciler, which deletes unreferenced files
+            logger.warn("Failed to delete file: {} - {}", document.getFilePath(), e.getMessage());
         }
 
-        this.documentRepository.delete(document);
+        thumbnailService.evict(id);
+        logger.info("Deleted document ID: {} with {} questions", id, questions);
         return document;
     }
 
@@ -186,25 +317,6 @@ public class DocumentServiceImplementation implements DocumentService {
 
     @Override
     public String getDocumentContent(Document document) throws IOException {
-        Path filePath = Paths.get(document.getFilePath());
-        if (!Files.exists(filePath)) {
-            return "";
-        }
-
-        if (document.getFormat() == DocumentFormat.TXT) {
-            return Files.readString(filePath, StandardCharsets.UTF_8);
-        } else if (document.getFormat() == DocumentFormat.PDF) {
-            try (PDDocument pdf = PDDocument.load(filePath.toFile())) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                return stripper.getText(pdf);
-            }
-        } else if (document.getFormat() == DocumentFormat.DOCX) {
-            try (FileInputStream fis = new FileInputStream(filePath.toFile());
-                 XWPFDocument docx = new XWPFDocument(fis)) {
-                XWPFWordExtractor extractor = new XWPFWordExtractor(docx);
-                return extractor.getText();
-            }
-        }
-        return null;
+        return documentChunkService.joinContent(documentChunkService.findOrIndex(document));
     }
 }
\ No newline at end of file
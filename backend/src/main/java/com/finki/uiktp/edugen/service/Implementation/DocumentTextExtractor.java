@@ -0,0 +1,440 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.ExtractionCapacityExceededException;
+import com.finki.uiktp.edugen.model.dto.ExtractedContent;
+import com.finki.uiktp.edugen.model.dto.ExtractedParagraph;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the paragraphs of uploaded documents under a bounded memory policy.
+ * PDFs are loaded with a per-document heap cap and spill to a scratch file,
+ * and documents above the large-document threshold share a global permit pool.
+ * Long PDFs are split into page segments that are extracted in parallel,
+ * and DOCX files are streamed without building the POI document model.
+ */
+@Service
+public class DocumentTextExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentTextExtractor.class);
+
+    private static final long MB = 1024L * 1024L;
+    private static final int MAX_HEADING_LENGTH = 120;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern NUMBERED_HEADING = Pattern.compile(
+            "^(?:(?:chapter|section|part|unit|lesson)\\s+\\S+|\\d+(?:\\.\\d+)*\\.?\\s+\\p{L}).*",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private final MeterRegistry meterRegistry;
+    private final DocxStreamingExtractor docxStreamingExtractor;
+    private final TextNormalizer textNormalizer;
+
+    @Value("${app.extraction.max-main-memory-mb:64}")
+    private long maxMainMemoryMb;
+
+    @Value("${app.extraction.temp-dir:${java.io.tmpdir}}")
+    private String tempDir;
+
+    @Value("${app.extraction.large-document-threshold-mb:20}")
+    private long largeDocumentThresholdMb;
+
+    @Value("${app.extraction.max-concurrent-large-documents:2}")
+    private int maxConcurrentLargeDocuments;
+
+    @Value("${app.extraction.permit-timeout-seconds:30}")
+    private long permitTimeoutSeconds;
+
+    @Value("${app.extraction.parallel.enabled:true}")
+    private boolean parallelEnabled;
+
+    @Value("${app.extraction.parallel.level:0}")
+    private int parallelLevel;
+
+    @Value("${app.extraction.parallel.min-pages:64}")
+    private int parallelMinPages;
+
+    @Value("${app.extraction.parallel.min-pages-per-segment:16}")
+    private int minPagesPerSegment;
+
+    private Semaphore largeDocumentPermits;
+    private DistributionSummary allocatedBytes;
+    private ForkJoinPool extractionPool;
+
+    public DocumentTextExtractor(MeterRegistry meterRegistry, DocxStreamingExtractor docxStreamingExtractor,
+                                 TextNormalizer textNormalizer) {
+        this.meterRegistry = meterRegistry;
+        this.docxStreamingExtractor = docxStreamingExtractor;
+        this.textNormalizer = textNormalizer;
+    }
+
+    @PostConstruct
+    public void init() {
+        File scratchDirectory = new File(tempDir);
+        if (!scratchDirectory.exists()) {
+            scratchDirectory.mkdirs();
+        }
+
+        largeDocumentPermits = new Semaphore(maxConcurrentLargeDocuments, true);
+
+        allocatedBytes = DistributionSummary.builder("edugen.extraction.memory")
+                .description("Bytes allocated by the extracting thread, an upper bound on the extraction's peak heap use")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        meterRegistry.gauge("edugen.extraction.large.active", largeDocumentPermits,
+                permits -> maxConcurrentLargeDocuments - permits.availablePermits());
+
+        if (parallelLevel <= 0) {
+            parallelLevel = Runtime.getRuntime().availableProcessors();
+        }
+        if (parallelEnabled && parallelLevel > 1) {
+            extractionPool = new ForkJoinPool(parallelLevel);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (extractionPool != null) {
+            extractionPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Extracts the paragraphs of a document together with their page numbers and enclosing sections,
+     * along with the file size, SHA-256 content hash and extraction duration.
+     *
+     * @param document the document whose stored file should be read
+     * @return the extracted content, or null for unsupported formats
+     * @throws IOException when the file is missing, so a file that is gone only for a while is not indexed as empty
+     * @throws ExtractionCapacityExceededException when no large-document permit frees up in time
+     */
+    public ExtractedContent extractContent(Document document) throws IOException {
+        Path filePath = Paths.get(document.getFilePath());
+        if (!Files.exists(filePath)) {
+            throw new IOException("File not found: " + document.getFilePath());
+        }
+
+        long fileSize = Files.size(filePath);
+        boolean large = fileSize >= largeDocumentThresholdMb * MB;
+        if (large) {
+            acquireLargeDocumentPermit(document);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.nanoTime();
+        AllocationTracker allocation = new AllocationTracker();
+        try {
+            ExtractedContent content = extract(document.getFormat(), filePath, allocation);
+            if (content != null) {
+                content.setExtractionDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                content.setFileSize(fileSize);
+                content.setContentHash(sha256(filePath));
+            }
+            return content;
+        } finally {
+            allocation.finish();
+            if (allocation.isSupported()) {
+                allocatedBytes.record(allocation.total());
+            }
+            sample.stop(Timer.builder("edugen.extraction.duration")
+                    .tag("format", String.valueOf(document.getFormat()))
+                    .tag("large", String.valueOf(large))
+                    .register(meterRegistry));
+            if (large) {
+                largeDocumentPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Loads a PDF keeping at most the configured number of bytes on the heap,
+     * buffering the remainder in a scratch file under the extraction temp directory.
+     */
+    public PDDocument loadPdf(Path filePath) throws IOException {
+        MemoryUsageSetting memoryUsageSetting = MemoryUsageSetting.setupMixed(maxMainMemoryMb * MB)
+                .setTempDir(new File(tempDir));
+        return PDDocument.load(filePath.toFile(), memoryUsageSetting);
+    }
+
+    private ExtractedContent extract(DocumentFormat format, Path filePath, AllocationTracker allocation) throws IOException {
+        if (format == DocumentFormat.TXT) {
+            return fromPages(List.of(Files.readString(filePath, StandardCharsets.UTF_8)), null);
+        } else if (format == DocumentFormat.PDF) {
+            List<String> pages = extractPdfPages(filePath, allocation);
+            return fromPages(pages, pages.size());
+        } else if (format == DocumentFormat.DOCX) {
+            return extractDocx(filePath);
+        }
+        return null;
+    }
+
+    /**
+     * Runs the normalization stage over the raw page texts before they are split into paragraphs,
+     * page numbers are only kept for paginated formats.
+     */
+    private ExtractedContent fromPages(List<String> pages, Integer pageCount) {
+        List<String> normalizedPages = textNormalizer.normalizePages(pages);
+        ParagraphCollector collector = new ParagraphCollector();
+        for (int i = 0; i < normalizedPages.size(); i++) {
+            collector.addText(normalizedPages.get(i), pageCount != null ? i + 1 : null);
+        }
+        return new ExtractedContent(collector.paragraphs, pageCount, totalLength(pages), totalLength(normalizedPages));
+    }
+
+    private ExtractedContent extractDocx(Path filePath) throws IOException {
+        ParagraphCollector collector = new ParagraphCollector();
+        long[] originalCharacters = new long[1];
+        long[] normalizedCharacters = new long[1];
+        docxStreamingExtractor.extract(filePath, (text, heading) -> {
+            String normalized = textNormalizer.normalizeParagraph(text);
+            originalCharacters[0] += text.length();
+            normalizedCharacters[0] += normalized.length();
+            collector.addParagraph(normalized, null, heading);
+        });
+        return new ExtractedContent(collector.paragraphs, null, originalCharacters[0], normalizedCharacters[0]);
+    }
+
+    private static String sha256(Path filePath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = Files.newInputStream(filePath)) {
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static long totalLength(List<String> texts) {
+        long length = 0;
+        for (String text : texts) {
+            length += text.length();
+        }
+        return length;
+    }
+
+    private List<String> extractPdfPages(Path filePath, AllocationTracker allocation) throws IOException {
+        int pageCount;
+        try (PDDocument pdf = loadPdf(filePath)) {
+            pageCount = pdf.getNumberOfPages();
+            if (extractionPool == null || pageCount < parallelMinPages) {
+                return extractPageRange(pdf, 1, pageCount);
+            }
+        }
+        return extractPdfPagesInParallel(filePath, pageCount, allocation);
+    }
+
+    /**
+     * PDDocument is not thread-safe, so every segment opens its own instance with its own
+     * stripper. Each instance gets the same heap cap, which bounds a parallel extraction
+     * at parallel.level times max-main-memory-mb.
+     */
+    private List<String> extractPdfPagesInParallel(Path filePath, int pageCount, AllocationTracker allocation) throws IOException {
+        int segmentCount = Math.max(1, Math.min(parallelLevel, pageCount / minPagesPerSegment));
+        int pagesPerSegment = (pageCount + segmentCount - 1) / segmentCount;
+
+        List<Future<SegmentResult>> segments = new ArrayList<>(segmentCount);
+        for (int startPage = 1; startPage <= pageCount; startPage += pagesPerSegment) {
+            int firstPage = startPage;
+            int lastPage = Math.min(pageCount, startPage + pagesPerSegment - 1);
+            segments.add(extractionPool.submit(() -> extractSegment(filePath, firstPage, lastPage)));
+        }
+
+        List<String> pages = new ArrayList<>(pageCount);
+        try {
+            for (Future<SegmentResult> segment : segments) {
+                SegmentResult result = segment.get();
+                pages.addAll(result.pages());
+                allocation.addWorker(result.allocatedBytes());
+            }
+        } catch (InterruptedException e) {
+            segments.forEach(segment -> segment.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + filePath, e);
+        } catch (ExecutionException e) {
+            segments.forEach(segment -> segment.cancel(true));
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to extract " + filePath, e.getCause());
+        }
+
+        logger.debug("Extracted {} pages of {} in {} parallel segments", pageCount, filePath, segments.size());
+        return pages;
+    }
+
+    private SegmentResult extractSegment(Path filePath, int firstPage, int lastPage) throws IOException {
+        long allocatedBefore = currentThreadAllocatedBytes();
+        try (PDDocument pdf = loadPdf(filePath)) {
+            List<String> pages = extractPageRange(pdf, firstPage, lastPage);
+            long allocatedAfter = currentThreadAllocatedBytes();
+            return new SegmentResult(pages, allocatedBefore >= 0 ? allocatedAfter - allocatedBefore : -1);
+        }
+    }
+
+    private static List<String> extractPageRange(PDDocument pdf, int firstPage, int lastPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setLineSeparator("\n");
+        stripper.setParagraphEnd("\n");
+
+        List<String> pages = new ArrayList<>(Math.max(0, lastPage - firstPage + 1));
+        for (int page = firstPage; page <= lastPage; page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            pages.add(stripper.getText(pdf));
+        }
+        return pages;
+    }
+
+    private void acquireLargeDocumentPermit(Document document) {
+        try {
+            if (!largeDocumentPermits.tryAcquire(permitTimeoutSeconds, TimeUnit.SECONDS)) {
+                meterRegistry.counter("edugen.extraction.large.rejected").increment();
+                logger.warn("No large-document extraction permit available for document ID: {}", document.getId());
+                throw new ExtractionCapacityExceededException(document.getId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExtractionCapacityExceededException(document.getId());
+        }
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()
+                && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private record SegmentResult(List<String> pages, long allocatedBytes) {
+    }
+
+    /**
+     * Splits running text into paragraphs and tracks the section each one belongs to.
+     * Plain text has no styles, so a short single-line paragraph counts as a heading
+     * when it is numbered, starts with a chapter-like keyword or is written in capitals.
+     */
+    private static final class ParagraphCollector {
+        private final List<ExtractedParagraph> paragraphs = new ArrayList<>();
+        private String currentSection;
+
+        void addText(String text, Integer pageNumber) {
+            if (text == null) {
+                return;
+            }
+            for (String block : PARAGRAPH_BREAK.split(text)) {
+                String trimmed = block.strip();
+                if (!trimmed.isEmpty()) {
+                    addParagraph(trimmed.replaceAll("\\s*\\n\\s*", " "), pageNumber, looksLikeHeading(trimmed));
+                }
+            }
+        }
+
+        void addParagraph(String text, Integer pageNumber, boolean heading) {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            String trimmed = text.strip();
+            if (heading) {
+                currentSection = trimmed;
+            }
+            paragraphs.add(new ExtractedParagraph(pageNumber, currentSection, heading, trimmed));
+        }
+
+        private static boolean looksLikeHeading(String block) {
+            if (block.length() > MAX_HEADING_LENGTH || block.indexOf('\n') >= 0) {
+                return false;
+            }
+            char last = block.charAt(block.length() - 1);
+            if (last == '.' || last == ',' || last == ';' || last == ':') {
+                return false;
+            }
+            return NUMBERED_HEADING.matcher(block).matches() || isUpperCase(block);
+        }
+
+        private static boolean isUpperCase(String block) {
+            int letters = 0;
+            for (int i = 0; i < block.length(); i++) {
+                char c = block.charAt(i);
+                if (Character.isLetter(c)) {
+                    if (!Character.isUpperCase(c)) {
+                        return false;
+                    }
+                    letters++;
+                }
+            }
+            return letters >= 3;
+        }
+    }
+
+    /**
+     * Sums the bytes allocated by the calling thread and by any segment workers.
+     */
+    private static final class AllocationTracker {
+        private final long callerBefore = currentThreadAllocatedBytes();
+        private long total;
+        private boolean supported = callerBefore >= 0;
+
+        void addWorker(long allocatedBytes) {
+            if (allocatedBytes < 0) {
+                supported = false;
+            } else {
+                total += allocatedBytes;
+            }
+        }
+
+        void finish() {
+            if (supported) {
+                total += currentThreadAllocatedBytes() - callerBefore;
+            }
+        }
+
+        boolean isSupported() {
+            return supported;
+        }
+
+        long total() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Word document with the layout of the PDF export: the questions grouped under a heading per document,
+ * numbered, with their type and lettered answers, correct ones in green and ticked.
+ * The package parts are written straight into the zip, {@code word/document.xml} with a StAX writer,
+ * the counterpart of {@link DocxStreamingExtractor}. XWPFDocument would hold the whole document in memory.
+ */
+@Component
+public class DocxExportWriter implements QuestionExportWriter {
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/word/document.xml" ContentType="application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml"/>
+            <Override PartName="/word/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.wordprocessingml.styles+xml"/>
+            </Types>
+            """;
+
+    private static final String PACKAGE_RELATIONSHIPS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="word/document.xml"/>
+            </Relationships>
+            """;
+
+    private static final String DOCUMENT_RELATIONSHIPS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles" Target="styles.xml"/>
+            </Relationships>
+            """;
+
+    private static final String STYLES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <w:styles xmlns:w="http://schemas.openxmlformats.org/wordprocessingml/2006/main">
+            <w:style w:type="paragraph" w:default="1" w:styleId="Normal"><w:name w:val="Normal"/><w:rPr><w:rFonts w:ascii="Helvetica" w:hAnsi="Helvetica"/><w:sz w:val="22"/></w:rPr></w:style>
+            <w:style w:type="paragraph" w:styleId="Title"><w:name w:val="Title"/><w:basedOn w:val="Normal"/><w:pPr><w:jc w:val="center"/><w:spacing w:after="400"/></w:pPr><w:rPr><w:b/><w:sz w:val="36"/></w:rPr></w:style>
+            <w:style w:type="paragraph" w:styleId="Heading1"><w:name w:val="heading 1"/><w:basedOn w:val="Normal"/><w:pPr><w:keepNext/><w:spacing w:before="300" w:after="200"/><w:outlineLvl w:val="0"/></w:pPr><w:rPr><w:b/><w:color w:val="404040"/><w:sz w:val="28"/></w:rPr></w:style>
+            </w:styles>
+            """;
+
+    private static final String CORRECT_COLOR = "008000";
+
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.DOCX;
+    }
+
+    @Override
+    public void write(Iterator<ExportedQuestion> questions, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        writePart(zip, "[Content_Types].xml", CONTENT_TYPES);
+        writePart(zip, "_rels/.rels", PACKAGE_RELATIONSHIPS);
+        writePart(zip, "word/_rels/document.xml.rels", DOCUMENT_RELATIONSHIPS);
+        writePart(zip, "word/styles.xml", STYLES);
+
+        zip.putNextEntry(new ZipEntry("word/document.xml"));
+        try {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(zip, "UTF-8");
+            writeDocument(xml, questions);
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write Word document: " + e.getMessage(), e);
+        }
+        zip.closeEntry();
+        // Writes the central directory without closing the response
+        zip.finish();
+    }
+
+    private static void writePart(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static void writeDocument(XMLStreamWriter xml, Iterator<ExportedQuestion> questions) throws XMLStreamException {
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.setPrefix("w", W);
+        xml.writeStartElement(W, "document");
+        xml.writeNamespace("w", W);
+        xml.writeStartElement(W, "body");
+
+        writeParagraph(xml, "Title", "Questions Export");
+
+        Long currentDocumentId = null;
+        int questionNumber = 1;
+        while (questions.hasNext()) {
+            ExportedQuestion question = questions.next();
+            if (!Objects.equals(question.documentId(), currentDocumentId)) {
+                currentDocumentId = question.documentId();
+                questionNumber = 1;
+                writeParagraph(xml, "Heading1", question.documentTitle());
+            }
+
+            xml.writeStartElement(W, "p");
+            writeKeepNext(xml);
+            writeRun(xml, questionNumber + ". " + question.text(), true, false, null);
+            if (question.type() != null) {
+                writeRun(xml, "  (" + formatQuestionType(question.type().toString()) + ")", false, true, null);
+            }
+            xml.writeEndElement();
+
+            for (int i = 0; i < question.answers().size(); i++) {
+                ExportedAnswer answer = question.answers().get(i);
+                xml.writeStartElement(W, "p");
+                xml.writeStartElement(W, "pPr");
+                xml.writeEmptyElement(W, "ind");
+                xml.writeAttribute(W, "left", "400");
+                xml.writeEndElement();
+                String text = (char) ('a' + i % 26) + ") " + answer.text() + (answer.correct() ? " ✓" : "");
+                writeRun(xml, text, answer.correct(), false, answer.correct() ? CORRECT_COLOR : null);
+                xml.writeEndElement();
+            }
+
+            writeParagraph(xml, null, "");
+            questionNumber++;
+        }
+
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+    }
+
+    private static void writeParagraph(XMLStreamWriter xml, String style, String text) throws XMLStreamException {
+        xml.writeStartElement(W, "p");
+        if (style != null) {
+            xml.writeStartElement(W, "pPr");
+            xml.writeEmptyElement(W, "pStyle");
+            xml.writeAttribute(W, "val", style);
+            xml.writeEndElement();
+        }
+        if (!text.isEmpty()) {
+            writeRun(xml, text, false, false, null);
+        }
+        xml.writeEndElement();
+    }
+
+    /**
+     * Keeps a question on the same page as its first answer.
+     */
+    private static void writeKeepNext(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement(W, "pPr");
+        xml.writeEmptyElement(W, "keepNext");
+        xml.writeEndElement();
+    }
+
+    private static void writeRun(XMLStreamWriter xml, String text, boolean bold, boolean italic, String color)
+            throws XMLStreamException {
+        xml.writeStartElement(W, "r");
+        if (bold || italic || color != null) {
+            xml.writeStartElement(W, "rPr");
+            if (bold) {
+                xml.writeEmptyElement(W, "b");
+            }
+            if (italic) {
+                xml.writeEmptyElement(W, "i");
+            }
+            if (color != null) {
+                xml.writeEmptyElement(W, "color");
+                xml.writeAttribute(W, "val", color);
+            }
+            xml.writeEndElement();
+        }
+
+        // Line breaks are separate elements in WordprocessingML
+        String[] lines = QuestionExportWriter.xmlSafe(text).split("\r?\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                xml.writeEmptyElement(W, "br");
+            }
+            xml.writeStartElement(W, "t");
+            xml.writeAttribute("xml", "http://www.w3.org/XML/1998/namespace", "space", "preserve");
+            xml.writeCharacters(lines[i]);
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    private static String formatQuestionType(String type) {
+        switch (type) {
+            case "MULTIPLE_CHOICE":
+                return "Multiple Choice";
+            case "TRUE_FALSE":
+                return "True/False";
+            case "FILL_IN_THE_BLANK":
+                return "Fill in the Blank";
+            default:
+                return type;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the paragraphs of a DOCX straight from {@code word/document.xml} with a StAX parser.
+ * Unlike XWPFDocument it never builds the POI object model and never touches the media parts
+ * of the package, so heap use stays flat regardless of how many images the file embeds.
+ * Drawings are only walked for the paragraphs of their text boxes.
+ */
+@Service
+public class DocxStreamingExtractor {
+
+    private static final String WORDML_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String MARKUP_COMPATIBILITY_NAMESPACE = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+    private static final String DOCUMENT_PART = "word/document.xml";
+    private static final String STYLES_PART = "word/styles.xml";
+
+    private static final Set<String> SKIPPED_ELEMENTS = Set.of("object", "instrText");
+
+    private final XMLInputFactory xmlInputFactory;
+
+    public DocxStreamingExtractor() {
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    @FunctionalInterface
+    public interface ParagraphHandler {
+        void onParagraph(String text, boolean heading);
+    }
+
+    /**
+     * Streams every non-empty paragraph of the document body to the handler in reading order,
+     * including paragraphs inside table cells and text boxes. A text box paragraph is reported
+     * before the paragraph it is anchored in. Embedded objects and field codes are skipped.
+     */
+    public void extract(Path filePath, ParagraphHandler handler) throws IOException {
+        try (ZipFile zip = new ZipFile(filePath.toFile())) {
+            ZipEntry documentPart = zip.getEntry(DOCUMENT_PART);
+            if (documentPart == null) {
+                throw new IOException("Not a Word document, missing " + DOCUMENT_PART + ": " + filePath);
+            }
+
+            Set<String> headingStyles = readHeadingStyles(zip);
+
+            try (InputStream in = zip.getInputStream(documentPart)) {
+                XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+                try {
+                    readBody(reader, headingStyles, handler);
+                } finally {
+                    reader.close();
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed Word document: " + filePath, e);
+        }
+    }
+
+    /**
+     * Paragraphs nest when a text box is anchored in a paragraph, so the open ones are kept on a stack.
+     * A text box is stored twice, as a DrawingML shape in the first choice of its mc:AlternateContent
+     * and as a VML shape in the fallback, only the first alternative that is present is read.
+     */
+    private void readBody(XMLStreamReader reader, Set<String> headingStyles, ParagraphHandler handler) throws XMLStreamException {
+        Deque<OpenParagraph> paragraphs = new ArrayDeque<>();
+        Deque<boolean[]> alternatives = new ArrayDeque<>();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                OpenParagraph paragraph = paragraphs.peek();
+                if (isSkipped(reader)) {
+                    skipElement(reader);
+                } else if (MARKUP_COMPATIBILITY_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    if (name.equals("AlternateContent")) {
+                        alternatives.push(new boolean[1]);
+                    } else if ((name.equals("Choice") || name.equals("Fallback")) && !alternatives.isEmpty()) {
+                        boolean[] chosen = alternatives.peek();
+                        if (chosen[0]) {
+                            skipElement(reader);
+                        }
+                        chosen[0] = true;
+                    }
+                } else if (!WORDML_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    continue;
+                } else if (name.equals("p")) {
+                    paragraphs.push(new OpenParagraph());
+                } else if (paragraph == null) {
+                    continue;
+                } else if (name.equals("t")) {
+                    paragraph.text.append(reader.getElementText());
+                } else if (name.equals("tab")) {
+                    paragraph.text.append('\t');
+                } else if (name.equals("br") || name.equals("cr")) {
+                    paragraph.text.append(' ');
+                } else if (name.equals("pStyle")) {
+                    paragraph.heading |= headingStyles.contains(reader.getAttributeValue(WORDML_NAMESPACE, "val"));
+                } else if (name.equals("outlineLvl")) {
+                    paragraph.heading |= isOutlineLevel(reader);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String namespace = reader.getNamespaceURI();
+                if (WORDML_NAMESPACE.equals(namespace) && reader.getLocalName().equals("p") && !paragraphs.isEmpty()) {
+                    OpenParagraph paragraph = paragraphs.pop();
+                    String text = paragraph.text.toString().strip();
+                    if (!text.isEmpty()) {
+                        handler.onParagraph(text, paragraph.heading);
+                    }
+                } else if (MARKUP_COMPATIBILITY_NAMESPACE.equals(namespace)
+                        && reader.getLocalName().equals("AlternateContent") && !alternatives.isEmpty()) {
+                    alternatives.pop();
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the ids of paragraph styles that represent headings, either by their name
+     * ("heading 1", "Title") or by carrying an outline level, which also covers localized
+     * templates whose style names are translated.
+     */
+    private Set<String> readHeadingStyles(ZipFile zip) throws IOException, XMLStreamException {
+        Set<String> headingStyles = new HashSet<>();
+        ZipEntry stylesPart = zip.getEntry(STYLES_PART);
+        if (stylesPart == null) {
+            return headingStyles;
+        }
+
+        try (InputStream in = zip.getInputStream(stylesPart)) {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+            try {
+                String styleId = null;
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT
+                            || !WORDML_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        continue;
+                    }
+                    String name = reader.getLocalName();
+                    if (name.equals("style")) {
+                        styleId = reader.getAttributeValue(WORDML_NAMESPACE, "styleId");
+                    } else if (styleId != null && name.equals("name")) {
+                        String styleName = reader.getAttributeValue(WORDML_NAMESPACE, "val");
+                        if (styleName != null && (styleName.toLowerCase().startsWith("heading")
+                                || styleName.equalsIgnoreCase("title"))) {
+                            headingStyles.add(styleId);
+                        }
+                    } else if (styleId != null && name.equals("outlineLvl") && isOutlineLevel(reader)) {
+                        headingStyles.add(styleId);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return headingStyles;
+    }
+
+    /**
+     * Level 9 is the explicit "body text" level, every other level marks a heading.
+     */
+    private static boolean isOutlineLevel(XMLStreamReader reader) {
+        return !"9".equals(reader.getAttributeValue(WORDML_NAMESPACE, "val"));
+    }
+
+    private static boolean isSkipped(XMLStreamReader reader) {
+        return WORDML_NAMESPACE.equals(reader.getNamespaceURI()) && SKIPPED_ELEMENTS.contains(reader.getLocalName());
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static final class OpenParagraph {
+        private final StringBuilder text = new StringBuilder();
+        private boolean heading;
+    }
+}
@@ -0,0 +1,94 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+import com.finki.uiktp.edugen.repository.QuestionRepository;
+import com.finki.uiktp.edugen.repository.QuestionRepository.ExportRow;
+import com.finki.uiktp.edugen.service.ExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs the {@link QuestionExportWriter} of a format over a {@link QuestionExportCursor}, in one read-only
+ * transaction and one query however many questions are exported.
+ */
+@Service
+public class ExportServiceImplementation implements ExportService {
+
+    private final QuestionRepository questionRepository;
+    private final Map<ExportFormat, QuestionExportWriter> writers = new EnumMap<>(ExportFormat.class);
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.export.max-questions:5000}")
+    private int maxQuestions;
+
+    public ExportServiceImplementation(QuestionRepository questionRepository, List<QuestionExportWriter> writers,
+                                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.questionRepository = questionRepository;
+        for (QuestionExportWriter writer : writers) {
+            this.writers.put(writer.format(), writer);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Called before the response is committed, a failure once streaming has started can no longer change the status.
+     */
+    @Override
+    public void checkExportSize(List<Long> questionIds) {
+        if (questionIds.size() > maxQuestions) {
+            throw new IllegalArgumentException(String.format("At most %d questions can be exported at once", maxQuestions));
+        }
+    }
+
+    /**
+     * Ids of other users' questions or of missing questions are skipped.
+     */
+    @Override
+    public void exportQuestions(List<Long> questionIds, Long userId, ExportFormat format, OutputStream out) throws IOException {
+        export(() -> questionRepository.streamExportRowsByIdInOwnedBy(questionIds, userId), format, out);
+    }
+
+    @Override
+    public void exportDocument(Long documentId, ExportFormat format, OutputStream out) throws IOException {
+        export(() -> questionRepository.streamExportRowsByDocumentId(documentId), format, out);
+    }
+
+    private void export(Supplier<Stream<ExportRow>> rows, ExportFormat format, OutputStream out) throws IOException {
+        QuestionExportWriter writer = writers.get(format);
+        if (writer == null) {
+            throw new IllegalStateException("No writer for export format " + format);
+        }
+
+        long started = System.nanoTime();
+        try {
+            // The cursor has to be read inside the transaction, the callback cannot throw the checked IOException
+            transactionTemplate.executeWithoutResult(status -> {
+                try (QuestionExportCursor cursor = new QuestionExportCursor(rows.get())) {
+                    writer.write(cursor, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        meterRegistry.timer("edugen.export", "format", format.name().toLowerCase())
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,127 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Moodle's GIFT text format. Each document becomes a $CATEGORY, true/false questions are written as
+ * {T} or {F}, fill-in-the-blank questions as short answers placed at the blank when the text has one,
+ * and everything else as multiple choice, with the grade split over several correct answers
+ * and a penalty split over the wrong ones. A choice question without a correct answer would be
+ * rejected on import and is written as an essay.
+ */
+@Component
+public class GiftExportWriter implements QuestionExportWriter {
+
+    private static final Pattern BLANK = Pattern.compile("_{3,}");
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.GIFT;
+    }
+
+    @Override
+    public void write(Iterator<ExportedQuestion> questions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        Long currentDocumentId = null;
+
+        while (questions.hasNext()) {
+            ExportedQuestion question = questions.next();
+            if (!Objects.equals(question.documentId(), currentDocumentId)) {
+                currentDocumentId = question.documentId();
+                writer.write("$CATEGORY: " + question.documentTitle().replace("\n", " ") + "\n\n");
+            }
+
+            writer.write("::Q" + question.id() + ":: ");
+            writeQuestion(writer, question);
+            writer.write("\n\n");
+        }
+        writer.flush();
+    }
+
+    private static void writeQuestion(Writer writer, ExportedQuestion question) throws IOException {
+        String text = escape(question.text());
+        Boolean trueFalse = question.type() == QuestionType.TRUE_FALSE ? QuestionExportWriter.trueFalseValue(question) : null;
+
+        if (trueFalse != null) {
+            writer.write(text + " {" + (trueFalse ? "T" : "F") + "}");
+        } else if (question.type() == QuestionType.FILL_IN_THE_BLANK || question.answers().isEmpty()) {
+            String answers = shortAnswers(question);
+            Matcher blank = BLANK.matcher(text);
+            writer.write(blank.find()
+                    ? text.substring(0, blank.start()) + answers + text.substring(blank.end())
+                    : text + " " + answers);
+        } else if (QuestionExportWriter.correctCount(question) == 0) {
+            writer.write(text + " {}");
+        } else {
+            writer.write(text + " " + choices(question));
+        }
+    }
+
+    /**
+     * Every correct answer is accepted, all answers when none is marked correct. Without answers the block
+     * is empty, which GIFT reads as an essay question.
+     */
+    private static String shortAnswers(ExportedQuestion question) {
+        boolean anyCorrect = QuestionExportWriter.correctCount(question) > 0;
+        StringBuilder block = new StringBuilder("{");
+        for (ExportedAnswer answer : question.answers()) {
+            if (answer.correct() || !anyCorrect) {
+                block.append('=').append(escape(answer.text())).append(' ');
+            }
+        }
+        return block.append('}').toString();
+    }
+
+    private static String choices(ExportedQuestion question) {
+        long correctCount = QuestionExportWriter.correctCount(question);
+        String fraction = QuestionExportWriter.correctFraction(correctCount);
+        String penalty = QuestionExportWriter.wrongFraction(correctCount, question.answers().size() - correctCount);
+        StringBuilder block = new StringBuilder("{\n");
+        for (ExportedAnswer answer : question.answers()) {
+            if (correctCount == 1) {
+                block.append(answer.correct() ? "\t=" : "\t~");
+            } else if (answer.correct()) {
+                block.append("\t~%").append(fraction).append('%');
+            } else if (penalty.equals("0")) {
+                block.append("\t~");
+            } else {
+                block.append("\t~%").append(penalty).append('%');
+            }
+            block.append(escape(answer.text())).append('\n');
+        }
+        return block.append('}').toString();
+    }
+
+    /**
+     * Escapes the GIFT control characters and keeps the item on one logical paragraph,
+     * a blank line would end the question.
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '~', '=', '#', '{', '}', ':', '\\' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.Exceptions.TooManyAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-memory sliding-window limits in front of password hashing: all sign-in and registration
+ * attempts per client IP, and failed sign-ins per account. Both are checked before any hashing
+ * happens, so a credential-stuffing burst is turned away without costing a BCrypt round.
+ * Windows of idle keys are dropped after one window length and the number of tracked keys is bounded.
+ */
+@Service
+public class LoginThrottle {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auth.throttle.ip.max-attempts:30}")
+    private int maxAttemptsPerIp;
+
+    @Value("${app.auth.throttle.ip.window-seconds:60}")
+    private long ipWindowSeconds;
+
+    @Value("${app.auth.throttle.account.max-failures:5}")
+    private int maxFailuresPerAccount;
+
+    @Value("${app.auth.throttle.account.window-seconds:900}")
+    private long accountWindowSeconds;
+
+    @Value("${app.auth.throttle.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+
+    private Cache<String, SlidingWindow> ipWindows;
+    private Cache<String, SlidingWindow> accountWindows;
+
+    public LoginThrottle(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        ipWindows = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(ipWindowSeconds))
+                .maximumSize(maxTrackedKeys)
+                .build();
+        accountWindows = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(accountWindowSeconds))
+                .maximumSize(maxTrackedKeys)
+                .build();
+        meterRegistry.gauge("edugen.auth.throttle.tracked", List.of(Tag.of("scope", "ip")), ipWindows, Cache::estimatedSize);
+        meterRegistry.gauge("edugen.auth.throttle.tracked", List.of(Tag.of("scope", "account")), accountWindows, Cache::estimatedSize);
+    }
+
+    /**
+     * Counts a sign-in attempt from the IP and rejects it when the IP or the account is over its limit.
+     *
+     * @throws TooManyAttemptsException with the seconds until the next attempt is allowed
+     */
+    public void checkLogin(String clientIp, String email) {
+        long now = System.currentTimeMillis();
+        SlidingWindow account = accountWindows.getIfPresent(accountKey(email));
+        if (account != null) {
+            long retryAfter = account.retryAfterMillis(now);
+            if (retryAfter > 0) {
+                throw throttled("account", retryAfter, "Too many failed sign-ins for this account");
+            }
+        }
+        acquireIp(clientIp, now);
+    }
+
+    public void checkRegistration(String clientIp) {
+        acquireIp(clientIp, System.currentTimeMillis());
+    }
+
+    public void recordFailure(String email) {
+        accountWindows.get(accountKey(email),
+                        key -> new SlidingWindow(maxFailuresPerAccount, accountWindowSeconds * 1000))
+                .record(System.currentTimeMillis());
+    }
+
+    public void recordSuccess(String email) {
+        accountWindows.invalidate(accountKey(email));
+    }
+
+    private void acquireIp(String clientIp, long now) {
+        SlidingWindow window = ipWindows.get(clientIp,
+                key -> new SlidingWindow(maxAttemptsPerIp, ipWindowSeconds * 1000));
+        long retryAfter = window.tryAcquire(now);
+        if (retryAfter > 0) {
+            throw throttled("ip", retryAfter, "Too many sign-in attempts from this address");
+        }
+    }
+
+    private TooManyAttemptsException throttled(String scope, long retryAfterMillis, String message) {
+        meterRegistry.counter("edugen.auth.throttled", "scope", scope).increment();
+        return new TooManyAttemptsException(message + ", try again later", (retryAfterMillis + 999) / 1000);
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The times of the last maxEvents events in a ring. The window is full when the oldest of them
+     * is still inside it, which makes the limit exact without storing more than maxEvents longs.
+     */
+    static final class SlidingWindow {
+        private final long[] events;
+        private final long windowMillis;
+        private int next;
+
+        SlidingWindow(int maxEvents, long windowMillis) {
+            this.events = new long[Math.max(1, maxEvents)];
+            this.windowMillis = windowMillis;
+            Arrays.fill(events, Long.MIN_VALUE);
+        }
+
+        /**
+         * @return 0 when an event may happen now, otherwise the milliseconds until one may
+         */
+        synchronized long retryAfterMillis(long now) {
+            long oldest = events[next];
+            return oldest == Long.MIN_VALUE ? 0 : Math.max(0, oldest + windowMillis - now);
+        }
+
+        synchronized void record(long now) {
+            events[next] = now;
+            next = (next + 1) % events.length;
+        }
+
+        /**
+         * Records the event unless the window is full.
+         */
+        synchronized long tryAcquire(long now) {
+            long retryAfter = retryAfterMillis(now);
+            if (retryAfter == 0) {
+                record(now);
+            }
+            return retryAfter;
+        }
+    }
+}
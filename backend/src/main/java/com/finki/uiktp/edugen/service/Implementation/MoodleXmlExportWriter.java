@@ -0,0 +1,137 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Moodle XML question bank, written with a StAX writer. Each document becomes a category,
+ * questions map to multichoice, truefalse and shortanswer questions like in the GIFT export.
+ */
+@Component
+public class MoodleXmlExportWriter implements QuestionExportWriter {
+
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.MOODLE_XML;
+    }
+
+    @Override
+    public void write(Iterator<ExportedQuestion> questions, OutputStream out) throws IOException {
+        try {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("quiz");
+            Long currentDocumentId = null;
+
+            while (questions.hasNext()) {
+                ExportedQuestion question = questions.next();
+                if (!Objects.equals(question.documentId(), currentDocumentId)) {
+                    currentDocumentId = question.documentId();
+                    writeCategory(xml, question.documentTitle());
+                }
+                writeQuestion(xml, question);
+            }
+
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            // Flushes to the stream, a StAX writer never closes the stream it writes to
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write Moodle XML: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeCategory(XMLStreamWriter xml, String documentTitle) throws XMLStreamException {
+        xml.writeCharacters("\n");
+        xml.writeStartElement("question");
+        xml.writeAttribute("type", "category");
+        xml.writeStartElement("category");
+        // A slash separates subcategories, a literal one is doubled
+        writeText(xml, "$course$/" + documentTitle.replace("/", "//"));
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private static void writeQuestion(XMLStreamWriter xml, ExportedQuestion question) throws XMLStreamException {
+        Boolean trueFalse = question.type() == QuestionType.TRUE_FALSE ? QuestionExportWriter.trueFalseValue(question) : null;
+        boolean shortAnswer = question.type() == QuestionType.FILL_IN_THE_BLANK || question.answers().isEmpty();
+        long correctCount = QuestionExportWriter.correctCount(question);
+        // Moodle refuses a choice question without an answer worth 100%, its text is kept as an essay instead
+        String type = trueFalse != null ? "truefalse"
+                : question.answers().isEmpty() ? "essay"
+                : shortAnswer ? "shortanswer"
+                : correctCount == 0 ? "essay"
+                : "multichoice";
+
+        xml.writeCharacters("\n");
+        xml.writeStartElement("question");
+        xml.writeAttribute("type", type);
+
+        xml.writeStartElement("name");
+        writeText(xml, "Q" + question.id());
+        xml.writeEndElement();
+
+        xml.writeStartElement("questiontext");
+        xml.writeAttribute("format", "plain_text");
+        writeText(xml, question.text());
+        xml.writeEndElement();
+
+        writeElement(xml, "defaultgrade", "1");
+
+        if (trueFalse != null) {
+            writeAnswer(xml, "true", trueFalse ? "100" : "0");
+            writeAnswer(xml, "false", trueFalse ? "0" : "100");
+        } else if (type.equals("shortanswer")) {
+            writeElement(xml, "usecase", "0");
+            boolean anyCorrect = correctCount > 0;
+            for (ExportedAnswer answer : question.answers()) {
+                if (answer.correct() || !anyCorrect) {
+                    writeAnswer(xml, answer.text(), "100");
+                }
+            }
+        } else if (type.equals("multichoice")) {
+            String fraction = QuestionExportWriter.correctFraction(correctCount);
+            String penalty = QuestionExportWriter.wrongFraction(correctCount, question.answers().size() - correctCount);
+            writeElement(xml, "single", String.valueOf(correctCount <= 1));
+            writeElement(xml, "shuffleanswers", "true");
+            writeElement(xml, "answernumbering", "abc");
+            for (ExportedAnswer answer : question.answers()) {
+                writeAnswer(xml, answer.text(), answer.correct() ? fraction : penalty);
+            }
+        }
+
+        xml.writeEndElement();
+    }
+
+    private static void writeAnswer(XMLStreamWriter xml, String text, String fraction) throws XMLStreamException {
+        xml.writeStartElement("answer");
+        xml.writeAttribute("fraction", fraction);
+        xml.writeAttribute("format", "plain_text");
+        writeText(xml, text);
+        xml.writeEndElement();
+    }
+
+    private static void writeText(XMLStreamWriter xml, String text) throws XMLStreamException {
+        writeElement(xml, "text", text);
+    }
+
+    private static void writeElement(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(QuestionExportWriter.xmlSafe(value));
+        xml.writeEndElement();
+    }
+}
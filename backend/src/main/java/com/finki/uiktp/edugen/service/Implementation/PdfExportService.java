@@ -1,33 +1,137 @@
 package com.finki.uiktp.edugen.service.Implementation;
 
-import com.finki.uiktp.edugen.model.Question;
-import com.finki.uiktp.edugen.model.Answer;
-import com.finki.uiktp.edugen.service.QuestionService;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.repository.QuestionRepository;
+import com.finki.uiktp.edugen.repository.QuestionRepository.ExportStamp;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.text.pdf.draw.LineSeparator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
+/**
+ * Writes the PDF straight to the given stream, iText emits each page as soon as it is laid out.
+ * Questions are read through a {@link QuestionExportCursor} ordered by document, so an export
+ * holds neither the question list nor the rendered file in memory.
+ * Rendered files are kept in a size-bounded on-disk LRU cache, keyed by a fingerprint of the question set
+ * and its current state, so a set exported again unchanged is copied from disk instead of rendered.
+ */
 @Service
 public class PdfExportService {
 
-    private final QuestionService questionService;
+    private static final int FINGERPRINT_BYTES = 16;
 
-    public PdfExportService(QuestionService questionService) {
-        this.questionService = questionService;
+    private final QuestionRepository questionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.export.max-questions:5000}")
+    private int maxQuestions;
+
+    @Value("${app.export.cache-dir:exports}")
+    private String cacheDir;
+
+    @Value("${app.export.max-cache-mb:256}")
+    private long maxCacheMb;
+
+    private DiskLruCache cache;
+
+    public PdfExportService(QuestionRepository questionRepository, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.questionRepository = questionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        cache = new DiskLruCache(Paths.get(cacheDir), maxCacheMb * 1024 * 1024);
+        meterRegistry.gauge("edugen.export.cache.size", cache, DiskLruCache::size);
+    }
+
+    /**
+     * Identifies the user's question set and its current state, as "set-state". The set part hashes the user
+     * and the sorted ids, so no two users share a cached file, the state part the per-document stamps of the
+     * user's questions among them, which change with every edit.
+     * Called before the response is committed, a failure once streaming has started can no longer change the status.
+     *
+     * @throws IllegalArgumentException when more than max-questions ids are given
+     */
+    public String fingerprint(List<Long> questionIds, Long userId) {
+        if (questionIds.size() > maxQuestions) {
+            throw new IllegalArgumentException(String.format("At most %d questions can be exported at once", maxQuestions));
+        }
+        List<Long> ids = questionIds.stream().distinct().sorted().toList();
+        List<ExportStamp> stamps = transactionTemplate.execute(status -> questionRepository.findExportStampsByIdInOwnedBy(ids, userId));
+
+        MessageDigest set = sha256();
+        set.update((userId + ":").getBytes(StandardCharsets.UTF_8));
+        for (Long id : ids) {
+            set.update((id + ",").getBytes(StandardCharsets.UTF_8));
+        }
+        MessageDigest state = sha256();
+        for (ExportStamp stamp : stamps) {
+            state.update((stamp.getDocumentId() + "," + stamp.getDocumentTitle() + "," + stamp.getQuestionCount()
+                    + "," + stamp.getAnswerCount() + "," + stamp.getQuestionVersions() + "," + stamp.getAnswerVersions()
+                    + "," + stamp.getLastAnswerId() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return hex(set) + "-" + hex(state);
     }
 
-    public byte[] exportQuestionsToPdf(List<Long> questionIds) throws DocumentException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    /**
+     * Copies the cached file of the fingerprint, or renders it, writing the cache entry and the stream at once.
+     * Unknown ids and questions of other users are skipped. The stream is left open for the caller.
+     */
+    public void exportQuestionsToPdf(List<Long> questionIds, Long userId, String fingerprint, OutputStream out)
+            throws IOException {
+        String key = fingerprint + ".pdf";
+        try (InputStream cached = cache.open(key)) {
+            if (cached != null) {
+                meterRegistry.counter("edugen.export.requests", "result", "hit").increment();
+                cached.transferTo(out);
+                return;
+            }
+        }
+        meterRegistry.counter("edugen.export.requests", "result", "miss").increment();
+
+        // The state part of the key only moves forward, entries of earlier states of this set are dead
+        cache.removeByPrefix(fingerprint.substring(0, fingerprint.indexOf('-') + 1));
+        cache.put(key, file -> {
+            try {
+                render(questionIds, userId, new TeeOutputStream(file, out));
+            } catch (DocumentException | ExceptionConverter e) {
+                throw new IOException("Error exporting questions to PDF: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void render(List<Long> questionIds, Long userId, OutputStream out) throws DocumentException {
         Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
 
         document.open();
 
@@ -37,98 +141,141 @@ public class PdfExportService {
         title.setSpacingAfter(20);
         document.add(title);
 
-        Font dateFont = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY);
-        Paragraph date = new Paragraph("Generated on: " + new java.util.Date(), dateFont);
-        date.setAlignment(Element.ALIGN_RIGHT);
-        date.setSpacingAfter(20);
-        document.add(date);
+        Map<QuestionType, Long> typeCounts = new EnumMap<>(QuestionType.class);
+        // The cursor has to be read inside a transaction, the callback cannot throw the checked DocumentException
+        transactionTemplate.executeWithoutResult(status -> {
+            try (QuestionExportCursor cursor = new QuestionExportCursor(
+                    questionRepository.streamExportRowsByIdInOwnedBy(questionIds, userId))) {
+                writeQuestions(document, cursor, typeCounts);
+            } catch (DocumentException e) {
+                throw new ExceptionConverter(e);
+            }
+        });
 
-        List<Question> questions = questionIds.stream()
-                .map(id -> questionService.findById(id).orElse(null))
-                .filter(q -> q != null)
-                .collect(Collectors.toList());
+        document.add(Chunk.NEWLINE);
+        document.add(new LineSeparator());
 
-        Map<String, List<Question>> questionsByDocument = questions.stream()
-                .collect(Collectors.groupingBy(q ->
-                        q.getDocument() != null ? q.getDocument().getTitle() : "No Document"
-                ));
+        Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY);
+        Paragraph summary = new Paragraph();
+        summary.setFont(summaryFont);
+        summary.add("Total Questions: " + typeCounts.values().stream().mapToLong(Long::longValue).sum());
+        summary.add(Chunk.NEWLINE);
+
+        for (Map.Entry<QuestionType, Long> typeEntry : typeCounts.entrySet()) {
+            summary.add(formatQuestionType(typeEntry.getKey().toString()) + ": " + typeEntry.getValue());
+            summary.add(Chunk.NEWLINE);
+        }
+
+        document.add(summary);
 
+        document.close();
+    }
+
+    private void writeQuestions(Document document, QuestionExportCursor cursor, Map<QuestionType, Long> typeCounts)
+            throws DocumentException {
         Font documentFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.DARK_GRAY);
         Font questionFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.BLACK);
         Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 11, BaseColor.BLACK);
         Font correctAnswerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new BaseColor(0, 128, 0));
 
-        for (Map.Entry<String, List<Question>> entry : questionsByDocument.entrySet()) {
-            Paragraph docTitle = new Paragraph(entry.getKey(), documentFont);
-            docTitle.setSpacingBefore(15);
-            docTitle.setSpacingAfter(10);
-            document.add(docTitle);
-
-            int questionNumber = 1;
-            for (Question question : entry.getValue()) {
-                PdfPTable questionTable = new PdfPTable(2);
-                questionTable.setWidthPercentage(100);
-                questionTable.setWidths(new float[]{80, 20});
-
-                PdfPCell questionCell = new PdfPCell(new Phrase(
-                        questionNumber + ". " + question.getText(), questionFont
-                ));
-                questionCell.setBorder(Rectangle.NO_BORDER);
-                questionCell.setPaddingBottom(5);
-                questionTable.addCell(questionCell);
-
-                PdfPCell typeCell = new PdfPCell(new Phrase(
-                        formatQuestionType(question.getType().toString()), normalFont
-                ));
-                typeCell.setBorder(Rectangle.NO_BORDER);
-                typeCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                questionTable.addCell(typeCell);
-
-                document.add(questionTable);
-
-                if (question.getAnswers() != null && !question.getAnswers().isEmpty()) {
-                    com.itextpdf.text.List answerList = new com.itextpdf.text.List(com.itextpdf.text.List.ORDERED, com.itextpdf.text.List.ALPHABETICAL);
-                    answerList.setIndentationLeft(20);
-
-                    for (Answer answer : question.getAnswers()) {
-                        Font answerFont = answer.isCorrect() ? correctAnswerFont : normalFont;
-                        ListItem item = new ListItem(answer.getText(), answerFont);
-                        if (answer.isCorrect()) {
-                            item.add(new Phrase(" ✓", correctAnswerFont));
-                        }
-                        answerList.add(item);
-                    }
+        Long currentDocumentId = null;
+        int questionNumber = 1;
+        while (cursor.hasNext()) {
+            ExportedQuestion question = cursor.next();
+
+            if (!Objects.equals(question.documentId(), currentDocumentId)) {
+                currentDocumentId = question.documentId();
+                questionNumber = 1;
+
+                Paragraph docTitle = new Paragraph(question.documentTitle(), documentFont);
+                docTitle.setSpacingBefore(15);
+                docTitle.setSpacingAfter(10);
+                document.add(docTitle);
+            }
+
+            PdfPTable questionTable = new PdfPTable(2);
+            questionTable.setWidthPercentage(100);
+            questionTable.setWidths(new float[]{80, 20});
 
-                    document.add(answerList);
+            PdfPCell questionCell = new PdfPCell(new Phrase(
+                    questionNumber + ". " + question.text(), questionFont
+            ));
+            questionCell.setBorder(Rectangle.NO_BORDER);
+            questionCell.setPaddingBottom(5);
+            questionTable.addCell(questionCell);
+
+            PdfPCell typeCell = new PdfPCell(new Phrase(
+                    formatQuestionType(question.type().toString()), normalFont
+            ));
+            typeCell.setBorder(Rectangle.NO_BORDER);
+            typeCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            questionTable.addCell(typeCell);
+
+            document.add(questionTable);
+
+            if (!question.answers().isEmpty()) {
+                com.itextpdf.text.List answerList = new com.itextpdf.text.List(com.itextpdf.text.List.ORDERED, com.itextpdf.text.List.ALPHABETICAL);
+                answerList.setIndentationLeft(20);
+
+                for (ExportedAnswer answer : question.answers()) {
+                    Font answerFont = answer.correct() ? correctAnswerFont : normalFont;
+                    ListItem item = new ListItem(answer.text(), answerFont);
+                    if (answer.correct()) {
+                        item.add(new Phrase(" ✓", correctAnswerFont));
+                    }
+                    answerList.add(item);
                 }
 
-                document.add(new Paragraph(" "));
-                questionNumber++;
+                document.add(answerList);
             }
+
+            document.add(new Paragraph(" "));
+            questionNumber++;
+            typeCounts.merge(question.type(), 1L, Long::sum);
         }
+    }
 
-        document.add(Chunk.NEWLINE);
-        document.add(new LineSeparator());
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY);
-        Paragraph summary = new Paragraph();
-        summary.setFont(summaryFont);
-        summary.add("Total Questions: " + questions.size());
-        summary.add(Chunk.NEWLINE);
+    private static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), FINGERPRINT_BYTES));
+    }
 
-        Map<String, Long> typeCounts = questions.stream()
-                .collect(Collectors.groupingBy(q -> q.getType().toString(), Collectors.counting()));
+    /**
+     * Writes to the cache file and the response together, closing neither.
+     */
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
 
-        for (Map.Entry<String, Long> typeEntry : typeCounts.entrySet()) {
-            summary.add(formatQuestionType(typeEntry.getKey()) + ": " + typeEntry.getValue());
-            summary.add(Chunk.NEWLINE);
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
         }
 
-        document.add(summary);
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
 
-        document.close();
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
 
-        return baos.toByteArray();
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
     }
 
     private String formatQuestionType(String type) {
@@ -0,0 +1,224 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * IMS QTI 2.1 content package: a zip with one assessmentItem file per question and the imsmanifest.xml
+ * listing them. Questions with answers become choice interactions, fill-in-the-blank questions text entry
+ * interactions and questions without answers extended text interactions.
+ * The manifest is written last, so only the question ids are kept until the end.
+ */
+@Component
+public class QtiExportWriter implements QuestionExportWriter {
+
+    private static final String QTI_NAMESPACE = "http://www.imsglobal.org/xsd/imsqti_v2p1";
+    private static final String QTI_SCHEMA = "http://www.imsglobal.org/xsd/qti/qtiv2p1/imsqti_v2p1.xsd";
+    private static final String CP_NAMESPACE = "http://www.imsglobal.org/xsd/imscp_v1p1";
+    private static final String CP_SCHEMA = "http://www.imsglobal.org/xsd/qti/qtiv2p1/qtiv2p1_imscpv1p2_v1p0.xsd";
+    private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final String TEMPLATES = "http://www.imsglobal.org/question/qti_v2p1/rptemplates/";
+
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.QTI;
+    }
+
+    @Override
+    public void write(Iterator<ExportedQuestion> questions, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        List<Long> itemIds = new ArrayList<>();
+        try {
+            while (questions.hasNext()) {
+                ExportedQuestion question = questions.next();
+                zip.putNextEntry(new ZipEntry(itemPath(question.id())));
+                XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(zip, "UTF-8");
+                writeItem(xml, question);
+                xml.close();
+                zip.closeEntry();
+                itemIds.add(question.id());
+            }
+
+            zip.putNextEntry(new ZipEntry("imsmanifest.xml"));
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(zip, "UTF-8");
+            writeManifest(xml, itemIds);
+            xml.close();
+            zip.closeEntry();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write QTI package: " + e.getMessage(), e);
+        }
+        // Writes the central directory without closing the response
+        zip.finish();
+    }
+
+    private static String itemPath(Long questionId) {
+        return "items/item-" + questionId + ".xml";
+    }
+
+    private static void writeItem(XMLStreamWriter xml, ExportedQuestion question) throws XMLStreamException {
+        boolean textEntry = question.type() == QuestionType.FILL_IN_THE_BLANK && !question.answers().isEmpty();
+        boolean choice = !textEntry && !question.answers().isEmpty();
+        long correctCount = QuestionExportWriter.correctCount(question);
+        String cardinality = choice && correctCount > 1 ? "multiple" : "single";
+
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("assessmentItem");
+        xml.writeDefaultNamespace(QTI_NAMESPACE);
+        xml.writeNamespace("xsi", XSI_NAMESPACE);
+        xml.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation", QTI_NAMESPACE + " " + QTI_SCHEMA);
+        xml.writeAttribute("identifier", "Q" + question.id());
+        xml.writeAttribute("title", title(question.text()));
+        xml.writeAttribute("adaptive", "false");
+        xml.writeAttribute("timeDependent", "false");
+
+        xml.writeStartElement("responseDeclaration");
+        xml.writeAttribute("identifier", "RESPONSE");
+        xml.writeAttribute("cardinality", cardinality);
+        xml.writeAttribute("baseType", choice ? "identifier" : "string");
+        if (choice && correctCount > 0) {
+            xml.writeStartElement("correctResponse");
+            for (int i = 0; i < question.answers().size(); i++) {
+                if (question.answers().get(i).correct()) {
+                    writeElement(xml, "value", choiceId(i));
+                }
+            }
+            xml.writeEndElement();
+        } else if (textEntry) {
+            writeTextEntryResponse(xml, question, correctCount > 0);
+        }
+        xml.writeEndElement();
+
+        xml.writeStartElement("outcomeDeclaration");
+        xml.writeAttribute("identifier", "SCORE");
+        xml.writeAttribute("cardinality", "single");
+        xml.writeAttribute("baseType", "float");
+        xml.writeStartElement("defaultValue");
+        writeElement(xml, "value", "0");
+        xml.writeEndElement();
+        xml.writeEndElement();
+
+        xml.writeStartElement("itemBody");
+        if (choice) {
+            xml.writeStartElement("choiceInteraction");
+            xml.writeAttribute("responseIdentifier", "RESPONSE");
+            xml.writeAttribute("shuffle", "true");
+            xml.writeAttribute("maxChoices", cardinality.equals("single") ? "1" : "0");
+            writeElement(xml, "prompt", question.text());
+            for (int i = 0; i < question.answers().size(); i++) {
+                xml.writeStartElement("simpleChoice");
+                xml.writeAttribute("identifier", choiceId(i));
+                xml.writeCharacters(QuestionExportWriter.xmlSafe(question.answers().get(i).text()));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        } else if (textEntry) {
+            xml.writeStartElement("p");
+            xml.writeCharacters(QuestionExportWriter.xmlSafe(question.text()) + " ");
+            xml.writeEmptyElement("textEntryInteraction");
+            xml.writeAttribute("responseIdentifier", "RESPONSE");
+            xml.writeEndElement();
+        } else {
+            xml.writeStartElement("extendedTextInteraction");
+            xml.writeAttribute("responseIdentifier", "RESPONSE");
+            writeElement(xml, "prompt", question.text());
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+
+        if (choice && correctCount > 0) {
+            xml.writeEmptyElement("responseProcessing");
+            xml.writeAttribute("template", TEMPLATES + "match_correct");
+        } else if (textEntry) {
+            xml.writeEmptyElement("responseProcessing");
+            xml.writeAttribute("template", TEMPLATES + "map_response");
+        }
+
+        xml.writeEndElement();
+        xml.writeEndDocument();
+    }
+
+    /**
+     * Every correct answer scores, all answers when none is marked correct, like the short answers of the other formats.
+     */
+    private static void writeTextEntryResponse(XMLStreamWriter xml, ExportedQuestion question, boolean anyCorrect)
+            throws XMLStreamException {
+        List<ExportedAnswer> accepted = question.answers().stream()
+                .filter(answer -> answer.correct() || !anyCorrect)
+                .toList();
+
+        xml.writeStartElement("correctResponse");
+        writeElement(xml, "value", accepted.get(0).text());
+        xml.writeEndElement();
+
+        xml.writeStartElement("mapping");
+        xml.writeAttribute("defaultValue", "0");
+        for (ExportedAnswer answer : accepted) {
+            xml.writeEmptyElement("mapEntry");
+            xml.writeAttribute("mapKey", QuestionExportWriter.xmlSafe(answer.text()));
+            xml.writeAttribute("mappedValue", "1");
+        }
+        xml.writeEndElement();
+    }
+
+    private static void writeManifest(XMLStreamWriter xml, List<Long> itemIds) throws XMLStreamException {
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("manifest");
+        xml.writeDefaultNamespace(CP_NAMESPACE);
+        xml.writeNamespace("xsi", XSI_NAMESPACE);
+        xml.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation", CP_NAMESPACE + " " + CP_SCHEMA);
+        xml.writeAttribute("identifier", "MANIFEST-" + System.currentTimeMillis());
+
+        xml.writeStartElement("metadata");
+        writeElement(xml, "schema", "QTIv2.1 Package");
+        writeElement(xml, "schemaversion", "1.0.0");
+        xml.writeEndElement();
+
+        xml.writeEmptyElement("organizations");
+
+        xml.writeStartElement("resources");
+        for (Long id : itemIds) {
+            xml.writeStartElement("resource");
+            xml.writeAttribute("identifier", "item-" + id);
+            xml.writeAttribute("type", "imsqti_item_xmlv2p1");
+            xml.writeAttribute("href", itemPath(id));
+            xml.writeEmptyElement("file");
+            xml.writeAttribute("href", itemPath(id));
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+
+        xml.writeEndElement();
+        xml.writeEndDocument();
+    }
+
+    private static String choiceId(int index) {
+        return "A" + (index + 1);
+    }
+
+    private static String title(String text) {
+        String title = QuestionExportWriter.xmlSafe(text).replaceAll("\\s+", " ").strip();
+        return title.length() > 80 ? title.substring(0, 77) + "..." : title;
+    }
+
+    private static void writeElement(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(QuestionExportWriter.xmlSafe(value));
+        xml.writeEndElement();
+    }
+}
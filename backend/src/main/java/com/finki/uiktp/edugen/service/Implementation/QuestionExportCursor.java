@@ -0,0 +1,56 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.repository.QuestionRepository.ExportRow;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Folds the answer rows of an export query back into questions, one question at a time.
+ * Only the current question is held in memory, the rows must be ordered by question.
+ */
+public class QuestionExportCursor implements Iterator<ExportedQuestion>, AutoCloseable {
+    private final Stream<ExportRow> rows;
+    private final Iterator<ExportRow> iterator;
+    private ExportRow pending;
+
+    public QuestionExportCursor(Stream<ExportRow> rows) {
+        this.rows = rows;
+        this.iterator = rows.iterator();
+        this.pending = iterator.hasNext() ? iterator.next() : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pending != null;
+    }
+
+    @Override
+    public ExportedQuestion next() {
+        if (pending == null) {
+            throw new NoSuchElementException();
+        }
+        ExportRow first = pending;
+        List<ExportedAnswer> answers = new ArrayList<>();
+        do {
+            // A question without answers comes as a single row with null answer columns
+            if (pending.getAnswerText() != null) {
+                answers.add(new ExportedAnswer(pending.getAnswerText(), Boolean.TRUE.equals(pending.getAnswerCorrect())));
+            }
+            pending = iterator.hasNext() ? iterator.next() : null;
+        } while (pending != null && pending.getQuestionId().equals(first.getQuestionId()));
+
+        return new ExportedQuestion(first.getQuestionId(), first.getQuestionText(), first.getQuestionType(),
+                first.getDocumentId(), first.getDocumentTitle(), answers);
+    }
+
+    @Override
+    public void close() {
+        rows.close();
+    }
+}
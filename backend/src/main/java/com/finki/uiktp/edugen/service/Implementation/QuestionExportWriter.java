@@ -0,0 +1,87 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+
+/**
+ * Writes questions in one {@link ExportFormat} while they are read. Writers see one question at a time
+ * and must not collect them, so an export runs in constant memory however large the question bank is.
+ * The questions arrive grouped by document. The stream is left open for the caller.
+ */
+public interface QuestionExportWriter {
+
+    ExportFormat format();
+
+    void write(Iterator<ExportedQuestion> questions, OutputStream out) throws IOException;
+
+    static long correctCount(ExportedQuestion question) {
+        return question.answers().stream().filter(ExportedAnswer::correct).count();
+    }
+
+    /**
+     * Share of the grade for each of the correct answers, as a percentage the LMS grade lists contain
+     * for up to ten correct answers: 100, 50, 33.33333, 25, ...
+     */
+    static String correctFraction(long correctCount) {
+        return correctCount <= 1 ? "100" : share(correctCount);
+    }
+
+    /**
+     * Penalty for each wrong answer of a question with several correct ones: the wrong answers share -100,
+     * so ticking every choice does not earn the full grade. A wrong choice of a single-answer question
+     * already forgoes the grade and costs nothing more.
+     */
+    static String wrongFraction(long correctCount, long wrongCount) {
+        return correctCount <= 1 || wrongCount == 0 ? "0" : "-" + share(wrongCount);
+    }
+
+    private static String share(long count) {
+        return BigDecimal.valueOf(100).divide(BigDecimal.valueOf(count), 5, RoundingMode.HALF_UP)
+                .stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * @return the value of a true/false question whose correct answer reads "true" or "false", else null
+     */
+    static Boolean trueFalseValue(ExportedQuestion question) {
+        for (ExportedAnswer answer : question.answers()) {
+            if (answer.correct()) {
+                String text = answer.text().strip();
+                if (text.equalsIgnoreCase("true")) {
+                    return true;
+                }
+                if (text.equalsIgnoreCase("false")) {
+                    return false;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the control characters XML 1.0 does not allow, generated text occasionally contains them.
+     */
+    static String xmlSafe(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder safe = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean allowed = c >= 0x20 ? c != 0xFFFE && c != 0xFFFF : c == '\t' || c == '\n' || c == '\r';
+            if (!allowed && safe == null) {
+                safe = new StringBuilder(text.length()).append(text, 0, i);
+            } else if (allowed && safe != null) {
+                safe.append(c);
+            }
+        }
+        return safe != null ? safe.toString() : text;
+    }
+}
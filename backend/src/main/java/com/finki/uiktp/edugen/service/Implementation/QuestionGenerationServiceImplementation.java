@@ -8,6 +8,7 @@ import com.finki.uiktp.edugen.model.dto.GeneratedQuestionDto;
 import com.finki.uiktp.edugen.model.enums.QuestionType;
 import com.finki.uiktp.edugen.repository.DocumentRepository;
 import com.finki.uiktp.edugen.service.AnswerService;
+import com.finki.uiktp.edugen.service.DashboardService;
 import com.finki.uiktp.edugen.service.DocumentService;
 import com.finki.uiktp.edugen.service.QuestionGenerationService;
 import com.finki.uiktp.edugen.service.QuestionService;
@@ -39,6 +40,7 @@ public class QuestionGenerationServiceImplementation implements QuestionGenerati
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final DocumentService documentService;
+    private final DashboardService dashboardService;
 
     // Add a request tracking mechanism to prevent infinite loops
     private static final Set<String> activeRequests = ConcurrentHashMap.newKeySet();
@@ -62,13 +64,15 @@ public class QuestionGenerationServiceImplementation implements QuestionGenerati
                                                    QuestionService questionService,
                                                    AnswerService answerService,
                                                    RestTemplate restTemplate,
-                                                   DocumentService documentService) {
+                                                   DocumentService documentService,
+                                                   DashboardService dashboardService) {
         this.documentRepository = documentRepository;
         this.questionService = questionService;
         this.answerService = answerService;
         this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
         this.documentService = documentService;
+        this.dashboardService = dashboardService;
     }
 
     @Override
@@ -103,6 +107,7 @@ public class QuestionGenerationServiceImplementation implements QuestionGenerati
             logger.info("Generated {} questions from AI for document ID: {}", generatedQuestions.size(), documentId);
 
             List<Question> savedQuestions = saveGeneratedQuestions(documentId, generatedQuestions);
+            dashboardService.generationRecorded(document.getUser().getId(), savedQuestions.size());
 
             logger.info("Successfully saved {} questions for document ID: {}", savedQuestions.size(), documentId);
 
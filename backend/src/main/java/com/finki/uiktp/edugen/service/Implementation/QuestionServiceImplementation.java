@@ -1,33 +1,96 @@
 package com.finki.uiktp.edugen.service.Implementation;
 
+import com.finki.uiktp.edugen.config.ReplicaRead;
+import com.finki.uiktp.edugen.model.Answer;
 import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.AnswerNotFoundException;
 import com.finki.uiktp.edugen.model.Exceptions.DocumentNotFoundException;
 import com.finki.uiktp.edugen.model.Exceptions.QuestionNotFoundException;
 import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.dto.BulkQuestionUpdateRequest;
+import com.finki.uiktp.edugen.model.dto.KeysetCursor;
+import com.finki.uiktp.edugen.model.dto.PageResponse;
+import com.finki.uiktp.edugen.model.dto.QuestionPatchRequest;
 import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.repository.AnswerRepository;
 import com.finki.uiktp.edugen.repository.DocumentRepository;
 import com.finki.uiktp.edugen.repository.QuestionRepository;
+import com.finki.uiktp.edugen.service.DashboardService;
 import com.finki.uiktp.edugen.service.QuestionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class QuestionServiceImplementation implements QuestionService {
 
     private final QuestionRepository questionRepository;
+    private final AnswerRepository answerRepository;
     private final DocumentRepository documentRepository;
+    private final DashboardService dashboardService;
 
-    public QuestionServiceImplementation(QuestionRepository questionRepository, DocumentRepository documentRepository) {
+    /**
+     * Every type and no type. Bulk statements run once for each, so the dashboard counters change by what each
+     * statement itself deleted or updated: counting first would let two concurrent requests count the same
+     * rows, and both subtract them.
+     */
+    private static final List<QuestionType> TYPES_AND_NONE = typesAndNone();
+
+    @Value("${app.questions.max-bulk-size:1000}")
+    private int maxBulkSize;
+
+    public QuestionServiceImplementation(QuestionRepository questionRepository, AnswerRepository answerRepository,
+                                         DocumentRepository documentRepository, DashboardService dashboardService) {
         this.questionRepository = questionRepository;
+        this.answerRepository = answerRepository;
         this.documentRepository = documentRepository;
+        this.dashboardService = dashboardService;
     }
 
     @Override
+    @ReplicaRead
     public List<Question> listAll() {
-        return questionRepository.findAll();
+        return questionRepository.findAllWithDocumentAndAnswers();
+    }
+
+    /**
+     * Keyset page ordered by id, optionally restricted to one type. One extra id is fetched
+     * to tell whether another page follows, so the last page never needs an empty follow-up request.
+     */
+    @Override
+    @ReplicaRead
+    public PageResponse<Question> listPage(QuestionType type, String cursor, Integer limit, boolean includeTotal) {
+        int pageSize = PageResponse.clampLimit(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor, false);
+        long afterId = after != null ? after.id() : 0;
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<Long> ids = type == null
+                ? questionRepository.findIdsAfter(afterId, pageable)
+                : questionRepository.findIdsByTypeAfter(type, afterId, pageable);
+
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        List<Question> questions = ids.isEmpty()
+                ? List.of()
+                : questionRepository.findAllWithDocumentAndAnswersByIdIn(ids);
+        String nextCursor = hasMore ? KeysetCursor.ofId(ids.get(ids.size() - 1)).encode() : null;
+        Long total = !includeTotal ? null
+                : type == null ? questionRepository.count() : questionRepository.countByType(type);
+
+        return new PageResponse<>(questions, nextCursor, pageSize, total);
     }
 
     @Override
@@ -36,45 +99,223 @@ public class QuestionServiceImplementation implements QuestionService {
     }
 
     @Override
+    @Transactional
     public Question create(Long documentId, QuestionType type, String text) {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new DocumentNotFoundException(documentId));
-        return this.questionRepository.save(new Question(document, text, type));
+        Question question = this.questionRepository.save(new Question(document, text, type));
+        dashboardService.questionsAdded(document.getUser().getId(), type, 1);
+        return question;
     }
 
     @Override
+    @Transactional
     public Optional<Question> update(Long id, QuestionType type, String text) {
         Question question = this.questionRepository.findById(id)
                 .orElseThrow(() -> new QuestionNotFoundException(id));
+        recordRetype(question, type);
         question.setType(type);
         question.setText(text);
         return Optional.of(this.questionRepository.save(question));
     }
 
+    /**
+     * Applies the patch to the managed question and lets dirty checking write only what changed:
+     * an UPDATE per modified answer, an INSERT per new one and a DELETE per dropped one, all in one transaction.
+     * The returned question already holds the merged state, including the ids of new answers.
+     *
+     * @throws AnswerNotFoundException when an answer id does not belong to the question
+     * @throws IllegalArgumentException when a new answer has no text
+     */
+    @Override
+    @Transactional
+    public Question patch(Long id, QuestionPatchRequest patch) {
+        Question question = this.questionRepository.findById(id)
+                .orElseThrow(() -> new QuestionNotFoundException(id));
+
+        if (patch.getType() != null) {
+            recordRetype(question, patch.getType());
+            question.setType(patch.getType());
+        }
+        if (patch.getText() != null) {
+            question.setText(patch.getText());
+        }
+        if (patch.getAnswers() != null) {
+            mergeAnswers(question, patch.getAnswers());
+        }
+
+        this.questionRepository.flush();
+        return question;
+    }
+
+    private static void mergeAnswers(Question question, List<QuestionPatchRequest.AnswerPatch> patches) {
+        Map<Long, Answer> existing = new HashMap<>();
+        for (Answer answer : question.getAnswers()) {
+            existing.put(answer.getId(), answer);
+        }
+
+        List<Answer> merged = new ArrayList<>(patches.size());
+        for (QuestionPatchRequest.AnswerPatch patch : patches) {
+            Answer answer;
+            if (patch.getId() == null) {
+                if (patch.getText() == null || patch.getText().isBlank()) {
+                    throw new IllegalArgumentException("New answers must have a text");
+                }
+                answer = new Answer(question, patch.getText(), Boolean.TRUE.equals(patch.getIsCorrect()));
+            } else {
+                answer = existing.remove(patch.getId());
+                if (answer == null) {
+                    throw new AnswerNotFoundException(patch.getId());
+                }
+                if (patch.getText() != null) {
+                    answer.setText(patch.getText());
+                }
+                if (patch.getIsCorrect() != null) {
+                    answer.setCorrect(patch.getIsCorrect());
+                }
+            }
+            merged.add(answer);
+        }
+
+        // Answers left in the map were not listed, orphan removal deletes them
+        question.getAnswers().removeAll(existing.values());
+        for (Answer answer : merged) {
+            if (answer.getId() == null) {
+                question.addAnswer(answer);
+            }
+        }
+    }
+
     @Override
     @Transactional
     public Question updateQuestion(Long id, Question question) {
+        this.questionRepository.findById(id).ifPresent(existing -> recordRetype(existing, question.getType()));
         question.setId(id);
         return this.questionRepository.save(question);
     }
 
     @Override
+    @Transactional
     public Question delete(Long id) {
         Question question = this.questionRepository.findById(id)
                 .orElseThrow(() -> new QuestionNotFoundException(id));
         this.questionRepository.delete(question);
+        dashboardService.questionsAdded(ownerId(question), question.getType(), -1);
         return question;
     }
 
+    private void recordRetype(Question question, QuestionType type) {
+        dashboardService.questionsRetyped(ownerId(question), question.getType(), type, 1);
+    }
+
+    private static Long ownerId(Question question) {
+        return question.getDocument().getUser().getId();
+    }
+
+    /**
+     * Deletes the user's questions among the ids with set-based statements, answers first.
+     * Ids of other users' questions or of missing questions are skipped.
+     *
+     * @return the number of questions deleted
+     */
     @Override
-    public List<Question> findByDocumentId(Long documentId) {
-        Document document = documentRepository.findById(documentId)
+    @Transactional
+    public int deleteAll(List<Long> ids, Long userId) {
+        checkBulkSize(ids);
+        answerRepository.deleteByQuestionIdInOwnedBy(ids, userId);
+        int deleted = 0;
+        for (QuestionType type : TYPES_AND_NONE) {
+            int count = questionRepository.deleteByIdInAndTypeOwnedBy(ids, type, userId);
+            dashboardService.questionsAdded(userId, type, -count);
+            deleted += count;
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes all questions of a document and their answers without loading them.
+     */
+    @Override
+    @Transactional
+    public int deleteByDocumentId(Long documentId) {
+        Long userId = documentRepository.findById(documentId)
+                .map(document -> document.getUser().getId())
                 .orElseThrow(() -> new DocumentNotFoundException(documentId));
-        return questionRepository.findByDocument(document);
+        answerRepository.deleteByDocumentId(documentId);
+        int deleted = 0;
+        for (QuestionType type : TYPES_AND_NONE) {
+            int count = questionRepository.deleteByDocumentIdAndType(documentId, type);
+            dashboardService.questionsAdded(userId, type, -count);
+            deleted += count;
+        }
+        return deleted;
+    }
+
+    /**
+     * Moves and/or retypes the user's questions among the ids with set-based updates.
+     * The target document must belong to the user as well.
+     *
+     * @return the number of questions moved, or retyped when nothing is moved
+     */
+    @Override
+    @Transactional
+    public int bulkUpdate(BulkQuestionUpdateRequest request, Long userId) {
+        checkBulkSize(request.getIds());
+        if (request.getDocumentId() == null && request.getType() == null) {
+            throw new IllegalArgumentException("Nothing to update, give a documentId or a type");
+        }
+
+        int updated = 0;
+        if (request.getDocumentId() != null) {
+            Document target = documentRepository.findById(request.getDocumentId())
+                    .filter(document -> document.getUser().getId().equals(userId))
+                    .orElseThrow(() -> new DocumentNotFoundException(request.getDocumentId()));
+            updated = questionRepository.moveToDocument(request.getIds(), target, userId);
+        }
+        if (request.getType() != null) {
+            int retyped = 0;
+            for (QuestionType from : TYPES_AND_NONE) {
+                if (from == request.getType()) {
+                    continue;
+                }
+                int count = questionRepository.updateType(request.getIds(), from, request.getType(), userId);
+                dashboardService.questionsRetyped(userId, from, request.getType(), count);
+                retyped += count;
+            }
+            if (request.getDocumentId() == null) {
+                updated = retyped;
+            }
+        }
+        return updated;
+    }
+
+    private void checkBulkSize(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No question ids given");
+        }
+        if (ids.size() > maxBulkSize) {
+            throw new IllegalArgumentException(String.format("At most %d questions can be changed at once", maxBulkSize));
+        }
+    }
+
+    private static List<QuestionType> typesAndNone() {
+        List<QuestionType> types = new ArrayList<>(List.of(QuestionType.values()));
+        types.add(null);
+        return Collections.unmodifiableList(types);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Question> findByDocumentId(Long documentId) {
+        if (!documentRepository.existsById(documentId)) {
+            throw new DocumentNotFoundException(documentId);
+        }
+        return questionRepository.findByDocumentIdOrderById(documentId);
     }
 
     @Override
+    @ReplicaRead
     public List<Question> findByType(QuestionType type) {
-        return questionRepository.findByType(type);
+        return questionRepository.findByTypeOrderById(type);
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.repository.DocumentRepository.StoredFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Periodically compares the upload directory with the files referenced by documents.
+ * The sorted directory listing is held in memory and every streamed document row is looked up
+ * in it, so a run never loads the document table into memory. Unreferenced files older than the
+ * grace period are deleted, referenced files that no longer exist are reported.
+ */
+@Service
+public class StorageReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(StorageReconciler.class);
+
+    private final DocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong storedFiles = new AtomicLong();
+    private final AtomicLong pendingOrphans = new AtomicLong();
+    private final AtomicLong missingFiles = new AtomicLong();
+    private final Counter deletedOrphans;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.storage.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage.orphan-grace-period-hours:24}")
+    private long orphanGracePeriodHours;
+
+    @Value("${app.storage.max-reported-missing:20}")
+    private int maxReportedMissing;
+
+    public StorageReconciler(DocumentRepository documentRepository, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.documentRepository = documentRepository;
+        // Read-write on purpose: a replica lagging behind would report fresh documents as missing
+        // and their files as orphans
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        meterRegistry.gauge("edugen.storage.files", storedFiles);
+        meterRegistry.gauge("edugen.storage.orphans.pending", pendingOrphans);
+        meterRegistry.gauge("edugen.storage.missing", missingFiles);
+        this.deletedOrphans = meterRegistry.counter("edugen.storage.orphans.deleted");
+    }
+
+    @Scheduled(initialDelayString = "${app.storage.reconcile.initial-delay-ms:600000}",
+            fixedDelayString = "${app.storage.reconcile.interval-ms:21600000}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Storage reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    public void reconcile() throws IOException {
+        Path directory = Paths.get(uploadDir);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<String> files = listStoredFiles(directory);
+        BitSet referenced = new BitSet(files.size());
+        List<Long> missing = new ArrayList<>();
+        long[] missingCount = new long[1];
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<StoredFile> rows = documentRepository.streamStoredFiles()) {
+                rows.forEach(row -> {
+                    int index = Collections.binarySearch(files, fileName(row.getPath()), StorageReconciler::compareCodePoints);
+                    if (index >= 0) {
+                        // Several documents may share a file
+                        referenced.set(index);
+                    } else if (!Files.exists(Paths.get(row.getPath())) && missingCount[0]++ < maxReportedMissing) {
+                        missing.add(row.getId());
+                    }
+                });
+            }
+        });
+
+        List<String> orphans = new ArrayList<>();
+        for (int i = referenced.nextClearBit(0); i < files.size(); i = referenced.nextClearBit(i + 1)) {
+            orphans.add(files.get(i));
+        }
+
+        Instant graceCutoff = Instant.now().minus(Duration.ofHours(orphanGracePeriodHours));
+        long pending = 0;
+        long deleted = 0;
+        for (String name : orphans) {
+            Path file = directory.resolve(name);
+            try {
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(graceCutoff)) {
+                    // Possibly an upload whose document row is not committed yet
+                    pending++;
+                } else if (!documentRepository.existsByFilePathEndingWith(name) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to delete orphaned file {}: {}", file, e.getMessage());
+            }
+        }
+
+        storedFiles.set(files.size() - deleted);
+        pendingOrphans.set(pending);
+        missingFiles.set(missingCount[0]);
+        deletedOrphans.increment(deleted);
+
+        if (missingCount[0] > 0) {
+            logger.warn("{} documents reference files that no longer exist, e.g. document IDs: {}", missingCount[0], missing);
+        }
+        logger.info("Reconciled {} stored files: {} orphans deleted, {} orphans within the grace period, {} missing",
+                files.size(), deleted, pending, missingCount[0]);
+    }
+
+    /**
+     * Lists the names of the regular files in the upload directory, skipping hidden files
+     * (scratch files of uploads in progress) and subdirectories.
+     */
+    private static List<String> listStoredFiles(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (!name.startsWith(".") && Files.isRegularFile(entry)) {
+                    names.add(name);
+                }
+            }
+        }
+        names.sort(StorageReconciler::compareCodePoints);
+        return names;
+    }
+
+    private static String fileName(String path) {
+        return path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+    }
+
+    /**
+     * Unicode code point order, so the listing is sorted the same way whatever the default locale.
+     */
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int x = a.codePointAt(i);
+            int y = b.codePointAt(j);
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+}
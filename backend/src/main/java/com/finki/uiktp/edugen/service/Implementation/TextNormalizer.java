@@ -0,0 +1,243 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks extracted text before it is chunked and sent to the AI. It removes running headers
+ * and footers that repeat across pages, page numbers and boilerplate lines, rejoins words
+ * hyphenated across line breaks and collapses whitespace runs.
+ */
+@Service
+public class TextNormalizer {
+
+    /**
+     * Rough characters-per-token ratio of the OpenAI tokenizers for English prose.
+     */
+    public static final int CHARACTERS_PER_TOKEN = 4;
+
+    private static final Pattern PAGE_NUMBER = Pattern.compile(
+            "^(?:(?i:page)\\s*)?\\d+(?:\\s*(?:(?i:of)|/)\\s*\\d+)?$");
+    private static final Pattern ROMAN_PAGE_NUMBER = Pattern.compile(
+            "^((?i:page)\\s*)?(?=[ivxlcdmIVXLCDM])(m{0,3}(?:cm|cd|d?c{0,3})(?:xc|xl|l?x{0,3})(?:ix|iv|v?i{0,3})" +
+                    "|M{0,3}(?:CM|CD|D?C{0,3})(?:XC|XL|L?X{0,3})(?:IX|IV|V?I{0,3}))$");
+    private static final Pattern BOILERPLATE = Pattern.compile(
+            "^(?:(?:(?i:copyright)\\s*)?(?:©|(?i:\\(c\\)|copyright))\\s*\\d{4}(?:\\s*[-–]\\s*\\d{4})?" +
+                    "(?:,?\\s+[^.!?]{1,80}?)?\\.?(?:\\s*(?i:all rights reserved)\\.?)?" +
+                    "|(?i:all rights reserved)\\.?" +
+                    "|(?i:this page (?:is )?intentionally left blank)\\.?" +
+                    "|(?i:(?:downloaded|retrieved) from)\\s+(?:(?i:https?://|www\\.)\\S+|\\S+\\.(?i:com|org|net|edu)\\S*)" +
+                    "(?:\\s+(?i:by|on|at)\\s+[^!?]{1,80})?" +
+                    "|(?i:printed in)\\s+(?:(?i:the)\\s+)?\\p{Lu}[\\p{L} ]{0,40}(?:\\s+(?i:by)\\s+[^!?]{1,80})?\\.?)$");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern HYPHENATED_LINE_BREAK = Pattern.compile("(\\p{L})-\\n[ \\t]*(\\p{Ll})");
+    private static final Pattern HORIZONTAL_WHITESPACE = Pattern.compile("[ \\t\\x0B\\f\\u00A0]+");
+    private static final Pattern BLANK_LINE_RUN = Pattern.compile("\\n{3,}");
+
+    @Value("${app.normalization.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.normalization.edge-lines:2}")
+    private int edgeLines;
+
+    @Value("${app.normalization.repeat-threshold:0.5}")
+    private double repeatThreshold;
+
+    @Value("${app.normalization.min-pages:3}")
+    private int minPages;
+
+    /**
+     * Normalizes the text of consecutive pages. Header and footer detection needs at least
+     * min-pages pages, a single page only gets the line-level clean-up.
+     */
+    public List<String> normalizePages(List<String> pages) {
+        if (!enabled) {
+            return pages;
+        }
+
+        List<String[]> pageLines = new ArrayList<>(pages.size());
+        for (String page : pages) {
+            pageLines.add(page.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1));
+        }
+
+        Set<String> repeatedEdges = pages.size() >= minPages ? findRepeatedEdgeLines(pageLines) : Set.of();
+        List<Set<Integer>> lowercaseNumerals = findLowercaseNumerals(pageLines);
+
+        List<String> normalized = new ArrayList<>(pages.size());
+        for (int p = 0; p < pageLines.size(); p++) {
+            String[] lines = pageLines.get(p);
+            Set<Integer> edges = edgeLineIndexes(lines);
+            StringBuilder page = new StringBuilder();
+            for (int i = 0; i < lines.length; i++) {
+                String line = HORIZONTAL_WHITESPACE.matcher(lines[i]).replaceAll(" ").strip();
+                boolean edge = edges.contains(i);
+                if (edge && (repeatedEdges.contains(edgeKey(line)) || isPageNumber(line, p, lowercaseNumerals))) {
+                    continue;
+                }
+                if (BOILERPLATE.matcher(line).matches()) {
+                    continue;
+                }
+                page.append(line).append('\n');
+            }
+            normalized.add(collapse(page));
+        }
+        return normalized;
+    }
+
+    /**
+     * Normalizes a single paragraph from a format without pages, returning an empty string
+     * when the whole paragraph is boilerplate.
+     */
+    public String normalizeParagraph(String paragraph) {
+        if (!enabled || paragraph == null) {
+            return paragraph;
+        }
+        String line = HORIZONTAL_WHITESPACE.matcher(paragraph).replaceAll(" ").strip();
+        if (BOILERPLATE.matcher(line).matches()) {
+            return "";
+        }
+        return collapse(new StringBuilder(line));
+    }
+
+    public static long estimateTokens(long characters) {
+        return (characters + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+    }
+
+    public static long countWords(String text) {
+        long words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean whitespace = Character.isWhitespace(text.charAt(i));
+            if (!whitespace && !inWord) {
+                words++;
+            }
+            inWord = !whitespace;
+        }
+        return words;
+    }
+
+    private String collapse(StringBuilder text) {
+        String dehyphenated = HYPHENATED_LINE_BREAK.matcher(text).replaceAll("$1$2");
+        return BLANK_LINE_RUN.matcher(dehyphenated).replaceAll("\n\n").strip();
+    }
+
+    /**
+     * A line is a running header or footer when it sits within the first or last edge-lines
+     * non-blank lines of a page and the same line, ignoring digits, does so on at least
+     * repeat-threshold of all pages.
+     */
+    private Set<String> findRepeatedEdgeLines(List<String[]> pageLines) {
+        Map<String, Integer> pagesPerLine = new HashMap<>();
+        for (String[] lines : pageLines) {
+            Set<String> seenOnPage = new HashSet<>();
+            for (int index : edgeLineIndexes(lines)) {
+                String key = edgeKey(HORIZONTAL_WHITESPACE.matcher(lines[index]).replaceAll(" ").strip());
+                if (!key.isEmpty() && seenOnPage.add(key)) {
+                    pagesPerLine.merge(key, 1, Integer::sum);
+                }
+            }
+        }
+
+        int minimumPages = Math.max(2, (int) Math.ceil(pageLines.size() * repeatThreshold));
+        Set<String> repeated = new HashSet<>();
+        pagesPerLine.forEach((key, count) -> {
+            if (count >= minimumPages) {
+                repeated.add(key);
+            }
+        });
+        return repeated;
+    }
+
+    /**
+     * Arabic page numbers are always taken as such. A Roman numeral is taken when it is written in
+     * capitals or follows "page", a lowercase one only when a neighbouring page carries the numeral
+     * before or after it, as front matter is numbered, so edge lines like "mix" or "did" are kept.
+     */
+    private static boolean isPageNumber(String line, int page, List<Set<Integer>> lowercaseNumerals) {
+        if (PAGE_NUMBER.matcher(line).matches()) {
+            return true;
+        }
+        Matcher roman = ROMAN_PAGE_NUMBER.matcher(line);
+        if (!roman.matches()) {
+            return false;
+        }
+        String numeral = roman.group(2);
+        if (roman.group(1) != null || !numeral.equals(numeral.toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        int value = romanValue(numeral);
+        return (page > 0 && lowercaseNumerals.get(page - 1).contains(value - 1))
+                || (page + 1 < lowercaseNumerals.size() && lowercaseNumerals.get(page + 1).contains(value + 1));
+    }
+
+    /**
+     * Collects the values of the bare lowercase Roman numerals among the edge lines of every page.
+     */
+    private List<Set<Integer>> findLowercaseNumerals(List<String[]> pageLines) {
+        List<Set<Integer>> numerals = new ArrayList<>(pageLines.size());
+        for (String[] lines : pageLines) {
+            Set<Integer> values = new HashSet<>();
+            for (int index : edgeLineIndexes(lines)) {
+                Matcher roman = ROMAN_PAGE_NUMBER.matcher(lines[index].strip());
+                if (roman.matches() && roman.group(1) == null
+                        && roman.group(2).equals(roman.group(2).toLowerCase(Locale.ROOT))) {
+                    values.add(romanValue(roman.group(2)));
+                }
+            }
+            numerals.add(values);
+        }
+        return numerals;
+    }
+
+    private static int romanValue(String numeral) {
+        int value = 0;
+        for (int i = 0; i < numeral.length(); i++) {
+            int digit = romanDigit(numeral.charAt(i));
+            int next = i + 1 < numeral.length() ? romanDigit(numeral.charAt(i + 1)) : 0;
+            value += digit < next ? -digit : digit;
+        }
+        return value;
+    }
+
+    private static int romanDigit(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'i' -> 1;
+            case 'v' -> 5;
+            case 'x' -> 10;
+            case 'l' -> 50;
+            case 'c' -> 100;
+            case 'd' -> 500;
+            case 'm' -> 1000;
+            default -> 0;
+        };
+    }
+
+    private Set<Integer> edgeLineIndexes(String[] lines) {
+        List<Integer> nonBlank = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].isBlank()) {
+                nonBlank.add(i);
+            }
+        }
+        Set<Integer> edges = new HashSet<>();
+        for (int i = 0; i < nonBlank.size() && i < edgeLines; i++) {
+            edges.add(nonBlank.get(i));
+            edges.add(nonBlank.get(nonBlank.size() - 1 - i));
+        }
+        return edges;
+    }
+
+    private static String edgeKey(String line) {
+        return DIGITS.matcher(line).replaceAll("#").toLowerCase(Locale.ROOT);
+    }
+}
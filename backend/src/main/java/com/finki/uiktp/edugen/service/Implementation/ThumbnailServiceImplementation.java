@@ -0,0 +1,211 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.ServiceBusyException;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.service.ThumbnailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the first page of PDFs as PNG thumbnails into a size-bounded on-disk LRU cache.
+ * The default width is rendered in the background when a document is ingested, other widths
+ * on first request. Requested widths are snapped to a few standard sizes to keep the cache small,
+ * and a global render limit keeps rendering from tying up request threads.
+ */
+@Service
+public class ThumbnailServiceImplementation implements ThumbnailService {
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailServiceImplementation.class);
+
+    private static final int[] WIDTHS = {100, 200, 400, 800};
+
+    private final DocumentTextExtractor documentTextExtractor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.thumbnail.cache-dir:thumbnails}")
+    private String cacheDir;
+
+    @Value("${app.thumbnail.max-cache-mb:256}")
+    private long maxCacheMb;
+
+    @Value("${app.thumbnail.default-width:200}")
+    private int defaultWidth;
+
+    @Value("${app.thumbnail.max-concurrent-renders:2}")
+    private int maxConcurrentRenders;
+
+    @Value("${app.thumbnail.render-timeout-ms:2000}")
+    private long renderTimeoutMs;
+
+    @Value("${app.thumbnail.queue-capacity:100}")
+    private int queueCapacity;
+
+    private DiskLruCache cache;
+    private Semaphore renderPermits;
+    private ThreadPoolExecutor backgroundRenderer;
+
+    public ThumbnailServiceImplementation(DocumentTextExtractor documentTextExtractor, MeterRegistry meterRegistry) {
+        this.documentTextExtractor = documentTextExtractor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        cache = new DiskLruCache(Paths.get(cacheDir), maxCacheMb * 1024 * 1024);
+        renderPermits = new Semaphore(maxConcurrentRenders);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        backgroundRenderer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "thumbnail-renderer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        meterRegistry.gauge("edugen.thumbnail.cache.size", cache, DiskLruCache::size);
+        meterRegistry.gauge("edugen.thumbnail.queue", backgroundRenderer, executor -> executor.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backgroundRenderer.shutdownNow();
+    }
+
+    @Override
+    public void scheduleRender(Document document) {
+        if (document.getFormat() != DocumentFormat.PDF) {
+            return;
+        }
+        int width = snapWidth(defaultWidth);
+        try {
+            backgroundRenderer.execute(() -> {
+                try {
+                    renderPermits.acquire();
+                    try {
+                        if (cache.get(key(document.getId(), width)) == null) {
+                            render(document, width);
+                        }
+                    } finally {
+                        renderPermits.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Failed to render thumbnail for document ID: {}: {}", document.getId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Rendered on first request instead
+            meterRegistry.counter("edugen.thumbnail.rejected").increment();
+        }
+    }
+
+    /**
+     * The cached file is opened under the cache lock, so a concurrent put evicting it cannot break the response.
+     *
+     * @return a stream of the cached thumbnail, rendered now if missing, or empty for formats without thumbnails
+     * @throws ServiceBusyException when the render limit is reached and no permit frees up in time
+     */
+    @Override
+    public Optional<InputStream> getThumbnail(Document document, int width) throws IOException {
+        if (document.getFormat() != DocumentFormat.PDF) {
+            return Optional.empty();
+        }
+
+        int snappedWidth = snapWidth(width);
+        InputStream cached = cache.open(key(document.getId(), snappedWidth));
+        if (cached != null) {
+            meterRegistry.counter("edugen.thumbnail.requests", "result", "hit").increment();
+            return Optional.of(cached);
+        }
+        meterRegistry.counter("edugen.thumbnail.requests", "result", "miss").increment();
+
+        try {
+            if (!renderPermits.tryAcquire(renderTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ServiceBusyException("Too many thumbnails are being rendered, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting to render a thumbnail");
+        }
+        try {
+            // Another request may have rendered it while this one waited
+            cached = cache.open(key(document.getId(), snappedWidth));
+            return Optional.of(cached != null ? cached : new ByteArrayInputStream(render(document, snappedWidth)));
+        } finally {
+            renderPermits.release();
+        }
+    }
+
+    @Override
+    public void evict(Long documentId) {
+        cache.removeByPrefix(documentId + "-");
+    }
+
+    /**
+     * @return the rendered PNG, served from memory since the cached copy may be evicted right after the put
+     */
+    private byte[] render(Document document, int width) throws IOException {
+        Path filePath = Paths.get(document.getFilePath());
+        if (!Files.exists(filePath)) {
+            throw new IOException("File not found: " + document.getFilePath());
+        }
+
+        long started = System.nanoTime();
+        BufferedImage image;
+        try (PDDocument pdf = documentTextExtractor.loadPdf(filePath)) {
+            if (pdf.getNumberOfPages() == 0) {
+                throw new IOException("PDF has no pages: " + document.getFilePath());
+            }
+            PDRectangle pageSize = pdf.getPage(0).getCropBox();
+            // One PDF point per pixel at scale 1
+            image = new PDFRenderer(pdf).renderImage(0, width / pageSize.getWidth(), ImageType.RGB);
+        }
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        cache.put(key(document.getId(), width), png::writeTo);
+        meterRegistry.timer("edugen.thumbnail.render").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return png.toByteArray();
+    }
+
+    private static int snapWidth(int width) {
+        for (int standard : WIDTHS) {
+            if (width <= standard) {
+                return standard;
+            }
+        }
+        return WIDTHS[WIDTHS.length - 1];
+    }
+
+    private static String key(Long documentId, int width) {
+        return documentId + "-" + width + ".png";
+    }
+}
@@ -0,0 +1,194 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.RevokedToken;
+import com.finki.uiktp.edugen.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ids (jti) of revoked tokens that have not expired yet. Every request checks a bloom filter first,
+ * which answers "not revoked" for nearly all tokens without touching the exact map; only filter hits
+ * are confirmed against the map. Both lookups are O(1) and allocate nothing.
+ * <p>
+ * Revocations are stored in the revoked_token table, loaded on startup and polled from it,
+ * so they survive restarts and reach every node within the sync interval. Entries are dropped
+ * once the token would have expired anyway, and the filter is rebuilt from the remaining ones.
+ */
+@Service
+public class TokenDenylist {
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+
+    private static final int HASHES = 7;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Counter rejected;
+
+    /**
+     * Revoked jti to the epoch millis the token expires at.
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray filter;
+    private int filterBits;
+
+    private LocalDateTime lastSync;
+
+    @Value("${app.auth.denylist.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${app.auth.denylist.sync-overlap-seconds:60}")
+    private long syncOverlapSeconds;
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.rejected = meterRegistry.counter("edugen.auth.denylist.rejected");
+        meterRegistry.gauge("edugen.auth.denylist.size", revoked, Map::size);
+    }
+
+    @PostConstruct
+    public void init() {
+        // About 9.6 bits per entry give a 1% false positive rate with 7 hashes
+        filterBits = Math.max(1024, expectedEntries * 10);
+        lastSync = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(lastSync)) {
+            revoked.put(token.getJti(), toEpochMillis(token.getExpiresAt()));
+        }
+        rebuildFilter();
+        logger.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !mightContain(filter, jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null || expiresAt < System.currentTimeMillis()) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    /**
+     * Revokes the token on this node right away and on the others with their next sync.
+     */
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        if (jti == null || expiresAt.isBefore(Instant.now())) {
+            return;
+        }
+        LocalDateTime expires = LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault());
+        if (!revokedTokenRepository.existsById(jti)) {
+            revokedTokenRepository.save(new RevokedToken(jti, userId, expires));
+        }
+        add(jti, expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Picks up revocations made on other nodes. The window overlaps the previous one,
+     * so rows committed late or stamped by a node with a slightly different clock are not missed.
+     */
+    @Scheduled(initialDelayString = "${app.auth.denylist.sync-interval-ms:5000}",
+            fixedDelayString = "${app.auth.denylist.sync-interval-ms:5000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                    lastSync.minusSeconds(syncOverlapSeconds), now)) {
+                if (!revoked.containsKey(token.getJti())) {
+                    add(token.getJti(), toEpochMillis(token.getExpiresAt()));
+                }
+            }
+            lastSync = now;
+        } catch (DataAccessException e) {
+            logger.warn("Failed to sync revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drops expired entries here and in the table, then rebuilds the filter without them.
+     */
+    @Scheduled(fixedDelayString = "${app.auth.denylist.purge-interval-ms:3600000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+        rebuildFilter();
+
+        try {
+            revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        } catch (DataAccessException e) {
+            logger.warn("Failed to delete expired revoked tokens: {}", e.getMessage());
+        }
+        logger.debug("Purged {} expired revoked tokens", before - revoked.size());
+    }
+
+    private synchronized void add(String jti, long expiresAt) {
+        AtomicLongArray bits = filter;
+        int h1 = jti.hashCode();
+        int h2 = secondHash(jti);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, filterBits);
+            bits.getAndUpdate(bit >>> 6, word -> word | (1L << bit));
+        }
+        // After the bits, so a reader that finds the entry also passes the filter
+        revoked.put(jti, expiresAt);
+    }
+
+    /**
+     * Builds a filter from the map and swaps it in. Runs under the same lock as add,
+     * so no revocation can slip in between building and swapping.
+     */
+    private synchronized void rebuildFilter() {
+        AtomicLongArray bits = new AtomicLongArray((filterBits + 63) >>> 6);
+        for (String jti : revoked.keySet()) {
+            int h1 = jti.hashCode();
+            int h2 = secondHash(jti);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, filterBits);
+                bits.set(bit >>> 6, bits.get(bit >>> 6) | (1L << bit));
+            }
+        }
+        filter = bits;
+    }
+
+    private boolean mightContain(AtomicLongArray bits, String jti) {
+        int h1 = jti.hashCode();
+        int h2 = secondHash(jti);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, filterBits);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the characters, independent of String.hashCode, forced odd so the probes never repeat.
+     */
+    private static int secondHash(String value) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x01000193;
+        }
+        return hash | 1;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,241 @@
+package com.finki.uiktp.edugen.service.Implementation;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.UploadConflictException;
+import com.finki.uiktp.edugen.model.Exceptions.UploadSessionNotFoundException;
+import com.finki.uiktp.edugen.model.Exceptions.UserNotFoundException;
+import com.finki.uiktp.edugen.model.UploadSession;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.repository.UploadSessionRepository;
+import com.finki.uiktp.edugen.repository.UserRepository;
+import com.finki.uiktp.edugen.service.DocumentService;
+import com.finki.uiktp.edugen.service.UploadService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads: a session is initiated with the final size, chunks are appended at the
+ * offset the server reports, and completing the session turns the partial file into a document.
+ * Chunks are streamed from the request straight into the partial file, so memory use does not
+ * depend on chunk or file size.
+ */
+@Service
+public class UploadServiceImplementation implements UploadService {
+    private static final Logger logger = LoggerFactory.getLogger(UploadServiceImplementation.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UserRepository userRepository;
+    private final DocumentService documentService;
+
+    /**
+     * Sessions with a chunk write or completion in progress on this node.
+     */
+    private final Set<String> busySessions = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.upload.temp-dir:uploads/.partial}")
+    private String tempDir;
+
+    @Value("${app.upload.session-expiry-hours:24}")
+    private long sessionExpiryHours;
+
+    public UploadServiceImplementation(UploadSessionRepository uploadSessionRepository, UserRepository userRepository,
+                                       DocumentService documentService) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.userRepository = userRepository;
+        this.documentService = documentService;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(Paths.get(tempDir));
+    }
+
+    @Override
+    public UploadSession initiate(Long userId, String title, String language, DocumentType type,
+                                  String originalFilename, long totalSize) throws IOException {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+
+        DocumentFormat format = documentService.validateUpload(title, originalFilename, totalSize);
+
+        String id = UUID.randomUUID().toString();
+        Path partial = Files.createFile(Paths.get(tempDir, id + ".part"));
+
+        UploadSession session = new UploadSession(id, user, title, language, type, format,
+                baseName(originalFilename), totalSize, partial.toString());
+        return uploadSessionRepository.save(session);
+    }
+
+    @Override
+    public UploadSession getSession(String id, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+
+        return uploadSessionRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new UploadSessionNotFoundException(id));
+    }
+
+    @Override
+    public UploadSession appendChunk(String id, Long userId, long offset, InputStream content) throws IOException {
+        UploadSession session = lock(id, userId);
+        try {
+            if (offset != session.getReceivedBytes()) {
+                throw new UploadConflictException(String.format("Chunk offset %d does not match the %d bytes received",
+                        offset, session.getReceivedBytes()), session.getReceivedBytes());
+            }
+
+            Path partial = Paths.get(session.getTempPath());
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                if (channel.size() < offset) {
+                    // Acknowledged bytes were lost (e.g. the node crashed before flushing them), the client has to rewind
+                    throw new UploadConflictException("Part of the upload was lost, resume from the reported offset",
+                            channel.size());
+                }
+                // Bytes of an interrupted chunk may have reached the disk without being acknowledged
+                channel.truncate(offset);
+                channel.position(offset);
+                copy(Channels.newChannel(content), channel, session.getTotalSize() - offset);
+            } finally {
+                // Whatever reached the disk before a dropped connection counts, the client resumes right after it
+                session.setReceivedBytes(Files.size(partial));
+                session.setUpdatedAt(LocalDateTime.now());
+                uploadSessionRepository.save(session);
+            }
+            return session;
+        } finally {
+            busySessions.remove(id);
+        }
+    }
+
+    @Override
+    public Document complete(String id, Long userId) throws IOException {
+        UploadSession session = lock(id, userId);
+        try {
+            if (session.getReceivedBytes() != session.getTotalSize()) {
+                throw new UploadConflictException(String.format("Upload is incomplete, %d of %d bytes received",
+                        session.getReceivedBytes(), session.getTotalSize()), session.getReceivedBytes());
+            }
+
+            Document document = documentService.uploadDocument(userId, session.getTitle(), session.getLanguage(),
+                    session.getType(), session.getOriginalFilename(), Paths.get(session.getTempPath()));
+            uploadSessionRepository.delete(session);
+            logger.info("Completed upload {} as document ID: {} ({} bytes)", id, document.getId(), session.getTotalSize());
+            return document;
+        } finally {
+            busySessions.remove(id);
+        }
+    }
+
+    @Override
+    public void abort(String id, Long userId) throws IOException {
+        UploadSession session = lock(id, userId);
+        try {
+            Files.deleteIfExists(Paths.get(session.getTempPath()));
+            uploadSessionRepository.delete(session);
+        } finally {
+            busySessions.remove(id);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.upload.cleanup-interval-ms:3600000}")
+    public void deleteExpiredSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(sessionExpiryHours);
+        List<UploadSession> expired = uploadSessionRepository.findByUpdatedAtBefore(cutoff);
+
+        int deleted = 0;
+        for (UploadSession session : expired) {
+            if (!busySessions.add(session.getId())) {
+                continue;
+            }
+            try {
+                // A chunk may have arrived between the query and the lock
+                Optional<UploadSession> current = uploadSessionRepository.findById(session.getId());
+                if (current.isPresent() && current.get().getUpdatedAt().isBefore(cutoff)) {
+                    Files.deleteIfExists(Paths.get(session.getTempPath()));
+                    uploadSessionRepository.delete(current.get());
+                    deleted++;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to delete expired upload {}: {}", session.getId(), e.getMessage());
+            } finally {
+                busySessions.remove(session.getId());
+            }
+        }
+
+        if (deleted > 0) {
+            logger.info("Deleted {} expired upload sessions", deleted);
+        }
+    }
+
+    /**
+     * Browsers may send the client-side path, only the last segment is kept.
+     */
+    private static String baseName(String filename) {
+        return filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1);
+    }
+
+    /**
+     * Takes the session for this request and reads it only then, so the offset checked and truncated to
+     * includes every chunk written by the request that held it before.
+     */
+    private UploadSession lock(String id, Long userId) {
+        if (!busySessions.add(id)) {
+            // Looked up first, so other users get a 404 rather than learning the upload exists
+            UploadSession session = getSession(id, userId);
+            throw new UploadConflictException("Another request is already writing to this upload",
+                    session.getReceivedBytes());
+        }
+        try {
+            return getSession(id, userId);
+        } catch (RuntimeException e) {
+            busySessions.remove(id);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the request body into the partial file, refusing to write past the declared upload size.
+     */
+    private static void copy(ReadableByteChannel source, FileChannel target, long remaining) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long written = 0;
+        int read;
+        while ((read = source.read(buffer)) != -1) {
+            if (written + read > remaining) {
+                throw new IllegalArgumentException("Chunk exceeds the declared upload size");
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            buffer.clear();
+            written += read;
+        }
+    }
+}
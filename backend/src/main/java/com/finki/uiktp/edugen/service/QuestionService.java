@@ -1,6 +1,9 @@
 package com.finki.uiktp.edugen.service;
 
 import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.dto.BulkQuestionUpdateRequest;
+import com.finki.uiktp.edugen.model.dto.PageResponse;
+import com.finki.uiktp.edugen.model.dto.QuestionPatchRequest;
 import com.finki.uiktp.edugen.model.enums.QuestionType;
 
 import java.util.List;
@@ -9,14 +12,24 @@ import java.util.Optional;
 public interface QuestionService {
     List<Question> listAll();
 
+    PageResponse<Question> listPage(QuestionType type, String cursor, Integer limit, boolean includeTotal);
+
     Optional<Question> findById(Long id);
 
     Question create(Long documentId, QuestionType type, String text);
 
     Optional<Question> update(Long id, QuestionType type, String text);
 
+    Question patch(Long id, QuestionPatchRequest patch);
+
     Question delete(Long id);
 
+    int deleteAll(List<Long> ids, Long userId);
+
+    int deleteByDocumentId(Long documentId);
+
+    int bulkUpdate(BulkQuestionUpdateRequest request, Long userId);
+
     List<Question> findByDocumentId(Long documentId);
 
     List<Question> findByType(QuestionType type);
@@ -0,0 +1,15 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+public interface ThumbnailService {
+    void scheduleRender(Document document);
+
+    Optional<InputStream> getThumbnail(Document document, int width) throws IOException;
+
+    void evict(Long documentId);
+}
@@ -0,0 +1,23 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.UploadSession;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UploadService {
+    UploadSession initiate(Long userId, String title, String language, DocumentType type,
+                           String originalFilename, long totalSize) throws IOException;
+
+    UploadSession getSession(String id, Long userId);
+
+    UploadSession appendChunk(String id, Long userId, long offset, InputStream content) throws IOException;
+
+    Document complete(String id, Long userId) throws IOException;
+
+    void abort(String id, Long userId) throws IOException;
+
+    void deleteExpiredSessions();
+}
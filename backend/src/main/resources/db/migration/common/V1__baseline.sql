@@ -0,0 +1,92 @@
+-- Schema as it was created by Hibernate (ddl-auto=update) before migrations were introduced.
+-- Existing databases are baselined at version 0 and also run this, so every statement is idempotent.
+
+CREATE TABLE IF NOT EXISTS app_user (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username      VARCHAR(255) NOT NULL,
+    date_of_birth DATE,
+    email         VARCHAR(255) NOT NULL UNIQUE,
+    phone_number  VARCHAR(255),
+    password      VARCHAR(255) NOT NULL,
+    role          VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS document (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title                  VARCHAR(255) NOT NULL,
+    type                   VARCHAR(255),
+    format                 VARCHAR(255),
+    language               VARCHAR(255) NOT NULL,
+    uploaded_date          TIMESTAMP(6) NOT NULL,
+    file_path              VARCHAR(255),
+    file_size              BIGINT,
+    page_count             INTEGER,
+    character_count        BIGINT,
+    word_count             BIGINT,
+    estimated_tokens       BIGINT,
+    extraction_duration_ms BIGINT,
+    content_hash           VARCHAR(64),
+    user_id                BIGINT NOT NULL,
+    CONSTRAINT fk_document_user FOREIGN KEY (user_id) REFERENCES app_user (id)
+);
+
+-- Statistics columns were added last, databases last updated before them lack them
+ALTER TABLE document ADD COLUMN IF NOT EXISTS file_size BIGINT;
+ALTER TABLE document ADD COLUMN IF NOT EXISTS page_count INTEGER;
+ALTER TABLE document ADD COLUMN IF NOT EXISTS character_count BIGINT;
+ALTER TABLE document ADD COLUMN IF NOT EXISTS word_count BIGINT;
+ALTER TABLE document ADD COLUMN IF NOT EXISTS estimated_tokens BIGINT;
+ALTER TABLE document ADD COLUMN IF NOT EXISTS extraction_duration_ms BIGINT;
+ALTER TABLE document ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE TABLE IF NOT EXISTS question (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    text        VARCHAR(1000) NOT NULL,
+    type        VARCHAR(255),
+    CONSTRAINT fk_question_document FOREIGN KEY (document_id) REFERENCES document (id)
+);
+
+CREATE TABLE IF NOT EXISTS answer (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    question_id BIGINT NOT NULL,
+    text        VARCHAR(255) NOT NULL,
+    is_correct  BOOLEAN NOT NULL,
+    CONSTRAINT fk_answer_question FOREIGN KEY (question_id) REFERENCES question (id)
+);
+
+CREATE TABLE IF NOT EXISTS document_chunk (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    document_id     BIGINT NOT NULL,
+    chunk_index     INTEGER NOT NULL,
+    page_number     INTEGER,
+    section_title   VARCHAR(500),
+    paragraph_index INTEGER NOT NULL,
+    paragraph_count INTEGER NOT NULL,
+    start_offset    INTEGER NOT NULL,
+    end_offset      INTEGER NOT NULL,
+    content         TEXT NOT NULL,
+    CONSTRAINT fk_document_chunk_document FOREIGN KEY (document_id) REFERENCES document (id)
+);
+
+CREATE TABLE IF NOT EXISTS upload_session (
+    id                VARCHAR(36) PRIMARY KEY,
+    user_id           BIGINT NOT NULL,
+    title             VARCHAR(255) NOT NULL,
+    language          VARCHAR(255) NOT NULL,
+    type              VARCHAR(255),
+    format            VARCHAR(255),
+    original_filename VARCHAR(255) NOT NULL,
+    total_size        BIGINT NOT NULL,
+    received_bytes    BIGINT NOT NULL,
+    temp_path         VARCHAR(255) NOT NULL,
+    created_at        TIMESTAMP(6) NOT NULL,
+    updated_at        TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_upload_session_user FOREIGN KEY (user_id) REFERENCES app_user (id)
+);
+
+CREATE TABLE IF NOT EXISTS test_entities (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(255)
+);
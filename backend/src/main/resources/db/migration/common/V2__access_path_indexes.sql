@@ -0,0 +1,21 @@
+-- Indexes for the access paths of the repository queries. Databases that were managed by
+-- ddl-auto=update may already have the ones declared on the entities, hence IF NOT EXISTS.
+
+-- Questions of a document and keyset pages by type, both ordered by id
+CREATE INDEX IF NOT EXISTS idx_question_document_id ON question (document_id, id);
+CREATE INDEX IF NOT EXISTS idx_question_type_id ON question (type, id);
+
+-- Answers of a question, used by every question fetch
+CREATE INDEX IF NOT EXISTS idx_answer_question_id ON answer (question_id);
+
+-- Document list and keyset pages of a user, newest first
+CREATE INDEX IF NOT EXISTS idx_document_user_uploaded_date ON document (user_id, uploaded_date, id);
+
+-- Chunks of a document in order, and cascading document deletes
+CREATE INDEX IF NOT EXISTS idx_document_chunk_document_index ON document_chunk (document_id, chunk_index);
+
+-- Expired upload cleanup and cascading user deletes
+CREATE INDEX IF NOT EXISTS idx_upload_session_updated_at ON upload_session (updated_at);
+CREATE INDEX IF NOT EXISTS idx_upload_session_user_id ON upload_session (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_app_user_username ON app_user (username);
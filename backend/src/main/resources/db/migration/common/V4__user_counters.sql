@@ -0,0 +1,28 @@
+-- Per-user counters behind the dashboard, adjusted by the application on every create, delete and type change.
+-- The document and question counters start from the current rows, generation usage starts at zero.
+
+CREATE TABLE IF NOT EXISTS user_counter (
+    user_id BIGINT      NOT NULL,
+    name    VARCHAR(64) NOT NULL,
+    amount  BIGINT      NOT NULL,
+    PRIMARY KEY (user_id, name),
+    CONSTRAINT fk_user_counter_user FOREIGN KEY (user_id) REFERENCES app_user (id) ON DELETE CASCADE
+);
+
+INSERT INTO user_counter (user_id, name, amount)
+SELECT user_id, 'documents', COUNT(*) FROM document GROUP BY user_id;
+
+INSERT INTO user_counter (user_id, name, amount)
+SELECT user_id, 'documents.type.' || type, COUNT(*) FROM document WHERE type IS NOT NULL GROUP BY user_id, type;
+
+INSERT INTO user_counter (user_id, name, amount)
+SELECT user_id, 'documents.format.' || format, COUNT(*) FROM document WHERE format IS NOT NULL GROUP BY user_id, format;
+
+INSERT INTO user_counter (user_id, name, amount)
+SELECT d.user_id, 'questions', COUNT(*) FROM question q JOIN document d ON d.id = q.document_id GROUP BY d.user_id;
+
+INSERT INTO user_counter (user_id, name, amount)
+SELECT d.user_id, 'questions.type.' || q.type, COUNT(*)
+FROM question q JOIN document d ON d.id = q.document_id
+WHERE q.type IS NOT NULL
+GROUP BY d.user_id, q.type;
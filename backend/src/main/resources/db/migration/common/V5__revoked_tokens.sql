@@ -0,0 +1,11 @@
+-- Tokens revoked before their expiry, rows are deleted once the token has expired
+
+CREATE TABLE IF NOT EXISTS revoked_token (
+    jti        VARCHAR(36)  PRIMARY KEY,
+    user_id    BIGINT,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_token_revoked_at ON revoked_token (revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_token_expires_at ON revoked_token (expires_at);
@@ -0,0 +1,5 @@
+-- Optimistic lock versions of questions and answers. Every change raises a version, so the versions of a
+-- question set (with its counts) identify one state of it, which is what cached exports are keyed by.
+
+ALTER TABLE question ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE answer ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- Marks documents whose chunks are stored, so a document that yields no text is not extracted again
+-- on every content request. Documents that already have chunks were indexed before the marker existed.
+
+ALTER TABLE document ADD COLUMN IF NOT EXISTS indexed_at TIMESTAMP(6);
+
+UPDATE document SET indexed_at = uploaded_date
+WHERE indexed_at IS NULL AND EXISTS (SELECT 1 FROM document_chunk c WHERE c.document_id = document.id);
+
+-- Concurrent first requests could both store the chunks of a document, keep the first copy of each
+DELETE FROM document_chunk
+WHERE EXISTS (SELECT 1 FROM document_chunk other
+              WHERE other.document_id = document_chunk.document_id
+                AND other.chunk_index = document_chunk.chunk_index
+                AND other.id < document_chunk.id);
+
+DROP INDEX IF EXISTS idx_document_chunk_document_index;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_document_chunk_document_index ON document_chunk (document_id, chunk_index);
@@ -0,0 +1,5 @@
+-- H2 is only used for tests and always starts empty, see the PostgreSQL version of this migration.
+
+CREATE SEQUENCE IF NOT EXISTS question_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS answer_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS document_chunk_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,16 @@
+-- Questions, answers and chunks are inserted in bulk. Identity columns make Hibernate insert
+-- them one row at a time, sequences with an increment of 50 let it batch the inserts and
+-- allocate 50 ids per round trip. Each sequence starts past the ids already in use.
+
+ALTER TABLE question ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE answer ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE document_chunk ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS question_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS answer_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS document_chunk_seq INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer treats the value it fetches as the upper end of its block
+SELECT setval('question_seq', COALESCE((SELECT MAX(id) FROM question), 0) + 50, false);
+SELECT setval('answer_seq', COALESCE((SELECT MAX(id) FROM answer), 0) + 50, false);
+SELECT setval('document_chunk_seq', COALESCE((SELECT MAX(id) FROM document_chunk), 0) + 50, false);
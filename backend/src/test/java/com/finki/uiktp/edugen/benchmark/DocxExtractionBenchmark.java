@@ -0,0 +1,133 @@
+package com.finki.uiktp.edugen.benchmark;
+
+import com.finki.uiktp.edugen.service.Implementation.DocxStreamingExtractor;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of reading the text of a synthetic DOCX with {@code paragraphs}
+ * paragraphs, a table every hundred paragraphs and {@code images} embedded 512 KB images.
+ * "streaming" is DocxStreamingExtractor, "xwpf" the XWPFWordExtractor it replaced, which builds
+ * the whole POI document model. The GC profiler reports the bytes allocated per extraction
+ * ({@code gc.alloc.rate.norm}), the figure that decides how many extractions fit in the heap.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.finki.uiktp.edugen.benchmark.DocxExtractionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocxExtractionBenchmark {
+
+    private static final int IMAGE_BYTES = 512 * 1024;
+    private static final String SENTENCE = "Mitosis produces two daughter cells with the same number of chromosomes as the parent. ";
+
+    @Param({"2000", "20000"})
+    public int paragraphs;
+
+    @Param({"0", "20"})
+    public int images;
+
+    private Path file;
+    private DocxStreamingExtractor streamingExtractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InvalidFormatException {
+        file = Files.createTempFile("docx-extraction-benchmark", ".docx");
+        writeSyntheticDocx(file, paragraphs, images);
+        streamingExtractor = new DocxStreamingExtractor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long streaming() throws IOException {
+        long[] characters = new long[1];
+        streamingExtractor.extract(file, (text, heading) -> characters[0] += text.length());
+        return characters[0];
+    }
+
+    @Benchmark
+    public long xwpf() throws IOException, InvalidFormatException {
+        try (XWPFWordExtractor extractor = new XWPFWordExtractor(
+                new XWPFDocument(OPCPackage.open(file.toFile(), PackageAccess.READ)))) {
+            return extractor.getText().length();
+        }
+    }
+
+    private static void writeSyntheticDocx(Path target, int paragraphCount, int imageCount)
+            throws IOException, InvalidFormatException {
+        Random random = new Random(42);
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(target)) {
+            for (int i = 0; i < paragraphCount; i++) {
+                XWPFParagraph paragraph = document.createParagraph();
+                if (i % 50 == 0) {
+                    paragraph.setStyle("Heading1");
+                    paragraph.createRun().setText("Section " + (i / 50 + 1));
+                } else {
+                    paragraph.createRun().setText(SENTENCE.repeat(1 + i % 4).strip());
+                }
+
+                if (i % 100 == 99) {
+                    XWPFTable table = document.createTable(3, 3);
+                    table.getRow(0).getCell(0).setText("Phase");
+                    table.getRow(1).getCell(0).setText("Prophase");
+                    table.getRow(2).getCell(0).setText("Metaphase");
+                }
+
+                if (imageCount > 0 && i % Math.max(1, paragraphCount / imageCount) == 0
+                        && i / Math.max(1, paragraphCount / imageCount) < imageCount) {
+                    byte[] image = new byte[IMAGE_BYTES];
+                    random.nextBytes(image);
+                    paragraph.createRun().addPicture(new ByteArrayInputStream(image), Document.PICTURE_TYPE_PNG,
+                            "figure-" + i + ".png", 914400, 914400);
+                }
+            }
+            document.write(out);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DocxExtractionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
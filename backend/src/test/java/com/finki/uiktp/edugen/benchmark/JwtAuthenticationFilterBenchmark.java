@@ -0,0 +1,131 @@
+package com.finki.uiktp.edugen.benchmark;
+
+import com.finki.uiktp.edugen.config.JwtAuthenticationFilter;
+import com.finki.uiktp.edugen.config.JwtUtil;
+import com.finki.uiktp.edugen.config.UserDetailsServiceImpl;
+import com.finki.uiktp.edugen.config.UserPrincipal;
+import com.finki.uiktp.edugen.repository.RevokedTokenRepository;
+import com.finki.uiktp.edugen.service.Implementation.TokenDenylist;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of authenticating a request with a bearer token. "filter" runs the real filter,
+ * "legacyValidation" the previous validation path: a new key and parser for every claim read
+ * and three parses per request. The legacy user lookup is stubbed, the filter rebuilds the
+ * principal from the token's claims and checks the revocation denylist.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.finki.uiktp.edugen.benchmark.JwtAuthenticationFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final String EMAIL = "teacher@example.com";
+
+    private JwtAuthenticationFilter filter;
+    private UserDetailsServiceImpl userDetailsService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", TimeUnit.HOURS.toMillis(1));
+        jwtUtil.init();
+
+        UserPrincipal principal = new UserPrincipal(1L, EMAIL, "", List.of(new SimpleGrantedAuthority("ROLE_TEACHER")));
+        userDetailsService = new UserDetailsServiceImpl(null, new SimpleMeterRegistry()) {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return principal;
+            }
+        };
+
+        TokenDenylist tokenDenylist = new TokenDenylist(Mockito.mock(RevokedTokenRepository.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenDenylist, "expectedEntries", 100_000);
+        tokenDenylist.init();
+
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenDenylist);
+        token = jwtUtil.generateToken(principal);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object filter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public boolean legacyValidation() {
+        String username = legacyClaims(token).getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return legacyClaims(token).getSubject().equals(userDetails.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
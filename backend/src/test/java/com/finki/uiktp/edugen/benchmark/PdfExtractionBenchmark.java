@@ -0,0 +1,154 @@
+package com.finki.uiktp.edugen.benchmark;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.dto.ExtractedContent;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.service.Implementation.DocumentTextExtractor;
+import com.finki.uiktp.edugen.service.Implementation.DocxStreamingExtractor;
+import com.finki.uiktp.edugen.service.Implementation.TextNormalizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to extract a synthetic PDF of {@code pages} text-only pages. "parallel" splits the
+ * document into page segments on the extraction pool, "serial" strips every page with a single
+ * PDDocument and stripper. Both run the normalization stage and hash the file, so the gap is the
+ * page-stripping speed-up alone.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.finki.uiktp.edugen.benchmark.PdfExtractionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    private static final int LINES_PER_PAGE = 45;
+    private static final String LINE = "Photosynthesis converts light energy into chemical energy stored in glucose.";
+
+    @Param({"200", "800"})
+    public int pages;
+
+    private Path workDirectory;
+    private Document document;
+    private DocumentTextExtractor parallelExtractor;
+    private DocumentTextExtractor serialExtractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("pdf-extraction-benchmark");
+        Path pdf = workDirectory.resolve("synthetic.pdf");
+        writeSyntheticPdf(pdf, pages);
+
+        document = new Document();
+        document.setId(1L);
+        document.setFormat(DocumentFormat.PDF);
+        document.setFilePath(pdf.toString());
+
+        parallelExtractor = extractor(true);
+        serialExtractor = extractor(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        parallelExtractor.shutdown();
+        serialExtractor.shutdown();
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ExtractedContent parallel() throws IOException {
+        return parallelExtractor.extractContent(document);
+    }
+
+    @Benchmark
+    public ExtractedContent serial() throws IOException {
+        return serialExtractor.extractContent(document);
+    }
+
+    private DocumentTextExtractor extractor(boolean parallelEnabled) {
+        TextNormalizer textNormalizer = new TextNormalizer();
+        ReflectionTestUtils.setField(textNormalizer, "enabled", true);
+        ReflectionTestUtils.setField(textNormalizer, "edgeLines", 2);
+        ReflectionTestUtils.setField(textNormalizer, "repeatThreshold", 0.5);
+        ReflectionTestUtils.setField(textNormalizer, "minPages", 3);
+
+        DocumentTextExtractor extractor = new DocumentTextExtractor(new SimpleMeterRegistry(),
+                new DocxStreamingExtractor(), textNormalizer);
+        ReflectionTestUtils.setField(extractor, "maxMainMemoryMb", 64L);
+        ReflectionTestUtils.setField(extractor, "tempDir", workDirectory.toString());
+        ReflectionTestUtils.setField(extractor, "largeDocumentThresholdMb", Long.MAX_VALUE / (1024L * 1024L));
+        ReflectionTestUtils.setField(extractor, "maxConcurrentLargeDocuments", 1);
+        ReflectionTestUtils.setField(extractor, "permitTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(extractor, "parallelEnabled", parallelEnabled);
+        ReflectionTestUtils.setField(extractor, "parallelLevel", 0);
+        ReflectionTestUtils.setField(extractor, "parallelMinPages", 64);
+        ReflectionTestUtils.setField(extractor, "minPagesPerSegment", 16);
+        extractor.init();
+        return extractor;
+    }
+
+    private static void writeSyntheticPdf(Path target, int pageCount) throws IOException {
+        try (PDDocument pdf = new PDDocument()) {
+            for (int page = 1; page <= pageCount; page++) {
+                PDPage pdPage = new PDPage();
+                pdf.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(pdf, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    content.showText("Biology handbook");
+                    content.newLine();
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.showText(LINE + " Page " + page + ", line " + line + ".");
+                        content.newLine();
+                    }
+                    content.showText(String.valueOf(page));
+                    content.endText();
+                }
+            }
+            pdf.save(target.toFile());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PdfExtractionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
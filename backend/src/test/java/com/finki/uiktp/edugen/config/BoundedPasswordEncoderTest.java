@@ -0,0 +1,122 @@
+package com.finki.uiktp.edugen.config;
+
+import com.finki.uiktp.edugen.model.Exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * One hashing thread and a queue of one, with a delegate that blocks until released.
+ */
+class BoundedPasswordEncoderTest {
+
+	private final CountDownLatch hashing = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private SimpleMeterRegistry meterRegistry;
+	private BoundedPasswordEncoder encoder;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.destroy();
+	}
+
+	@Test
+	void rejectsRightAwayWhenTheQueueIsFull() throws Exception {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 5000, meterRegistry);
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+		assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+		waitForQueue(1);
+
+		long started = System.nanoTime();
+		assertThatThrownBy(() -> encoder.matches("third", "{hashed}third"))
+				.isInstanceOf(ServiceBusyException.class);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1000);
+		assertThat(rejected("queue_full")).isEqualTo(1);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}first");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}second");
+		assertThat(encoder.matches("third", "{hashed}third")).isTrue();
+	}
+
+	@Test
+	void givesUpOnHashesThatWaitTooLongAndDropsThem() throws Exception {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 200, meterRegistry);
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+		assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThatThrownBy(() -> encoder.encode("second"))
+				.isInstanceOf(ServiceBusyException.class);
+		// The abandoned hash left the queue, so it neither runs later nor holds up the next caller
+		assertThat(meterRegistry.get("edugen.password.hash.queue").gauge().value()).isZero();
+
+		// The running hash outlasts the timeout as well, its caller is turned away while it keeps the thread
+		assertThatThrownBy(() -> running.get(5, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(ServiceBusyException.class);
+		assertThat(rejected("timeout")).isEqualTo(2);
+		assertThat(rejected("queue_full")).isZero();
+
+		release.countDown();
+		assertThat(encoder.encode("third")).isEqualTo("{hashed}third");
+	}
+
+	@Test
+	void passesDelegateFailuresThrough() {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 5000, meterRegistry);
+		release.countDown();
+
+		assertThatThrownBy(() -> encoder.encode(null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("rawPassword cannot be null");
+	}
+
+	private void waitForQueue(int size) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (meterRegistry.get("edugen.password.hash.queue").gauge().value() < size) {
+			assertThat(System.currentTimeMillis()).isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private double rejected(String reason) {
+		return meterRegistry.get("edugen.password.hash.rejected").tag("reason", reason).counter().count();
+	}
+
+	private class BlockingEncoder implements PasswordEncoder {
+		@Override
+		public String encode(CharSequence rawPassword) {
+			if (rawPassword == null) {
+				throw new IllegalArgumentException("rawPassword cannot be null");
+			}
+			hashing.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "{hashed}" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.finki.uiktp.edugen.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes between two embedded databases that each know which node they are.
+ */
+class ReplicaRoutingDataSourceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private DataSource replica;
+	private ReplicaRoutingDataSource routing;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		DataSource primary = node("primary");
+		replica = node("replica");
+
+		routing = new ReplicaRoutingDataSource(primary, replica, meterRegistry);
+		routing.afterPropertiesSet();
+		// Known defaults, so the proxy does not probe a connection and skew the routing counters
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+		dataSource.setTargetDataSource(routing);
+		dataSource.setDefaultAutoCommit(true);
+		dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		dataSource.afterPropertiesSet();
+
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	@Test
+	void replicaReadsUseReplica() {
+		assertThat(onReplica(() -> currentNode(readOnly))).isEqualTo("replica");
+		assertThat(routed("replica", "true")).isEqualTo(1);
+	}
+
+	@Test
+	void unmarkedReadOnlyTransactionsUsePrimary() {
+		assertThat(currentNode(readOnly)).isEqualTo("primary");
+		assertThat(routed("primary", "true")).isEqualTo(1);
+	}
+
+	@Test
+	void readWriteTransactionsUsePrimaryEvenWhenMarked() {
+		assertThat(onReplica(() -> currentNode(readWrite))).isEqualTo("primary");
+		assertThat(routed("primary", "false")).isEqualTo(1);
+	}
+
+	@Test
+	void replicaReadAnnotationStartsReadOnlyTransactionsAndMarksTheThread() throws NoSuchMethodException {
+		TransactionAttribute attribute = new AnnotationTransactionAttributeSource()
+				.getTransactionAttribute(Reads.class.getMethod("lists"), Reads.class);
+		assertThat(attribute).isNotNull();
+		assertThat(attribute.isReadOnly()).isTrue();
+
+		AspectJProxyFactory factory = new AspectJProxyFactory(new Reads());
+		factory.addAspect(ReplicaReadAspect.class);
+		Reads reads = factory.getProxy();
+
+		assertThat(reads.lists()).isTrue();
+		assertThat(reads.byId()).isFalse();
+		assertThatThrownBy(reads::fails).isInstanceOf(IllegalStateException.class);
+		// The mark does not outlive the call, not even a failed one
+		assertThat(reads.byId()).isFalse();
+	}
+
+	@Test
+	void readWriteTransactionsUsePrimary() {
+		assertThat(currentNode(readWrite)).isEqualTo("primary");
+		assertThat(routed("primary", "false")).isEqualTo(1);
+	}
+
+	@Test
+	void unusableReplicaFallsBackToPrimary() {
+		routing.setReplicaUsable(false);
+
+		assertThat(onReplica(() -> currentNode(readOnly))).isEqualTo("primary");
+		assertThat(routed("primary", "true")).isEqualTo(1);
+	}
+
+	@Test
+	void lagMonitorTakesLaggingReplicaOutOfRotation() {
+		new ReplicaLagMonitor(replica, routing, "SELECT 30", 10, meterRegistry).check();
+		assertThat(routing.isReplicaUsable()).isFalse();
+		assertThat(onReplica(() -> currentNode(readOnly))).isEqualTo("primary");
+
+		new ReplicaLagMonitor(replica, routing, "SELECT 2", 10, meterRegistry).check();
+		assertThat(routing.isReplicaUsable()).isTrue();
+		assertThat(onReplica(() -> currentNode(readOnly))).isEqualTo("replica");
+	}
+
+	@Test
+	void lagMonitorTakesUnreachableReplicaOutOfRotation() {
+		new ReplicaLagMonitor(replica, routing, "SELECT lag FROM missing_table", 10, meterRegistry).check();
+
+		assertThat(routing.isReplicaUsable()).isFalse();
+	}
+
+	private static String onReplica(Supplier<String> read) {
+		boolean previous = ReplicaRoutingDataSource.setReplicaRead(true);
+		try {
+			return read.get();
+		} finally {
+			ReplicaRoutingDataSource.setReplicaRead(previous);
+		}
+	}
+
+	private String currentNode(TransactionTemplate transactionTemplate) {
+		return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	private double routed(String pool, String readOnly) {
+		return meterRegistry.get("edugen.datasource.routed").tag("pool", pool).tag("read.only", readOnly).counter().count();
+	}
+
+	private static DataSource node(String name) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+		jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+
+	/**
+	 * Reports whether the thread is marked for the replica while its methods run.
+	 */
+	public static class Reads {
+		@ReplicaRead
+		public boolean lists() {
+			return marked();
+		}
+
+		public boolean byId() {
+			return marked();
+		}
+
+		@ReplicaRead
+		public void fails() {
+			throw new IllegalStateException("read failed");
+		}
+
+		private static boolean marked() {
+			boolean previous = ReplicaRoutingDataSource.setReplicaRead(false);
+			ReplicaRoutingDataSource.setReplicaRead(previous);
+			return previous;
+		}
+	}
+}
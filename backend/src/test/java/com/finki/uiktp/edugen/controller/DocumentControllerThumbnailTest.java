@@ -0,0 +1,92 @@
+package com.finki.uiktp.edugen.controller;
+
+import com.finki.uiktp.edugen.config.UserPrincipal;
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.service.DocumentChunkService;
+import com.finki.uiktp.edugen.service.DocumentService;
+import com.finki.uiktp.edugen.service.ExportService;
+import com.finki.uiktp.edugen.service.ThumbnailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentControllerThumbnailTest {
+
+	private DocumentService documentService;
+	private ThumbnailService thumbnailService;
+	private DocumentController controller;
+	private Document document;
+
+	@BeforeEach
+	void setUp() {
+		documentService = mock(DocumentService.class);
+		thumbnailService = mock(ThumbnailService.class);
+		controller = new DocumentController(documentService, mock(DocumentChunkService.class), thumbnailService,
+				mock(ExportService.class));
+
+		User owner = new User();
+		owner.setId(1L);
+		document = new Document();
+		document.setId(5L);
+		document.setUser(owner);
+		when(documentService.findById(5L)).thenReturn(Optional.of(document));
+	}
+
+	@Test
+	void thumbnailsArePrivateAndImmutable() throws IOException {
+		when(thumbnailService.getThumbnail(document, 200))
+				.thenReturn(Optional.of(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+
+		ResponseEntity<Resource> response = controller.getDocumentThumbnail(5L, 200, authentication(1L));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_PNG);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL))
+				.isEqualTo("max-age=31536000, private, immutable");
+		assertThat(response.getBody().getInputStream()).hasBinaryContent(new byte[]{1, 2, 3});
+	}
+
+	@Test
+	void otherUsersGetNoThumbnail() throws IOException {
+		ResponseEntity<Resource> response = controller.getDocumentThumbnail(5L, 200, authentication(2L));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+		assertThat(response.getHeaders().getCacheControl()).isNull();
+		verify(thumbnailService, never()).getThumbnail(any(), anyInt());
+	}
+
+	@Test
+	void documentsWithoutThumbnailAreNotFound() throws IOException {
+		when(thumbnailService.getThumbnail(document, 200)).thenReturn(Optional.empty());
+
+		ResponseEntity<Resource> response = controller.getDocumentThumbnail(5L, 200, authentication(1L));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(response.getHeaders().getCacheControl()).isNull();
+	}
+
+	private static Authentication authentication(Long userId) {
+		UserPrincipal principal = new UserPrincipal(userId, "user" + userId + "@example.com", "", List.of());
+		return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+	}
+}
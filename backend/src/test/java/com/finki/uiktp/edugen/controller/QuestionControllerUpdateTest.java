@@ -0,0 +1,70 @@
+package com.finki.uiktp.edugen.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.dto.QuestionPatchRequest;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.service.ExportService;
+import com.finki.uiktp.edugen.service.Implementation.PdfExportService;
+import com.finki.uiktp.edugen.service.QuestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionControllerUpdateTest {
+
+	private QuestionService questionService;
+	private QuestionController controller;
+
+	@BeforeEach
+	void setUp() {
+		questionService = mock(QuestionService.class);
+		controller = new QuestionController(questionService, new ObjectMapper(), mock(PdfExportService.class),
+				mock(ExportService.class));
+		when(questionService.patch(eq(5L), any())).thenReturn(new Question(null, "Which organelle makes ATP?",
+				QuestionType.MULTIPLE_CHOICE));
+	}
+
+	@Test
+	void legacyUpdateAddsAnswersWithTemporaryIds() {
+		String answers = "[{\"id\": 3, \"text\": \"Mitochondrion\", \"isCorrect\": true},"
+				+ " {\"id\": 1760874703123, \"text\": \"Ribosome\", \"isCorrect\": false}]";
+
+		ResponseEntity<?> response = controller.updateQuestion(5L, QuestionType.MULTIPLE_CHOICE,
+				"Which organelle makes ATP?", answers);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		ArgumentCaptor<QuestionPatchRequest> patch = ArgumentCaptor.forClass(QuestionPatchRequest.class);
+		verify(questionService).patch(eq(5L), patch.capture());
+		assertThat(patch.getValue().getAnswers())
+				.extracting(QuestionPatchRequest.AnswerPatch::getId, QuestionPatchRequest.AnswerPatch::getText)
+				.containsExactly(tuple(3L, "Mitochondrion"), tuple(null, "Ribosome"));
+	}
+
+	@Test
+	void patchPassesAnswerIdsThroughUnchanged() {
+		QuestionPatchRequest.AnswerPatch answer = new QuestionPatchRequest.AnswerPatch();
+		answer.setId(1760874703123L);
+		QuestionPatchRequest request = new QuestionPatchRequest();
+		request.setAnswers(List.of(answer));
+
+		controller.patchQuestion(5L, request);
+
+		ArgumentCaptor<QuestionPatchRequest> patch = ArgumentCaptor.forClass(QuestionPatchRequest.class);
+		verify(questionService).patch(eq(5L), patch.capture());
+		assertThat(patch.getValue().getAnswers()).extracting(QuestionPatchRequest.AnswerPatch::getId)
+				.containsExactly(1760874703123L);
+	}
+}
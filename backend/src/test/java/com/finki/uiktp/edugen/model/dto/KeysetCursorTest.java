@@ -0,0 +1,81 @@
+package com.finki.uiktp.edugen.model.dto;
+
+import com.finki.uiktp.edugen.model.Exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+	@Test
+	void roundTripsBothKinds() {
+		LocalDateTime uploaded = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+
+		assertThat(KeysetCursor.decode(KeysetCursor.of(uploaded, 42).encode(), true))
+				.isEqualTo(KeysetCursor.of(uploaded, 42));
+		assertThat(KeysetCursor.decode(KeysetCursor.ofId(7).encode(), false))
+				.isEqualTo(KeysetCursor.ofId(7));
+	}
+
+	@Test
+	void encodesUrlSafelyWithoutPadding() {
+		String cursor = KeysetCursor.of(LocalDateTime.of(2024, 3, 1, 12, 30), Long.MAX_VALUE).encode();
+
+		assertThat(cursor).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void missingCursorMeansTheFirstPage() {
+		assertThat(KeysetCursor.decode(null, true)).isNull();
+		assertThat(KeysetCursor.decode("  ", false)).isNull();
+	}
+
+	@Test
+	void rejectsTamperedAndForeignCursors() {
+		String idCursor = KeysetCursor.ofId(7).encode();
+		String timestampCursor = KeysetCursor.of(LocalDateTime.of(2024, 3, 1, 12, 30), 42).encode();
+
+		List<String> forTimestamps = List.of(
+				idCursor,
+				"not base64!",
+				encode("2024-13-01T12:30|42"),
+				encode("2024-03-01T12:30|forty-two"),
+				encode("|42"),
+				timestampCursor.substring(0, timestampCursor.length() - 3));
+		for (String cursor : forTimestamps) {
+			assertThatThrownBy(() -> KeysetCursor.decode(cursor, true)).as(cursor)
+					.isInstanceOf(InvalidCursorException.class);
+		}
+
+		List<String> forIds = List.of(timestampCursor, encode("seven"), encode("7.5"), encode("99999999999999999999"));
+		for (String cursor : forIds) {
+			assertThatThrownBy(() -> KeysetCursor.decode(cursor, false)).as(cursor)
+					.isInstanceOf(InvalidCursorException.class);
+		}
+	}
+
+	@Test
+	void clampsPageSizesAndKeepsPagingStateWhenMapped() {
+		assertThat(PageResponse.clampLimit(null)).isEqualTo(PageResponse.DEFAULT_LIMIT);
+		assertThat(PageResponse.clampLimit(0)).isEqualTo(PageResponse.DEFAULT_LIMIT);
+		assertThat(PageResponse.clampLimit(-5)).isEqualTo(PageResponse.DEFAULT_LIMIT);
+		assertThat(PageResponse.clampLimit(10)).isEqualTo(10);
+		assertThat(PageResponse.clampLimit(1000)).isEqualTo(PageResponse.MAX_LIMIT);
+
+		PageResponse<String> page = new PageResponse<>(List.of(1, 2, 3), "next", 3, 9L).map(String::valueOf);
+		assertThat(page.getItems()).containsExactly("1", "2", "3");
+		assertThat(page.getNextCursor()).isEqualTo("next");
+		assertThat(page.getLimit()).isEqualTo(3);
+		assertThat(page.getTotal()).isEqualTo(9L);
+	}
+
+	private static String encode(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
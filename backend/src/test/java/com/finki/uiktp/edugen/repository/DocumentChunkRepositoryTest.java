@@ -0,0 +1,73 @@
+package com.finki.uiktp.edugen.repository;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.DocumentChunk;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		// The schema comes from the migrations, Hibernate maps enums to native types on H2 and would reject it
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class DocumentChunkRepositoryTest {
+
+	@Autowired
+	private DocumentChunkRepository documentChunkRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Document document;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User("teacher", LocalDate.of(1990, 1, 1), "070000000", "teacher@example.com", Role.USER);
+		user.setPassword("password");
+		entityManager.persist(user);
+		document = entityManager.persist(new Document("Lecture", DocumentType.LECTURE, DocumentFormat.PDF, "en", "uploads/lecture.pdf", user));
+		entityManager.flush();
+	}
+
+	@Test
+	void chunkIndexesAreUniquePerDocument() {
+		documentChunkRepository.saveAndFlush(chunk(0));
+
+		assertThatThrownBy(() -> documentChunkRepository.saveAndFlush(chunk(0)))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void indexedMarkerIsSetWithoutChunks() {
+		assertThat(documentRepository.existsByIdAndIndexedAtIsNotNull(document.getId())).isFalse();
+
+		documentRepository.markIndexed(document.getId(), LocalDateTime.now());
+		entityManager.clear();
+
+		assertThat(documentRepository.existsByIdAndIndexedAtIsNotNull(document.getId())).isTrue();
+		assertThat(documentRepository.lockById(document.getId())).hasValueSatisfying(locked ->
+				assertThat(locked.getIndexedAt()).isNotNull());
+		assertThat(documentChunkRepository.findByDocumentIdOrderByChunkIndex(document.getId())).isEmpty();
+	}
+
+	private DocumentChunk chunk(int index) {
+		return new DocumentChunk(document, index, 1, null, 0, 1, 0, 4, "Text");
+	}
+}
@@ -0,0 +1,235 @@
+package com.finki.uiktp.edugen.repository;
+
+import com.finki.uiktp.edugen.model.Answer;
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.DocumentChunk;
+import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.UploadSession;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.model.enums.Role;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the indexes created by the migrations: every statement a repository query issues
+ * is run through EXPLAIN on the migrated H2 schema and must not scan a whole table.
+ * Queries that read a table in full on purpose (the unpaged question list, the storage
+ * reconciliation stream and the file name suffix lookup) are not covered.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.finki.uiktp.edugen.repository.QueryPlanTest$SqlCapture",
+		// The schema comes from the migrations, Hibernate maps enums to native types on H2 and would reject it
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class QueryPlanTest {
+
+	private static final Pageable PAGE = PageRequest.of(0, 20);
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private DocumentChunkRepository documentChunkRepository;
+
+	@Autowired
+	private UploadSessionRepository uploadSessionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserCounterRepository userCounterRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private User teacher;
+	private Document lecture;
+
+	@BeforeEach
+	void setUp() {
+		for (int u = 0; u < 5; u++) {
+			User user = new User("teacher" + u, LocalDate.of(1990, 1, 1), "07000000" + u, "teacher" + u + "@example.com", Role.TEACHER);
+			user.setPassword("password");
+			entityManager.persist(user);
+			entityManager.persist(new UploadSession("session-" + u, user, "Draft", "en", DocumentType.LECTURE,
+					DocumentFormat.PDF, "draft.pdf", 1024, "uploads/.partial/session-" + u + ".part"));
+
+			for (int d = 0; d < 4; d++) {
+				Document document = entityManager.persist(new Document("Document " + d, DocumentType.LECTURE,
+						DocumentFormat.PDF, "en", "uploads/" + u + "-" + d + ".pdf", user));
+				if (teacher == null) {
+					teacher = user;
+					lecture = document;
+				}
+
+				for (int c = 0; c < 10; c++) {
+					entityManager.persist(new DocumentChunk(document, c, c / 2 + 1, "Section " + c,
+							c, 1, c * 100, c * 100 + 99, "Chunk " + c));
+				}
+				for (int q = 0; q < 10; q++) {
+					Question question = new Question(document, "Question " + q,
+							q % 3 == 0 ? QuestionType.TRUE_FALSE : QuestionType.MULTIPLE_CHOICE);
+					for (int a = 0; a < 3; a++) {
+						question.addAnswer(new Answer(question, "Answer " + a, a == 0));
+					}
+					entityManager.persist(question);
+				}
+			}
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void questionQueriesUseIndexes() throws SQLException {
+		assertUsesIndexes(() -> questionRepository.findByDocumentIdOrderById(lecture.getId()));
+		assertUsesIndexes(() -> questionRepository.findByTypeOrderById(QuestionType.TRUE_FALSE));
+		assertUsesIndexes(() -> questionRepository.findIdsAfter(10, PAGE));
+		assertUsesIndexes(() -> questionRepository.findIdsByTypeAfter(QuestionType.MULTIPLE_CHOICE, 10, PAGE));
+		assertUsesIndexes(() -> questionRepository.findAllWithDocumentAndAnswersByIdIn(List.of(1L, 2L, 3L)));
+		assertUsesIndexes(() -> drain(questionRepository.streamExportRowsByIdInOwnedBy(List.of(1L, 2L, 3L), teacher.getId())));
+		assertUsesIndexes(() -> drain(questionRepository.streamExportRowsByDocumentId(lecture.getId())));
+		assertUsesIndexes(() -> questionRepository.findExportStampsByIdInOwnedBy(List.of(1L, 2L, 3L), teacher.getId()));
+		assertUsesIndexes(() -> questionRepository.countByType(QuestionType.TRUE_FALSE));
+	}
+
+	@Test
+	void answerQueriesUseIndexes() throws SQLException {
+		assertUsesIndexes(() -> answerRepository.findByIdGreaterThanOrderById(10L, PAGE));
+	}
+
+	@Test
+	void documentQueriesUseIndexes() throws SQLException {
+		assertUsesIndexes(() -> documentRepository.findSummariesByUserId(teacher.getId()));
+		assertUsesIndexes(() -> documentRepository.findSummaryPageByUserId(teacher.getId(), PAGE));
+		assertUsesIndexes(() -> documentRepository.findSummaryPageByUserIdBefore(teacher.getId(), LocalDateTime.now(), 10L, PAGE));
+		assertUsesIndexes(() -> documentRepository.findByUserOrderByUploadedDateDesc(teacher, 5));
+		assertUsesIndexes(() -> documentRepository.findAllByUser(teacher));
+		assertUsesIndexes(() -> documentRepository.countByUserId(teacher.getId()));
+	}
+
+	@Test
+	void chunkQueriesUseIndexes() throws SQLException {
+		assertUsesIndexes(() -> documentChunkRepository.findByDocumentIdOrderByChunkIndex(lecture.getId()));
+		assertUsesIndexes(() -> documentChunkRepository.findByDocumentIdAndPageNumberOrderByChunkIndex(lecture.getId(), 2));
+		assertUsesIndexes(() -> documentChunkRepository.search(lecture.getId(), "chunk"));
+		assertUsesIndexes(() -> documentChunkRepository.existsByDocumentId(lecture.getId()));
+	}
+
+	@Test
+	void userAndUploadQueriesUseIndexes() throws SQLException {
+		assertUsesIndexes(() -> userRepository.findByEmail("teacher1@example.com"));
+		assertUsesIndexes(() -> userRepository.findByUsername("teacher1"));
+		assertUsesIndexes(() -> userCounterRepository.findByUserId(teacher.getId()));
+		assertUsesIndexes(() -> uploadSessionRepository.findByIdAndUser("session-0", teacher));
+		assertUsesIndexes(() -> uploadSessionRepository.findByUpdatedAtBefore(LocalDateTime.now().minusHours(1)));
+	}
+
+	private void assertUsesIndexes(Runnable query) throws SQLException {
+		entityManager.clear();
+		SqlCapture.statements.clear();
+		query.run();
+
+		List<String> selects = SqlCapture.statements.stream()
+				.filter(sql -> sql.strip().toLowerCase(Locale.ROOT).startsWith("select"))
+				.toList();
+		assertThat(selects).as("statements issued by the query").isNotEmpty();
+
+		for (String sql : selects) {
+			assertThat(explain(sql)).as("plan of %s", sql).doesNotContainIgnoringCase("tableScan");
+		}
+	}
+
+	private static void drain(Stream<?> rows) {
+		try (rows) {
+			rows.forEach(row -> { });
+		}
+	}
+
+	/**
+	 * Explains a statement on the test transaction's connection, so the seeded rows count towards the plan.
+	 */
+	private String explain(String sql) throws SQLException {
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+			bindPlaceholders(statement);
+			StringBuilder plan = new StringBuilder();
+			try (ResultSet result = statement.executeQuery()) {
+				while (result.next()) {
+					plan.append(result.getString(1)).append('\n');
+				}
+			}
+			return plan.toString();
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	/**
+	 * The plan does not depend on the values, any value of the right type will do.
+	 */
+	private static void bindPlaceholders(PreparedStatement statement) throws SQLException {
+		ParameterMetaData parameters = statement.getParameterMetaData();
+		for (int i = 1; i <= parameters.getParameterCount(); i++) {
+			switch (parameters.getParameterType(i)) {
+				case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.CLOB -> statement.setString(i, "x");
+				case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> statement.setTimestamp(i, Timestamp.valueOf(LocalDateTime.now()));
+				case Types.DATE -> statement.setDate(i, java.sql.Date.valueOf(LocalDate.now()));
+				case Types.BOOLEAN -> statement.setBoolean(i, true);
+				default -> statement.setLong(i, 1);
+			}
+		}
+	}
+
+	/**
+	 * Records the SQL of every statement Hibernate prepares.
+	 */
+	public static class SqlCapture implements StatementInspector {
+		static final List<String> statements = new ArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.finki.uiktp.edugen.repository;
+
+import com.finki.uiktp.edugen.model.Answer;
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.dto.QuestionDto;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.model.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the question list queries against N+1 loading: each one, including mapping the
+ * result to DTOs, has to run as a single SQL statement however many questions it returns.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		// The schema comes from the migrations, Hibernate maps enums to native types on H2 and would reject it
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class QuestionRepositoryTest {
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Document lecture;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User("teacher", LocalDate.of(1990, 1, 1), "070000000", "teacher@example.com", Role.USER);
+		user.setPassword("password");
+		entityManager.persist(user);
+
+		lecture = entityManager.persist(new Document("Lecture", DocumentType.LECTURE, DocumentFormat.PDF, "en", "uploads/lecture.pdf", user));
+		Document exercises = entityManager.persist(new Document("Exercises", DocumentType.LECTURE, DocumentFormat.TXT, "en", "uploads/exercises.txt", user));
+
+		for (int i = 0; i < 10; i++) {
+			Question question = new Question(i % 2 == 0 ? lecture : exercises, "Question " + i,
+					i % 3 == 0 ? QuestionType.TRUE_FALSE : QuestionType.MULTIPLE_CHOICE);
+			for (int j = 0; j < 3; j++) {
+				question.addAnswer(new Answer(question, "Answer " + j, j == 0));
+			}
+			entityManager.persist(question);
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void listsAllQuestionsInOneStatement() {
+		List<QuestionDto> questions = mapCountingStatements(questionRepository::findAllWithDocumentAndAnswers);
+
+		assertThat(questions).hasSize(10);
+		assertThat(questions).allSatisfy(question -> assertThat(question.getAnswers()).hasSize(3));
+	}
+
+	@Test
+	void listsQuestionsByDocumentInOneStatement() {
+		List<QuestionDto> questions = mapCountingStatements(() -> questionRepository.findByDocumentIdOrderById(lecture.getId()));
+
+		assertThat(questions).hasSize(5);
+		assertThat(questions).allSatisfy(question -> assertThat(question.getDocumentTitle()).isEqualTo("Lecture"));
+	}
+
+	@Test
+	void listsQuestionsByTypeInOneStatement() {
+		List<QuestionDto> questions = mapCountingStatements(() -> questionRepository.findByTypeOrderById(QuestionType.TRUE_FALSE));
+
+		assertThat(questions).hasSize(4);
+	}
+
+	@Test
+	void exportStampsChangeWithEveryEdit() {
+		List<Long> ids = questionRepository.findByDocumentIdOrderById(lecture.getId()).stream().map(Question::getId).toList();
+		List<String> stamps = new ArrayList<>();
+		stamps.add(exportStamps(ids));
+
+		Question question = questionRepository.findById(ids.get(0)).orElseThrow();
+		question.getAnswers().get(0).setText("Edited answer");
+		entityManager.flush();
+		stamps.add(exportStamps(ids));
+
+		question.getAnswers().remove(1);
+		question.addAnswer(new Answer(question, "New answer", false));
+		entityManager.flush();
+		stamps.add(exportStamps(ids));
+
+		questionRepository.updateType(ids, QuestionType.MULTIPLE_CHOICE, QuestionType.FILL_IN_THE_BLANK, lecture.getUser().getId());
+		entityManager.clear();
+		stamps.add(exportStamps(ids));
+
+		assertThat(stamps).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void exportQueriesSkipQuestionsOfOtherUsers() {
+		List<Long> ids = questionRepository.findByDocumentIdOrderById(lecture.getId()).stream().map(Question::getId).toList();
+		User stranger = new User("stranger", LocalDate.of(1990, 1, 1), "070000000", "stranger@example.com", Role.USER);
+		stranger.setPassword("password");
+		entityManager.persist(stranger);
+
+		assertThat(questionRepository.findExportStampsByIdInOwnedBy(ids, stranger.getId())).isEmpty();
+		try (Stream<QuestionRepository.ExportRow> rows = questionRepository.streamExportRowsByIdInOwnedBy(ids, stranger.getId())) {
+			assertThat(rows).isEmpty();
+		}
+		assertThat(questionRepository.findExportStampsByIdInOwnedBy(ids, lecture.getUser().getId()))
+				.singleElement()
+				.satisfies(stamp -> assertThat(stamp.getQuestionCount()).isEqualTo(5L));
+	}
+
+	private String exportStamps(List<Long> ids) {
+		return questionRepository.findExportStampsByIdInOwnedBy(ids, lecture.getUser().getId()).stream()
+				.map(stamp -> stamp.getQuestionCount() + "/" + stamp.getAnswerCount() + "/" + stamp.getQuestionVersions()
+						+ "/" + stamp.getAnswerVersions() + "/" + stamp.getLastAnswerId())
+				.toList()
+				.toString();
+	}
+
+	private List<QuestionDto> mapCountingStatements(Supplier<List<Question>> query) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<QuestionDto> questions = query.get().stream()
+				.map(QuestionDto::fromQuestion)
+				.toList();
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		return questions;
+	}
+}
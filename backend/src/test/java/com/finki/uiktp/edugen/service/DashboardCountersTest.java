@@ -0,0 +1,186 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.UserCounter;
+import com.finki.uiktp.edugen.model.dto.BulkQuestionUpdateRequest;
+import com.finki.uiktp.edugen.model.dto.DashboardSummaryDto;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.model.enums.Role;
+import com.finki.uiktp.edugen.repository.AnswerRepository;
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.repository.QuestionRepository;
+import com.finki.uiktp.edugen.repository.UserCounterRepository;
+import com.finki.uiktp.edugen.service.Implementation.DashboardServiceImplementation;
+import com.finki.uiktp.edugen.service.Implementation.QuestionServiceImplementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Checks the dashboard counters on the migrated H2 schema after the question service creates, deletes, moves and retypes questions.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		// The schema comes from the migrations, Hibernate maps enums to native types on H2 and would reject it
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class DashboardCountersTest {
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private UserCounterRepository userCounterRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private DashboardService dashboardService;
+	private QuestionService questionService;
+	private User owner;
+	private User stranger;
+	private Document lecture;
+	private Document slides;
+
+	@BeforeEach
+	void setUp() {
+		dashboardService = new DashboardServiceImplementation(userCounterRepository, documentRepository);
+		ReflectionTestUtils.setField(dashboardService, "maxRecentDocuments", 20);
+		questionService = new QuestionServiceImplementation(questionRepository, answerRepository, documentRepository,
+				dashboardService);
+		ReflectionTestUtils.setField(questionService, "maxBulkSize", 1000);
+
+		owner = user("owner@example.com");
+		stranger = user("stranger@example.com");
+		lecture = document(owner, "Lecture");
+		slides = document(owner, "Slides");
+		entityManager.flush();
+	}
+
+	@Test
+	void createdQuestionsAreCountedByType() {
+		create(lecture, QuestionType.MULTIPLE_CHOICE, QuestionType.MULTIPLE_CHOICE, QuestionType.TRUE_FALSE);
+
+		DashboardSummaryDto summary = summary(owner);
+		assertThat(summary.totalQuestions()).isEqualTo(3);
+		assertThat(summary.questionsByType()).isEqualTo(Map.of(
+				QuestionType.MULTIPLE_CHOICE, 2L,
+				QuestionType.TRUE_FALSE, 1L));
+	}
+
+	@Test
+	void bulkDeleteSubtractsOnlyTheQuestionsItDeleted() {
+		List<Long> ids = create(lecture, QuestionType.MULTIPLE_CHOICE, QuestionType.TRUE_FALSE, QuestionType.TRUE_FALSE);
+		Document strangersLecture = document(stranger, "Stranger's lecture");
+		Long strangersQuestion = create(strangersLecture, QuestionType.TRUE_FALSE).get(0);
+
+		List<Long> request = List.of(ids.get(0), ids.get(1), strangersQuestion);
+		assertThat(questionService.deleteAll(request, owner.getId())).isEqualTo(2);
+		// Repeating the request finds nothing left to delete and must not subtract again
+		assertThat(questionService.deleteAll(request, owner.getId())).isZero();
+
+		DashboardSummaryDto summary = summary(owner);
+		assertThat(summary.totalQuestions()).isEqualTo(1);
+		assertThat(summary.questionsByType()).isEqualTo(Map.of(QuestionType.TRUE_FALSE, 1L));
+		assertThat(summary(stranger).totalQuestions()).isEqualTo(1);
+	}
+
+	@Test
+	void deletingADocumentsQuestionsSubtractsThem() {
+		create(lecture, QuestionType.MULTIPLE_CHOICE, QuestionType.FILL_IN_THE_BLANK);
+		create(slides, QuestionType.MULTIPLE_CHOICE);
+
+		assertThat(questionService.deleteByDocumentId(lecture.getId())).isEqualTo(2);
+
+		DashboardSummaryDto summary = summary(owner);
+		assertThat(summary.totalQuestions()).isEqualTo(1);
+		assertThat(summary.questionsByType()).isEqualTo(Map.of(QuestionType.MULTIPLE_CHOICE, 1L));
+	}
+
+	@Test
+	void movingKeepsTheCountsAndRetypingMovesThemBetweenTypes() {
+		List<Long> ids = create(lecture, QuestionType.MULTIPLE_CHOICE, QuestionType.TRUE_FALSE, QuestionType.FILL_IN_THE_BLANK);
+
+		BulkQuestionUpdateRequest move = new BulkQuestionUpdateRequest();
+		move.setIds(ids);
+		move.setDocumentId(slides.getId());
+		assertThat(questionService.bulkUpdate(move, owner.getId())).isEqualTo(3);
+		assertThat(summary(owner).questionsByType()).isEqualTo(Map.of(
+				QuestionType.MULTIPLE_CHOICE, 1L,
+				QuestionType.TRUE_FALSE, 1L,
+				QuestionType.FILL_IN_THE_BLANK, 1L));
+
+		BulkQuestionUpdateRequest retype = new BulkQuestionUpdateRequest();
+		retype.setIds(ids);
+		retype.setType(QuestionType.TRUE_FALSE);
+		// The question that already is true/false is left alone
+		assertThat(questionService.bulkUpdate(retype, owner.getId())).isEqualTo(2);
+		assertThat(questionService.bulkUpdate(retype, owner.getId())).isZero();
+
+		DashboardSummaryDto summary = summary(owner);
+		assertThat(summary.totalQuestions()).isEqualTo(3);
+		assertThat(summary.questionsByType()).isEqualTo(Map.of(QuestionType.TRUE_FALSE, 3L));
+	}
+
+	@Test
+	void countersAreCreatedOnFirstUseAndNeverDropBelowZero() {
+		dashboardService.questionsAdded(owner.getId(), QuestionType.MULTIPLE_CHOICE, -2);
+		dashboardService.questionsAdded(owner.getId(), QuestionType.MULTIPLE_CHOICE, 3);
+		dashboardService.questionsAdded(owner.getId(), QuestionType.MULTIPLE_CHOICE, -5);
+		dashboardService.generationRecorded(owner.getId(), 4);
+
+		entityManager.clear();
+		assertThat(userCounterRepository.findByUserId(owner.getId()))
+				.extracting(UserCounter::getName, UserCounter::getAmount)
+				.containsExactlyInAnyOrder(
+						tuple("questions", 0L),
+						tuple("questions.type.MULTIPLE_CHOICE", 0L),
+						tuple("generation.requests", 1L),
+						tuple("generation.questions", 4L));
+	}
+
+	private List<Long> create(Document document, QuestionType... types) {
+		List<Long> ids = new ArrayList<>();
+		for (QuestionType type : types) {
+			ids.add(questionService.create(document.getId(), type, type + " question").getId());
+		}
+		entityManager.flush();
+		return ids;
+	}
+
+	private DashboardSummaryDto summary(User user) {
+		entityManager.clear();
+		return dashboardService.getSummary(user.getId(), 0);
+	}
+
+	private User user(String email) {
+		User user = new User(email, LocalDate.of(1990, 1, 1), "070000000", email, Role.USER);
+		user.setPassword("password");
+		return entityManager.persist(user);
+	}
+
+	private Document document(User user, String title) {
+		return entityManager.persist(new Document(title, DocumentType.LECTURE, DocumentFormat.PDF, "en",
+				"uploads/" + title + ".pdf", user));
+	}
+}
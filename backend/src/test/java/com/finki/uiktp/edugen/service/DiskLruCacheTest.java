@@ -0,0 +1,139 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.service.Implementation.DiskLruCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiskLruCacheTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntriesOnceOverTheLimit() throws IOException {
+		DiskLruCache cache = new DiskLruCache(directory, 30);
+		put(cache, "a", 10);
+		put(cache, "b", 10);
+		put(cache, "c", 10);
+
+		// Reading a makes b the least recently used entry
+		assertThat(cache.get("a")).isNotNull();
+		put(cache, "d", 10);
+
+		assertThat(cache.get("b")).isNull();
+		assertThat(directory.resolve("b")).doesNotExist();
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("c")).isNotNull();
+		assertThat(cache.get("d")).isNotNull();
+		assertThat(cache.size()).isEqualTo(30);
+		assertThat(cache.count()).isEqualTo(3);
+
+		// An entry larger than the limit pushes everything else out
+		put(cache, "e", 25);
+		assertThat(cache.count()).isEqualTo(1);
+		assertThat(cache.size()).isEqualTo(25);
+	}
+
+	@Test
+	void replacingAnEntryCountsOnlyItsNewSize() throws IOException {
+		DiskLruCache cache = new DiskLruCache(directory, 100);
+		put(cache, "a", 40);
+		put(cache, "a", 10);
+
+		assertThat(cache.size()).isEqualTo(10);
+		assertThat(Files.size(cache.get("a"))).isEqualTo(10);
+	}
+
+	@Test
+	void restoresTheAccessOrderFromModificationTimesAndDropsUnfinishedWrites() throws IOException {
+		Instant now = Instant.now();
+		write("old", 10, now.minus(2, ChronoUnit.HOURS));
+		write("recent", 10, now.minus(1, ChronoUnit.HOURS));
+		write(".tmp-write", 10, now);
+
+		DiskLruCache cache = new DiskLruCache(directory, 20);
+		assertThat(cache.count()).isEqualTo(2);
+		assertThat(directory.resolve(".tmp-write")).doesNotExist();
+
+		put(cache, "new", 10);
+		assertThat(cache.get("old")).isNull();
+		assertThat(cache.get("recent")).isNotNull();
+	}
+
+	@Test
+	void failedWritesLeaveNoEntryBehind() throws IOException {
+		DiskLruCache cache = new DiskLruCache(directory, 100);
+
+		assertThatThrownBy(() -> cache.put("a", out -> {
+			out.write(new byte[5]);
+			throw new IOException("client went away");
+		})).isInstanceOf(IOException.class);
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.size()).isZero();
+		try (var files = Files.list(directory)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void forgetsEntriesDeletedBehindItsBackAndRemovesByPrefix() throws IOException {
+		DiskLruCache cache = new DiskLruCache(directory, 100);
+		put(cache, "1-100.png", 10);
+		put(cache, "1-200.png", 10);
+		put(cache, "12-100.png", 10);
+
+		Files.delete(directory.resolve("1-100.png"));
+		assertThat(cache.get("1-100.png")).isNull();
+		assertThat(cache.size()).isEqualTo(20);
+
+		cache.removeByPrefix("1-");
+		assertThat(cache.get("1-200.png")).isNull();
+		assertThat(cache.get("12-100.png")).isNotNull();
+		assertThat(cache.size()).isEqualTo(10);
+	}
+
+	@Test
+	void openedEntriesStayReadableAfterTheyAreEvicted() throws IOException {
+		DiskLruCache cache = new DiskLruCache(directory, 10);
+		cache.put("a", out -> out.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}));
+
+		try (InputStream in = cache.open("a")) {
+			put(cache, "b", 10);
+			assertThat(directory.resolve("a")).doesNotExist();
+			assertThat(in.readAllBytes()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		}
+		assertThat(cache.open("a")).isNull();
+	}
+
+	@Test
+	void openForgetsEntriesDeletedBehindItsBack() throws IOException {
+		DiskLruCache cache = new DiskLruCache(directory, 100);
+		put(cache, "a", 10);
+		Files.delete(directory.resolve("a"));
+
+		assertThat(cache.open("a")).isNull();
+		assertThat(cache.size()).isZero();
+		assertThat(cache.count()).isZero();
+	}
+
+	private static void put(DiskLruCache cache, String key, int size) throws IOException {
+		cache.put(key, out -> out.write(new byte[size]));
+	}
+
+	private void write(String name, int size, Instant modified) throws IOException {
+		Path file = Files.write(directory.resolve(name), new byte[size]);
+		Files.setLastModifiedTime(file, FileTime.from(modified));
+	}
+}
@@ -0,0 +1,152 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.DocumentChunk;
+import com.finki.uiktp.edugen.model.dto.ExtractedContent;
+import com.finki.uiktp.edugen.model.dto.ExtractedParagraph;
+import com.finki.uiktp.edugen.repository.DocumentChunkRepository;
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.service.Implementation.DocumentChunkServiceImplementation;
+import com.finki.uiktp.edugen.service.Implementation.DocumentTextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentChunkServiceTest {
+
+	private static final int MAX_CHUNK_CHARS = 100;
+
+	private DocumentChunkRepository chunkRepository;
+	private DocumentRepository documentRepository;
+	private DocumentTextExtractor extractor;
+	private DocumentChunkService service;
+	private Document document;
+
+	@BeforeEach
+	void setUp() {
+		chunkRepository = mock(DocumentChunkRepository.class);
+		documentRepository = mock(DocumentRepository.class);
+		extractor = mock(DocumentTextExtractor.class);
+		service = new DocumentChunkServiceImplementation(chunkRepository, documentRepository, extractor,
+				mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "maxChunkChars", MAX_CHUNK_CHARS);
+
+		document = new Document();
+		document.setId(7L);
+		when(documentRepository.lockById(7L)).thenReturn(Optional.of(document));
+		when(chunkRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void paragraphsLongerThanTheLimitAreSplitIntoChunksThatFit() throws IOException {
+		String sentence = "Cells divide by mitosis. ";
+		String longParagraph = sentence.repeat(10).strip();
+		String longWord = "x".repeat(250);
+		extracts(paragraph("Short introduction."), paragraph(longParagraph), paragraph(longWord));
+
+		List<DocumentChunk> chunks = service.indexDocument(document);
+
+		assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.getContent().length()).isLessThanOrEqualTo(MAX_CHUNK_CHARS));
+		assertThat(chunks).extracting(DocumentChunk::getChunkIndex)
+				.containsExactlyElementsOf(range(chunks.size()));
+
+		// Long paragraphs break after a sentence, a word without any break where the limit falls
+		List<DocumentChunk> sentencePieces = chunks.stream().filter(chunk -> chunk.getParagraphIndex() == 1).toList();
+		assertThat(sentencePieces).hasSizeGreaterThan(1);
+		assertThat(sentencePieces).allSatisfy(chunk -> assertThat(chunk.getContent()).endsWith("mitosis."));
+		assertThat(String.join(" ", sentencePieces.stream().map(DocumentChunk::getContent).toList()))
+				.isEqualTo(longParagraph);
+		assertThat(chunks.stream().filter(chunk -> chunk.getParagraphIndex() == 2).map(DocumentChunk::getContent))
+				.containsExactly("x".repeat(100), "x".repeat(100), "x".repeat(50));
+
+		// Offsets still point into the joined content
+		String content = service.joinContent(chunks);
+		assertThat(chunks).allSatisfy(chunk ->
+				assertThat(content.substring(chunk.getStartOffset(), chunk.getEndOffset())).isEqualTo(chunk.getContent()));
+	}
+
+	@Test
+	void documentsWithoutTextAreMarkedIndexedAndNotExtractedAgain() throws IOException {
+		extracts();
+
+		assertThat(service.findOrIndex(document)).isEmpty();
+		verify(documentRepository).markIndexed(eq(7L), any(LocalDateTime.class));
+
+		when(documentRepository.existsByIdAndIndexedAtIsNotNull(7L)).thenReturn(true);
+		assertThat(service.findOrIndex(document)).isEmpty();
+		verify(extractor).extractContent(document);
+	}
+
+	@Test
+	void aMissingFileIsNotIndexedAsEmptyAndIsTriedAgain() throws IOException {
+		when(extractor.extractContent(document)).thenThrow(new IOException("File not found: uploads/lecture.pdf"));
+
+		assertThatThrownBy(() -> service.findOrIndex(document)).isInstanceOf(IOException.class);
+		verify(documentRepository, never()).updateStatistics(anyLong(), any(), any(), any(), any(), any(), any(), any());
+		verify(documentRepository, never()).markIndexed(anyLong(), any());
+		verify(chunkRepository, never()).deleteByDocumentId(anyLong());
+
+		extracts(paragraph("The file is back."));
+		assertThat(service.findOrIndex(document)).extracting(DocumentChunk::getContent)
+				.containsExactly("The file is back.");
+		verify(documentRepository).markIndexed(eq(7L), any(LocalDateTime.class));
+	}
+
+	@Test
+	void firstIndexKeepsTheChunksOfAConcurrentRequest() throws IOException {
+		extracts(paragraph("Extracted again."));
+		Document indexed = new Document();
+		indexed.setId(7L);
+		indexed.setIndexedAt(LocalDateTime.now());
+		when(documentRepository.lockById(7L)).thenReturn(Optional.of(indexed));
+		DocumentChunk stored = new DocumentChunk(indexed, 0, null, null, 0, 1, 0, 6, "Stored");
+		when(chunkRepository.findByDocumentIdOrderByChunkIndex(7L)).thenReturn(List.of(stored));
+
+		assertThat(service.findOrIndex(document)).containsExactly(stored);
+		verify(chunkRepository, never()).deleteByDocumentId(anyLong());
+		verify(chunkRepository, never()).saveAll(any());
+	}
+
+	@Test
+	void reindexingReplacesTheStoredChunks() throws IOException {
+		extracts(paragraph("Fresh text."));
+		document.setIndexedAt(LocalDateTime.now());
+
+		assertThat(service.indexDocument(document)).extracting(DocumentChunk::getContent).containsExactly("Fresh text.");
+		verify(chunkRepository).deleteByDocumentId(7L);
+	}
+
+	private void extracts(ExtractedParagraph... paragraphs) throws IOException {
+		when(extractor.extractContent(document)).thenReturn(new ExtractedContent(List.of(paragraphs), null, 0, 0));
+	}
+
+	private static ExtractedParagraph paragraph(String text) {
+		return new ExtractedParagraph(null, null, false, text);
+	}
+
+	private static List<Integer> range(int size) {
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			indexes.add(i);
+		}
+		return indexes;
+	}
+}
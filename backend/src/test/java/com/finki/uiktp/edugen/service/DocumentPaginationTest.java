@@ -0,0 +1,118 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.dto.DocumentSummaryDto;
+import com.finki.uiktp.edugen.model.dto.PageResponse;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.Role;
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.repository.UserRepository;
+import com.finki.uiktp.edugen.service.Implementation.DocumentServiceImplementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Walks the keyset pages of a user's documents on the migrated H2 schema. Most documents share
+ * one upload time, so every page boundary falls inside a run of equal sort keys.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		// The schema comes from the migrations, Hibernate maps enums to native types on H2 and would reject it
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class DocumentPaginationTest {
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private DocumentService documentService;
+	private User owner;
+	private final List<Document> documents = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		documentService = new DocumentServiceImplementation(documentRepository, userRepository,
+				mock(DocumentChunkService.class), mock(QuestionService.class), mock(ThumbnailService.class),
+				mock(DashboardService.class), transactionManager);
+
+		owner = user("owner@example.com");
+		User other = user("other@example.com");
+
+		LocalDateTime tied = LocalDateTime.of(2024, 3, 1, 12, 0);
+		for (int i = 0; i < 9; i++) {
+			documents.add(document(owner, "Tied " + i, tied));
+		}
+		documents.add(document(owner, "Newest", tied.plusDays(1)));
+		documents.add(document(owner, "Oldest", tied.minusDays(1)));
+		document(other, "Someone else's", tied);
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void pagesNeitherSkipNorRepeatDocumentsWithEqualUploadTimes() {
+		List<Long> expected = documents.stream()
+				.sorted(Comparator.comparing(Document::getUploadedDate).thenComparing(Document::getId).reversed())
+				.map(Document::getId)
+				.toList();
+
+		for (int limit = 1; limit <= 4; limit++) {
+			List<Long> seen = new ArrayList<>();
+			String cursor = null;
+			int pages = 0;
+			do {
+				PageResponse<DocumentSummaryDto> page = documentService.listPageByUserId(owner.getId(), cursor, limit, false);
+				assertThat(page.getItems()).hasSizeLessThanOrEqualTo(limit);
+				page.getItems().forEach(document -> seen.add(document.id()));
+				cursor = page.getNextCursor();
+				pages++;
+			} while (cursor != null);
+
+			assertThat(seen).as("limit %d", limit).containsExactlyElementsOf(expected);
+			assertThat(pages).as("limit %d", limit).isEqualTo((expected.size() + limit - 1) / limit);
+		}
+	}
+
+	@Test
+	void countsOnlyWhenAsked() {
+		assertThat(documentService.listPageByUserId(owner.getId(), null, 5, false).getTotal()).isNull();
+		assertThat(documentService.listPageByUserId(owner.getId(), null, 5, true).getTotal()).isEqualTo(11L);
+	}
+
+	private User user(String email) {
+		User user = new User(email, LocalDate.of(1990, 1, 1), "070000000", email, Role.USER);
+		user.setPassword("password");
+		return entityManager.persist(user);
+	}
+
+	private Document document(User user, String title, LocalDateTime uploadedDate) {
+		Document document = new Document(title, DocumentType.LECTURE, DocumentFormat.PDF, "en", "uploads/" + title + ".pdf", user);
+		document.setUploadedDate(uploadedDate);
+		return entityManager.persist(document);
+	}
+}
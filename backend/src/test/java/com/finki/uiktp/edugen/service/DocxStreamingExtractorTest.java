@@ -0,0 +1,114 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.service.Implementation.DocxStreamingExtractor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the extractor over a fixture DOCX written the way Word stores it: a heading style, a table,
+ * a text box with both its DrawingML and VML alternatives, a legacy VML text box, an image and a field.
+ */
+class DocxStreamingExtractorTest {
+
+	private static final String NAMESPACES = "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\" "
+			+ "xmlns:mc=\"http://schemas.openxmlformats.org/markup-compatibility/2006\" "
+			+ "xmlns:wp=\"http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing\" "
+			+ "xmlns:a=\"http://schemas.openxmlformats.org/drawingml/2006/main\" "
+			+ "xmlns:wps=\"http://schemas.microsoft.com/office/word/2010/wordprocessingShape\" "
+			+ "xmlns:v=\"urn:schemas-microsoft-com:vml\"";
+
+	private static final String STYLES = "<w:styles " + NAMESPACES + ">"
+			+ "<w:style w:type=\"paragraph\" w:styleId=\"Heading1\"><w:name w:val=\"heading 1\"/></w:style>"
+			+ "<w:style w:type=\"paragraph\" w:styleId=\"Normal\"><w:name w:val=\"Normal\"/></w:style>"
+			+ "</w:styles>";
+
+	private static final String BODY = "<w:document " + NAMESPACES + "><w:body>"
+			+ "<w:p><w:pPr><w:pStyle w:val=\"Heading1\"/></w:pPr><w:r><w:t>Cell biology</w:t></w:r></w:p>"
+			+ "<w:p><w:r><w:t xml:space=\"preserve\">Cells divide </w:t></w:r><w:r><w:t>by mitosis.</w:t></w:r>"
+			// Text box in both alternatives, Word reads the choice and older readers the fallback
+			+ "<w:r><mc:AlternateContent>"
+			+ "<mc:Choice Requires=\"wps\"><w:drawing><wp:anchor><a:graphic><a:graphicData><wps:wsp><wps:txbx>"
+			+ "<w:txbxContent><w:p><w:r><w:t>Key term: chromosome</w:t></w:r></w:p></w:txbxContent>"
+			+ "</wps:txbx></wps:wsp></a:graphicData></a:graphic></wp:anchor></w:drawing></mc:Choice>"
+			+ "<mc:Fallback><w:pict><v:shape><v:textbox>"
+			+ "<w:txbxContent><w:p><w:r><w:t>Key term: chromosome</w:t></w:r></w:p></w:txbxContent>"
+			+ "</v:textbox></v:shape></w:pict></mc:Fallback>"
+			+ "</mc:AlternateContent></w:r></w:p>"
+			+ "<w:tbl><w:tr><w:tc><w:p><w:r><w:t>Prophase</w:t></w:r></w:p></w:tc>"
+			+ "<w:tc><w:p><w:r><w:t>Chromatin condenses</w:t></w:r></w:p></w:tc></w:tr></w:tbl>"
+			// Legacy VML text box without an alternative
+			+ "<w:p><w:r><w:pict><v:shape><v:textbox><w:txbxContent>"
+			+ "<w:p><w:r><w:t>Remember the phases</w:t></w:r></w:p>"
+			+ "</w:txbxContent></v:textbox></v:shape></w:pict></w:r></w:p>"
+			// An image without a text box and a page number field
+			+ "<w:p><w:r><w:drawing><wp:inline><a:graphic><a:graphicData><a:t>not body text</a:t></a:graphicData></a:graphic></wp:inline></w:drawing></w:r>"
+			+ "<w:r><w:instrText> PAGE </w:instrText></w:r><w:r><w:t>Figure 1</w:t></w:r></w:p>"
+			+ "</w:body></w:document>";
+
+	@TempDir
+	Path directory;
+
+	private final DocxStreamingExtractor extractor = new DocxStreamingExtractor();
+
+	@Test
+	void readsBodyTablesAndTextBoxesOnce() throws IOException {
+		List<String> paragraphs = new ArrayList<>();
+		List<String> headings = new ArrayList<>();
+		extractor.extract(fixture(BODY), (text, heading) -> {
+			paragraphs.add(text);
+			if (heading) {
+				headings.add(text);
+			}
+		});
+
+		assertThat(paragraphs).containsExactly(
+				"Cell biology",
+				"Key term: chromosome",
+				"Cells divide by mitosis.",
+				"Prophase",
+				"Chromatin condenses",
+				"Remember the phases",
+				"Figure 1");
+		assertThat(headings).containsExactly("Cell biology");
+	}
+
+	@Test
+	void rejectsPackagesWithoutADocumentPart() throws IOException {
+		Path file = directory.resolve("empty.docx");
+		try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+			zip.putNextEntry(new ZipEntry("word/styles.xml"));
+			zip.write(STYLES.getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+		}
+
+		assertThatThrownBy(() -> extractor.extract(file, (text, heading) -> { }))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("word/document.xml");
+	}
+
+	private Path fixture(String body) throws IOException {
+		Path file = directory.resolve("fixture.docx");
+		try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+			zip.putNextEntry(new ZipEntry("word/document.xml"));
+			zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" + body).getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+			zip.putNextEntry(new ZipEntry("word/styles.xml"));
+			zip.write(STYLES.getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+		}
+		return file;
+	}
+}
@@ -0,0 +1,93 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Exceptions.TooManyAttemptsException;
+import com.finki.uiktp.edugen.service.Implementation.LoginThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Uses one-second windows, the expiry tests wait for them to pass.
+ */
+class LoginThrottleTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private LoginThrottle throttle;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		throttle = new LoginThrottle(meterRegistry);
+		ReflectionTestUtils.setField(throttle, "maxAttemptsPerIp", 3);
+		ReflectionTestUtils.setField(throttle, "ipWindowSeconds", 1L);
+		ReflectionTestUtils.setField(throttle, "maxFailuresPerAccount", 2);
+		ReflectionTestUtils.setField(throttle, "accountWindowSeconds", 1L);
+		ReflectionTestUtils.setField(throttle, "maxTrackedKeys", 100L);
+		throttle.init();
+	}
+
+	@Test
+	void rejectsAttemptsFromAnAddressOverItsLimit() {
+		throttle.checkLogin("10.0.0.1", "a@example.com");
+		throttle.checkRegistration("10.0.0.1");
+		throttle.checkLogin("10.0.0.1", "b@example.com");
+
+		assertThatThrownBy(() -> throttle.checkLogin("10.0.0.1", "c@example.com"))
+				.isInstanceOfSatisfying(TooManyAttemptsException.class,
+						e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+		assertThatThrownBy(() -> throttle.checkRegistration("10.0.0.1"))
+				.isInstanceOf(TooManyAttemptsException.class);
+		assertThatCode(() -> throttle.checkLogin("10.0.0.2", "a@example.com")).doesNotThrowAnyException();
+		assertThat(throttled("ip")).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsSignInsToAnAccountOverItsFailureLimitUntilOneSucceeds() {
+		throttle.recordFailure("teacher@example.com");
+		assertThatCode(() -> throttle.checkLogin("10.0.0.1", "teacher@example.com")).doesNotThrowAnyException();
+		throttle.recordFailure(" Teacher@Example.com");
+
+		// From any address, and before the address is counted
+		assertThatThrownBy(() -> throttle.checkLogin("10.0.0.2", "TEACHER@example.com"))
+				.isInstanceOf(TooManyAttemptsException.class);
+		assertThatCode(() -> throttle.checkLogin("10.0.0.2", "other@example.com")).doesNotThrowAnyException();
+		assertThat(throttled("account")).isEqualTo(1);
+
+		throttle.recordSuccess("teacher@example.com");
+		assertThatCode(() -> throttle.checkLogin("10.0.0.2", "teacher@example.com")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void addressWindowReopensOnceItsOldestAttemptExpires() throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			throttle.checkLogin("10.0.0.1", "a@example.com");
+		}
+		assertThatThrownBy(() -> throttle.checkLogin("10.0.0.1", "a@example.com"))
+				.isInstanceOf(TooManyAttemptsException.class);
+
+		Thread.sleep(1100);
+
+		assertThatCode(() -> throttle.checkLogin("10.0.0.1", "a@example.com")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void accountWindowReopensOnceItsOldestFailureExpires() throws InterruptedException {
+		throttle.recordFailure("teacher@example.com");
+		throttle.recordFailure("teacher@example.com");
+		assertThatThrownBy(() -> throttle.checkLogin("10.0.0.1", "teacher@example.com"))
+				.isInstanceOf(TooManyAttemptsException.class);
+
+		Thread.sleep(1100);
+
+		assertThatCode(() -> throttle.checkLogin("10.0.0.1", "teacher@example.com")).doesNotThrowAnyException();
+	}
+
+	private double throttled(String scope) {
+		return meterRegistry.get("edugen.auth.throttled").tag("scope", scope).counter().count();
+	}
+}
@@ -0,0 +1,156 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion;
+import com.finki.uiktp.edugen.model.dto.ExportedQuestion.ExportedAnswer;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.service.Implementation.CsvExportWriter;
+import com.finki.uiktp.edugen.service.Implementation.DocxExportWriter;
+import com.finki.uiktp.edugen.service.Implementation.GiftExportWriter;
+import com.finki.uiktp.edugen.service.Implementation.MoodleXmlExportWriter;
+import com.finki.uiktp.edugen.service.Implementation.QtiExportWriter;
+import com.finki.uiktp.edugen.service.Implementation.QuestionExportWriter;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionExportWritersTest {
+
+	private static final List<ExportedQuestion> QUESTIONS = List.of(
+			new ExportedQuestion(1L, "What is 2 + 2? {trick: none}", QuestionType.MULTIPLE_CHOICE, 10L, "Arithmetic",
+					List.of(new ExportedAnswer("3", false), new ExportedAnswer("4", true), new ExportedAnswer("four", true))),
+			new ExportedQuestion(2L, "The sky is \"green\"", QuestionType.TRUE_FALSE, 10L, "Arithmetic",
+					List.of(new ExportedAnswer("True", false), new ExportedAnswer("False", true))),
+			new ExportedQuestion(3L, "Water boils at ___ degrees", QuestionType.FILL_IN_THE_BLANK, 11L, "Physics, part 1",
+					List.of(new ExportedAnswer("100", true))),
+			new ExportedQuestion(4L, "Explain gravity\u0001", QuestionType.MULTIPLE_CHOICE, 11L, "Physics, part 1", List.of()));
+
+	@Test
+	void giftEscapesControlCharactersAndMapsEveryType() throws IOException {
+		String gift = write(new GiftExportWriter());
+
+		assertThat(gift).contains("$CATEGORY: Arithmetic", "$CATEGORY: Physics, part 1");
+		assertThat(gift).contains("::Q1:: What is 2 + 2? \\{trick\\: none\\} {\n\t~%-100%3\n\t~%50%4\n\t~%50%four\n}");
+		assertThat(gift).contains("::Q2:: The sky is \"green\" {F}");
+		assertThat(gift).contains("::Q3:: Water boils at {=100 } degrees");
+	}
+
+	@Test
+	void csvWritesOneQuotedRowPerAnswer() throws IOException {
+		String csv = write(new CsvExportWriter());
+
+		assertThat(csv.lines()).hasSize(1 + 3 + 2 + 1 + 1);
+		assertThat(csv).contains("2,Arithmetic,TRUE_FALSE,\"The sky is \"\"green\"\"\",False,true");
+		assertThat(csv).contains("4,\"Physics, part 1\",MULTIPLE_CHOICE,Explain gravity\u0001,,");
+	}
+
+	@Test
+	void moodleXmlIsWellFormed() throws Exception {
+		Document xml = parse(write(new MoodleXmlExportWriter()).getBytes(StandardCharsets.UTF_8));
+
+		assertThat(xml.getElementsByTagName("question").getLength()).isEqualTo(2 + 4);
+		assertThat(xml.getDocumentElement().getTextContent()).contains("Explain gravity").doesNotContain("\u0001");
+
+		// The answers of the first question: its wrong answer takes the penalty
+		NodeList answers = xml.getElementsByTagName("answer");
+		List<String> fractions = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			fractions.add(((Element) answers.item(i)).getAttribute("fraction"));
+		}
+		assertThat(fractions).containsExactly("-100", "50", "50");
+	}
+
+	@Test
+	void wrongAnswersShareAPenaltyOnlyWhenSeveralAnswersAreCorrect() {
+		assertThat(QuestionExportWriter.wrongFraction(2, 1)).isEqualTo("-100");
+		assertThat(QuestionExportWriter.wrongFraction(2, 2)).isEqualTo("-50");
+		assertThat(QuestionExportWriter.wrongFraction(3, 3)).isEqualTo("-33.33333");
+		assertThat(QuestionExportWriter.wrongFraction(1, 3)).isEqualTo("0");
+		assertThat(QuestionExportWriter.wrongFraction(0, 3)).isEqualTo("0");
+	}
+
+	@Test
+	void choiceQuestionsWithoutACorrectAnswerAreExportedAsEssays() throws Exception {
+		List<ExportedQuestion> unanswered = List.of(
+				new ExportedQuestion(5L, "Which planet is largest?", QuestionType.MULTIPLE_CHOICE, 12L, "Astronomy",
+						List.of(new ExportedAnswer("Mars", false), new ExportedAnswer("Venus", false))),
+				new ExportedQuestion(6L, "Pluto is a planet", QuestionType.TRUE_FALSE, 12L, "Astronomy",
+						List.of(new ExportedAnswer("True", false), new ExportedAnswer("False", false))));
+
+		assertThat(write(new GiftExportWriter(), unanswered))
+				.contains("::Q5:: Which planet is largest? {}", "::Q6:: Pluto is a planet {}");
+
+		Document xml = parse(write(new MoodleXmlExportWriter(), unanswered).getBytes(StandardCharsets.UTF_8));
+		NodeList questions = xml.getElementsByTagName("question");
+		List<String> types = new ArrayList<>();
+		for (int i = 0; i < questions.getLength(); i++) {
+			types.add(((Element) questions.item(i)).getAttribute("type"));
+		}
+		assertThat(types).containsExactly("category", "essay", "essay");
+		assertThat(xml.getElementsByTagName("answer").getLength()).isZero();
+	}
+
+	@Test
+	void qtiPackageHasAnItemPerQuestionAndAManifest() throws Exception {
+		List<String> entries = zipEntries(new QtiExportWriter(), "imsmanifest.xml");
+
+		assertThat(entries).containsExactly("items/item-1.xml", "items/item-2.xml", "items/item-3.xml",
+				"items/item-4.xml", "imsmanifest.xml");
+	}
+
+	@Test
+	void docxPackageHasTheMainParts() throws Exception {
+		List<String> entries = zipEntries(new DocxExportWriter(), "word/document.xml");
+
+		assertThat(entries).contains("[Content_Types].xml", "_rels/.rels", "word/styles.xml", "word/document.xml");
+	}
+
+	private static String write(QuestionExportWriter writer) throws IOException {
+		return write(writer, QUESTIONS);
+	}
+
+	private static String write(QuestionExportWriter writer, List<ExportedQuestion> questions) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.write(questions.iterator(), out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Lists the entries of the written zip, parsing every XML part to check it is well-formed.
+	 */
+	private static List<String> zipEntries(QuestionExportWriter writer, String... xmlParts) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.write(QUESTIONS.iterator(), out);
+
+		List<String> entries = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				entries.add(entry.getName());
+				if (entry.getName().endsWith(".xml")) {
+					parse(zip.readAllBytes());
+				}
+			}
+		}
+		assertThat(entries).contains(xmlParts);
+		return entries;
+	}
+
+	private static Document parse(byte[] xml) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+	}
+}
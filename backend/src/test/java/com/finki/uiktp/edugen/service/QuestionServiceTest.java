@@ -0,0 +1,238 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Answer;
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.AnswerNotFoundException;
+import com.finki.uiktp.edugen.model.Exceptions.DocumentNotFoundException;
+import com.finki.uiktp.edugen.model.Question;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.dto.BulkQuestionUpdateRequest;
+import com.finki.uiktp.edugen.model.dto.QuestionPatchRequest;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.QuestionType;
+import com.finki.uiktp.edugen.model.enums.Role;
+import com.finki.uiktp.edugen.repository.AnswerRepository;
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.repository.QuestionRepository;
+import com.finki.uiktp.edugen.service.Implementation.QuestionServiceImplementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the question service against the migrated H2 schema, the dashboard counters are mocked.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		// The schema comes from the migrations, Hibernate maps enums to native types on H2 and would reject it
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class QuestionServiceTest {
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private QuestionService questionService;
+	private User owner;
+	private Document lecture;
+	private Question question;
+	private Question otherQuestion;
+	private Document strangersLecture;
+	private Question strangersQuestion;
+
+	@BeforeEach
+	void setUp() {
+		questionService = new QuestionServiceImplementation(questionRepository, answerRepository, documentRepository,
+				mock(DashboardService.class));
+		ReflectionTestUtils.setField(questionService, "maxBulkSize", 1000);
+
+		owner = user("owner@example.com");
+		lecture = document(owner, "Lecture");
+		question = question(lecture, "Which organelle makes ATP?", "Mitochondrion", "Ribosome", "Nucleus");
+		otherQuestion = question(lecture, "Which base pairs with adenine?", "Thymine", "Guanine");
+		strangersLecture = document(user("stranger@example.com"), "Stranger's lecture");
+		strangersQuestion = question(strangersLecture, "What is the capital of France?", "Paris", "Lyon");
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void patchUpdatesListedAnswersInsertsNewOnesAndDeletesTheRest() {
+		List<Answer> answers = answersOf(question.getId());
+		Answer mitochondrion = answers.get(0);
+		Answer ribosome = answers.get(1);
+
+		QuestionPatchRequest patch = new QuestionPatchRequest();
+		patch.setText("Which organelle produces most ATP?");
+		patch.setAnswers(List.of(
+				answerPatch(mitochondrion.getId(), "Mitochondria", null),
+				answerPatch(ribosome.getId(), null, true),
+				answerPatch(null, "Chloroplast", false)));
+
+		Question patched = questionService.patch(question.getId(), patch);
+		assertThat(patched.getAnswers()).allSatisfy(answer -> assertThat(answer.getId()).isNotNull());
+		Long chloroplastId = patched.getAnswers().get(patched.getAnswers().size() - 1).getId();
+		entityManager.clear();
+
+		Question stored = questionRepository.findById(question.getId()).orElseThrow();
+		assertThat(stored.getText()).isEqualTo("Which organelle produces most ATP?");
+		assertThat(stored.getType()).isEqualTo(QuestionType.MULTIPLE_CHOICE);
+		assertThat(answersOf(question.getId()))
+				.extracting(Answer::getId, Answer::getText, Answer::isCorrect)
+				.containsExactlyInAnyOrder(
+						tuple(mitochondrion.getId(), "Mitochondria", true),
+						tuple(ribosome.getId(), "Ribosome", true),
+						tuple(chloroplastId, "Chloroplast", false));
+		// The nucleus was not listed and is gone, the other question keeps its answers
+		assertThat(answerRepository.findAll()).extracting(Answer::getText).doesNotContain("Nucleus");
+		assertThat(answersOf(otherQuestion.getId())).hasSize(2);
+	}
+
+	@Test
+	void patchWithoutAnswersLeavesThemAlone() {
+		QuestionPatchRequest patch = new QuestionPatchRequest();
+		patch.setType(QuestionType.TRUE_FALSE);
+
+		questionService.patch(question.getId(), patch);
+		entityManager.clear();
+
+		assertThat(questionRepository.findById(question.getId()).orElseThrow().getType()).isEqualTo(QuestionType.TRUE_FALSE);
+		assertThat(answersOf(question.getId())).hasSize(3);
+	}
+
+	@Test
+	void patchRejectsAnAnswerOfAnotherQuestionAsNotFound() {
+		Long foreignAnswerId = answersOf(otherQuestion.getId()).get(0).getId();
+		QuestionPatchRequest patch = new QuestionPatchRequest();
+		patch.setAnswers(List.of(answerPatch(foreignAnswerId, "Stolen", true)));
+
+		assertThatThrownBy(() -> questionService.patch(question.getId(), patch))
+				.isInstanceOf(AnswerNotFoundException.class);
+		ResponseStatus status = AnnotationUtils.findAnnotation(AnswerNotFoundException.class, ResponseStatus.class);
+		assertThat(status.value()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void patchRejectsNewAnswersWithoutText() {
+		QuestionPatchRequest patch = new QuestionPatchRequest();
+		patch.setAnswers(List.of(answerPatch(null, " ", true)));
+
+		assertThatThrownBy(() -> questionService.patch(question.getId(), patch))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void bulkDeleteSkipsQuestionsOfOtherUsers() {
+		int deleted = questionService.deleteAll(List.of(question.getId(), strangersQuestion.getId()), owner.getId());
+		entityManager.clear();
+
+		assertThat(deleted).isEqualTo(1);
+		assertThat(questionRepository.findById(question.getId())).isEmpty();
+		assertThat(answersOf(question.getId())).isEmpty();
+		assertThat(questionRepository.findById(strangersQuestion.getId())).isPresent();
+		assertThat(answersOf(strangersQuestion.getId())).hasSize(2);
+	}
+
+	@Test
+	void bulkDeleteOfOnlyOtherUsersQuestionsDeletesNothing() {
+		assertThat(questionService.deleteAll(List.of(strangersQuestion.getId()), owner.getId())).isZero();
+		entityManager.clear();
+
+		assertThat(questionRepository.findById(strangersQuestion.getId())).isPresent();
+		assertThat(answersOf(strangersQuestion.getId())).hasSize(2);
+	}
+
+	@Test
+	void bulkMoveAndRetypeSkipQuestionsOfOtherUsers() {
+		Document slides = document(owner, "Slides");
+		BulkQuestionUpdateRequest request = new BulkQuestionUpdateRequest();
+		request.setIds(List.of(question.getId(), strangersQuestion.getId()));
+		request.setDocumentId(slides.getId());
+		request.setType(QuestionType.TRUE_FALSE);
+
+		assertThat(questionService.bulkUpdate(request, owner.getId())).isEqualTo(1);
+		entityManager.clear();
+
+		Question moved = questionRepository.findById(question.getId()).orElseThrow();
+		assertThat(moved.getDocument().getId()).isEqualTo(slides.getId());
+		assertThat(moved.getType()).isEqualTo(QuestionType.TRUE_FALSE);
+		Question untouched = questionRepository.findById(strangersQuestion.getId()).orElseThrow();
+		assertThat(untouched.getDocument().getId()).isEqualTo(strangersLecture.getId());
+		assertThat(untouched.getType()).isEqualTo(QuestionType.MULTIPLE_CHOICE);
+		assertThat(untouched.getVersion()).isEqualTo(strangersQuestion.getVersion());
+	}
+
+	@Test
+	void bulkMoveIntoAnotherUsersDocumentIsNotFound() {
+		BulkQuestionUpdateRequest request = new BulkQuestionUpdateRequest();
+		request.setIds(List.of(question.getId()));
+		request.setDocumentId(strangersLecture.getId());
+
+		assertThatThrownBy(() -> questionService.bulkUpdate(request, owner.getId()))
+				.isInstanceOf(DocumentNotFoundException.class);
+		entityManager.clear();
+
+		assertThat(questionRepository.findById(question.getId()).orElseThrow().getDocument().getId())
+				.isEqualTo(lecture.getId());
+	}
+
+	private List<Answer> answersOf(Long questionId) {
+		return answerRepository.findAll().stream()
+				.filter(answer -> answer.getQuestion().getId().equals(questionId))
+				.sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+				.toList();
+	}
+
+	private User user(String email) {
+		User user = new User(email, LocalDate.of(1990, 1, 1), "070000000", email, Role.USER);
+		user.setPassword("password");
+		return entityManager.persist(user);
+	}
+
+	private Document document(User user, String title) {
+		return entityManager.persist(new Document(title, DocumentType.LECTURE, DocumentFormat.PDF, "en",
+				"uploads/" + title + ".pdf", user));
+	}
+
+	private Question question(Document document, String text, String correct, String... wrong) {
+		Question question = new Question(document, text, QuestionType.MULTIPLE_CHOICE);
+		question.addAnswer(new Answer(question, correct, true));
+		for (String answer : wrong) {
+			question.addAnswer(new Answer(question, answer, false));
+		}
+		return entityManager.persist(question);
+	}
+
+	private static QuestionPatchRequest.AnswerPatch answerPatch(Long id, String text, Boolean isCorrect) {
+		QuestionPatchRequest.AnswerPatch patch = new QuestionPatchRequest.AnswerPatch();
+		patch.setId(id);
+		patch.setText(text);
+		patch.setIsCorrect(isCorrect);
+		return patch;
+	}
+}
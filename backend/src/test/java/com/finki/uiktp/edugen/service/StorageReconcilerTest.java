@@ -0,0 +1,124 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.model.enums.Role;
+import com.finki.uiktp.edugen.repository.DocumentRepository;
+import com.finki.uiktp.edugen.service.Implementation.StorageReconciler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the reconciler against the migrated H2 schema and a temporary upload directory.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		// The schema comes from the migrations, Hibernate maps enums to native types on H2 and would reject it
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class StorageReconcilerTest {
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@TempDir
+	Path uploads;
+
+	private SimpleMeterRegistry meterRegistry;
+	private StorageReconciler reconciler;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		reconciler = new StorageReconciler(documentRepository, transactionManager, meterRegistry);
+		ReflectionTestUtils.setField(reconciler, "uploadDir", uploads.toString());
+		ReflectionTestUtils.setField(reconciler, "orphanGracePeriodHours", 24L);
+		ReflectionTestUtils.setField(reconciler, "maxReportedMissing", 20);
+
+		user = new User("teacher", LocalDate.of(1990, 1, 1), "070000000", "teacher@example.com", Role.USER);
+		user.setPassword("password");
+		entityManager.persist(user);
+	}
+
+	@Test
+	void deletesOldOrphansKeepsReferencedAndRecentFilesAndCountsMissingOnes() throws IOException {
+		Path referenced = storedFile("b-lecture.pdf", Duration.ofDays(3));
+		Path shared = storedFile("a-shared.pdf", Duration.ofDays(3));
+		Path oldOrphan = storedFile("c-orphan.pdf", Duration.ofDays(3));
+		Path recentOrphan = storedFile("d-uploading.pdf", Duration.ofMinutes(5));
+		Path hidden = storedFile(".upload-scratch", Duration.ofDays(3));
+
+		document(referenced.toString());
+		document(shared.toString());
+		document(shared.toString());
+		// Stored under another path, the file name is what is matched
+		document("uploads/b-lecture.pdf");
+		document(uploads.resolve("gone.pdf").toString());
+		document(uploads.resolve("also-gone.pdf").toString());
+		entityManager.flush();
+
+		reconciler.reconcile();
+
+		assertThat(referenced).exists();
+		assertThat(shared).exists();
+		assertThat(recentOrphan).exists();
+		assertThat(hidden).exists();
+		assertThat(oldOrphan).doesNotExist();
+
+		assertThat(meterRegistry.get("edugen.storage.orphans.deleted").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("edugen.storage.orphans.pending").gauge().value()).isEqualTo(1);
+		assertThat(meterRegistry.get("edugen.storage.missing").gauge().value()).isEqualTo(2);
+		assertThat(meterRegistry.get("edugen.storage.files").gauge().value()).isEqualTo(3);
+	}
+
+	@Test
+	void deletesAFileOnlyWhileNoDocumentReferencesIt() throws IOException {
+		Path file = storedFile("late.pdf", Duration.ofDays(3));
+		entityManager.flush();
+		reconciler.reconcile();
+		assertThat(file).doesNotExist();
+
+		Path again = storedFile("late.pdf", Duration.ofDays(3));
+		document(again.toString());
+		entityManager.flush();
+		reconciler.reconcile();
+		assertThat(again).exists();
+		assertThat(meterRegistry.get("edugen.storage.missing").gauge().value()).isZero();
+	}
+
+	private Path storedFile(String name, Duration age) throws IOException {
+		Path file = Files.writeString(uploads.resolve(name), name);
+		Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+		return file;
+	}
+
+	private void document(String filePath) {
+		entityManager.persist(new Document("Lecture", DocumentType.LECTURE, DocumentFormat.PDF, "en", filePath, user));
+	}
+}
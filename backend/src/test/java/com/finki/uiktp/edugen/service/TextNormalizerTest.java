@@ -0,0 +1,120 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.service.Implementation.TextNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizerTest {
+
+	private TextNormalizer normalizer;
+
+	@BeforeEach
+	void setUp() {
+		normalizer = new TextNormalizer();
+		ReflectionTestUtils.setField(normalizer, "enabled", true);
+		ReflectionTestUtils.setField(normalizer, "edgeLines", 2);
+		ReflectionTestUtils.setField(normalizer, "repeatThreshold", 0.5);
+		ReflectionTestUtils.setField(normalizer, "minPages", 3);
+	}
+
+	@Test
+	void rejoinsWordsHyphenatedAcrossLineBreaks() {
+		List<String> pages = normalizer.normalizePages(List.of(
+				"Plants rely on photo-\n  synthesis to grow.\nThe rule holds for Anglo-\nSaxon texts."));
+
+		// A capital after the hyphen marks a compound that only happened to break at the line end
+		assertThat(pages).containsExactly("Plants rely on photosynthesis to grow.\nThe rule holds for Anglo-\nSaxon texts.");
+	}
+
+	@Test
+	void collapsesWhitespaceRuns() {
+		List<String> pages = normalizer.normalizePages(List.of(
+				"  Cells\t\tdivide   by   mitosis.  \n\n\n\n\nDaughter cells\fare identical.\r\n"));
+
+		assertThat(pages).containsExactly("Cells divide by mitosis.\n\nDaughter cells are identical.");
+		assertThat(normalizer.normalizeParagraph(" Cells \t divide ")).isEqualTo("Cells divide");
+	}
+
+	@Test
+	void removesRunningHeadersFootersAndPageNumbers() {
+		List<String> pages = normalizer.normalizePages(List.of(
+				"Biology 101 - Chapter 3\nMitosis has four phases.\nPage 1 of 3",
+				"Biology 101 - Chapter 3\nProphase comes first.\nPage 2 of 3",
+				"Biology 101 - Chapter 3\nTelophase comes last.\nPage 3 of 3"));
+
+		assertThat(pages).containsExactly("Mitosis has four phases.", "Prophase comes first.", "Telophase comes last.");
+	}
+
+	@Test
+	void keepsLinesThatOnlyRepeatOnAFewPages() {
+		List<String> pages = normalizer.normalizePages(List.of(
+				"Summary\nMitosis has four phases.",
+				"Prophase comes first.\nMetaphase follows.",
+				"Anaphase separates chromatids.\nTelophase comes last.",
+				"Cytokinesis divides the cell.\nThe cycle repeats."));
+
+		assertThat(pages.get(0)).isEqualTo("Summary\nMitosis has four phases.");
+	}
+
+	@Test
+	void takesRomanNumeralsAsPageNumbersOnlyWhereOneIsExpected() {
+		List<String> frontMatter = normalizer.normalizePages(List.of(
+				"Preface\nThis book covers cell biology.\ni",
+				"Acknowledgements\nWe thank our students.\nii",
+				"Contents\nChapter 1 Cells\niii"));
+		assertThat(frontMatter).containsExactly(
+				"Preface\nThis book covers cell biology.",
+				"Acknowledgements\nWe thank our students.",
+				"Contents\nChapter 1 Cells");
+
+		List<String> body = normalizer.normalizePages(List.of(
+				"Combine flour and butter.\nmix",
+				"Leave the dough to rest.\ndid",
+				"Bake until golden.\ncivic"));
+		assertThat(body).containsExactly(
+				"Combine flour and butter.\nmix",
+				"Leave the dough to rest.\ndid",
+				"Bake until golden.\ncivic");
+
+		assertThat(normalizer.normalizePages(List.of("Introduction\nCells are small.\nXIV")))
+				.containsExactly("Introduction\nCells are small.");
+		assertThat(normalizer.normalizePages(List.of("Introduction\nCells are small.\nPage iv")))
+				.containsExactly("Introduction\nCells are small.");
+	}
+
+	@Test
+	void removesBoilerplateLines() {
+		List<String> boilerplate = List.of(
+				"© 2021 Pearson Education, Inc. All rights reserved.",
+				"Copyright 2015-2019 Oxford University Press",
+				"All rights reserved.",
+				"This page intentionally left blank",
+				"Downloaded from https://academic.oup.com/biology on 12 May 2021",
+				"Retrieved from www.example.org",
+				"Printed in the United States of America",
+				"Printed in Great Britain by Clays Ltd");
+
+		for (String line : boilerplate) {
+			assertThat(normalizer.normalizeParagraph(line)).as(line).isEmpty();
+		}
+	}
+
+	@Test
+	void keepsProseThatMentionsBoilerplateWords() {
+		List<String> prose = List.of(
+				"Retrieved from the ocean floor, the samples were dated to the Jurassic.",
+				"Printed in the 1800s, the atlas sold widely.",
+				"The treaty left all rights reserved to the crown until 1920.",
+				"Copyright law changed in 1976. Authors gained longer terms.",
+				"Downloaded from the archive, the letters reveal his doubts.");
+
+		for (String line : prose) {
+			assertThat(normalizer.normalizeParagraph(line)).as(line).isEqualTo(line);
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.ServiceBusyException;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.service.Implementation.DocumentTextExtractor;
+import com.finki.uiktp.edugen.service.Implementation.ThumbnailServiceImplementation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThumbnailServiceTest {
+
+	private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G'};
+
+	@TempDir
+	Path directory;
+
+	private DocumentTextExtractor extractor;
+	private SimpleMeterRegistry meterRegistry;
+	private ThumbnailServiceImplementation thumbnailService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		extractor = mock(DocumentTextExtractor.class);
+		when(extractor.loadPdf(any())).thenAnswer(invocation -> onePagePdf());
+		meterRegistry = new SimpleMeterRegistry();
+
+		thumbnailService = new ThumbnailServiceImplementation(extractor, meterRegistry);
+		ReflectionTestUtils.setField(thumbnailService, "cacheDir", directory.resolve("thumbnails").toString());
+		ReflectionTestUtils.setField(thumbnailService, "maxCacheMb", 1L);
+		ReflectionTestUtils.setField(thumbnailService, "defaultWidth", 200);
+		ReflectionTestUtils.setField(thumbnailService, "maxConcurrentRenders", 1);
+		ReflectionTestUtils.setField(thumbnailService, "renderTimeoutMs", 100L);
+		ReflectionTestUtils.setField(thumbnailService, "queueCapacity", 10);
+		thumbnailService.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		thumbnailService.shutdown();
+	}
+
+	@Test
+	void rendersOnceAtTheSnappedWidthAndServesTheCachedFileAfterwards() throws IOException {
+		Document document = pdf(1L);
+		Path cached = directory.resolve("thumbnails").resolve("1-200.png");
+
+		byte[] rendered = read(thumbnailService.getThumbnail(document, 150).orElseThrow());
+		assertThat(rendered).startsWith(PNG_SIGNATURE);
+		assertThat(cached).hasBinaryContent(rendered);
+
+		assertThat(read(thumbnailService.getThumbnail(document, 200).orElseThrow())).isEqualTo(rendered);
+		verify(extractor, times(1)).loadPdf(any());
+		assertThat(meterRegistry.get("edugen.thumbnail.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("edugen.thumbnail.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+
+		thumbnailService.evict(1L);
+		assertThat(cached).doesNotExist();
+	}
+
+	@Test
+	void aThumbnailEvictedBetweenLookupAndWriteIsStillServedWhole() throws IOException {
+		Document document = pdf(1L);
+		byte[] rendered = read(thumbnailService.getThumbnail(document, 200).orElseThrow());
+
+		try (InputStream hit = thumbnailService.getThumbnail(document, 200).orElseThrow()) {
+			// Deletes the cached file after the lookup, before the response is written
+			thumbnailService.evict(1L);
+			assertThat(directory.resolve("thumbnails").resolve("1-200.png")).doesNotExist();
+
+			assertThat(hit.readAllBytes()).isEqualTo(rendered);
+		}
+	}
+
+	@Test
+	void rejectsRendersBeyondTheConcurrencyLimit() throws Exception {
+		CountDownLatch rendering = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(extractor.loadPdf(any())).thenAnswer(invocation -> {
+			rendering.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return onePagePdf();
+		});
+
+		CompletableFuture<Optional<InputStream>> first = CompletableFuture.supplyAsync(() -> {
+			try {
+				return thumbnailService.getThumbnail(pdf(1L), 200);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertThat(rendering.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// The only permit is held by the first render, the second request gives up after the timeout
+		assertThatThrownBy(() -> thumbnailService.getThumbnail(pdf(2L), 200))
+				.isInstanceOf(ServiceBusyException.class);
+
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isPresent();
+		assertThat(thumbnailService.getThumbnail(pdf(2L), 200)).isPresent();
+	}
+
+	@Test
+	void documentsOtherThanPdfsHaveNoThumbnail() throws IOException {
+		Document document = pdf(3L);
+		document.setFormat(DocumentFormat.DOCX);
+
+		assertThat(thumbnailService.getThumbnail(document, 200)).isEmpty();
+	}
+
+	private static byte[] read(InputStream thumbnail) throws IOException {
+		try (thumbnail) {
+			return thumbnail.readAllBytes();
+		}
+	}
+
+	private Document pdf(Long id) throws IOException {
+		Path file = directory.resolve("document-" + id + ".pdf");
+		if (!Files.exists(file)) {
+			Files.write(file, new byte[]{'%', 'P', 'D', 'F'});
+		}
+		Document document = new Document();
+		document.setId(id);
+		document.setFormat(DocumentFormat.PDF);
+		document.setFilePath(file.toString());
+		return document;
+	}
+
+	private static PDDocument onePagePdf() {
+		PDDocument pdf = new PDDocument();
+		pdf.addPage(new PDPage());
+		return pdf;
+	}
+}
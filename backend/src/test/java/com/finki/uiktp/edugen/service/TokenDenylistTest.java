@@ -0,0 +1,79 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.RevokedToken;
+import com.finki.uiktp.edugen.repository.RevokedTokenRepository;
+import com.finki.uiktp.edugen.service.Implementation.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenDenylistTest {
+
+	private RevokedTokenRepository repository;
+	private TokenDenylist denylist;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RevokedTokenRepository.class);
+		denylist = new TokenDenylist(repository, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(denylist, "expectedEntries", 1000);
+		ReflectionTestUtils.setField(denylist, "syncOverlapSeconds", 60L);
+	}
+
+	@Test
+	void revokedTokensAreRejectedAndOthersPass() {
+		denylist.init();
+		String jti = UUID.randomUUID().toString();
+
+		denylist.revoke(jti, 1L, Instant.now().plus(1, ChronoUnit.HOURS));
+
+		assertThat(denylist.isRevoked(jti)).isTrue();
+		assertThat(denylist.isRevoked(new String(jti))).isTrue();
+		assertThat(denylist.isRevoked(UUID.randomUUID().toString())).isFalse();
+		assertThat(denylist.isRevoked(null)).isFalse();
+		verify(repository).save(any(RevokedToken.class));
+	}
+
+	@Test
+	void persistedRevocationsAreLoadedAndSynced() {
+		String loaded = UUID.randomUUID().toString();
+		String synced = UUID.randomUUID().toString();
+		LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+		when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(new RevokedToken(loaded, 1L, expiresAt)));
+		when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+				.thenReturn(List.of(new RevokedToken(synced, 2L, expiresAt)));
+
+		denylist.init();
+		assertThat(denylist.isRevoked(loaded)).isTrue();
+		assertThat(denylist.isRevoked(synced)).isFalse();
+
+		denylist.sync();
+		assertThat(denylist.isRevoked(synced)).isTrue();
+	}
+
+	@Test
+	void expiredEntriesArePurged() {
+		String expired = UUID.randomUUID().toString();
+		when(repository.findByExpiresAtAfter(any()))
+				.thenReturn(List.of(new RevokedToken(expired, 1L, LocalDateTime.now().minusSeconds(1))));
+		denylist.init();
+
+		denylist.purge();
+
+		assertThat(denylist.isRevoked(expired)).isFalse();
+		verify(repository).deleteExpired(any());
+	}
+}
@@ -0,0 +1,302 @@
+package com.finki.uiktp.edugen.service;
+
+import com.finki.uiktp.edugen.model.Document;
+import com.finki.uiktp.edugen.model.Exceptions.UploadConflictException;
+import com.finki.uiktp.edugen.model.Exceptions.UploadSessionNotFoundException;
+import com.finki.uiktp.edugen.model.UploadSession;
+import com.finki.uiktp.edugen.model.User;
+import com.finki.uiktp.edugen.model.enums.DocumentFormat;
+import com.finki.uiktp.edugen.model.enums.DocumentType;
+import com.finki.uiktp.edugen.repository.UploadSessionRepository;
+import com.finki.uiktp.edugen.repository.UserRepository;
+import com.finki.uiktp.edugen.service.Implementation.UploadServiceImplementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the resumable upload protocol against a partial file in a temp directory. The session repository
+ * is backed by a map and hands out a fresh copy on every read, like the detached entities of separate requests.
+ */
+class UploadServiceTest {
+
+	@TempDir
+	Path directory;
+
+	private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+	/**
+	 * Runs once during the next session read, after the stored state was copied.
+	 */
+	private final AtomicReference<Runnable> duringNextRead = new AtomicReference<>();
+
+	private DocumentService documentService;
+	private UploadService uploadService;
+	private User owner;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		owner = user(1L);
+		User stranger = user(2L);
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+		when(userRepository.findById(2L)).thenReturn(Optional.of(stranger));
+
+		documentService = mock(DocumentService.class);
+		when(documentService.validateUpload(anyString(), anyString(), anyLong())).thenReturn(DocumentFormat.TXT);
+
+		uploadService = new UploadServiceImplementation(sessionRepository(), userRepository, documentService);
+		ReflectionTestUtils.setField(uploadService, "tempDir", directory.resolve("partial").toString());
+		ReflectionTestUtils.setField(uploadService, "sessionExpiryHours", 24L);
+		((UploadServiceImplementation) uploadService).init();
+	}
+
+	@Test
+	void chunksAreAppendedAtTheReportedOffsetAndCompletingHandsTheFileOver() throws IOException {
+		UploadSession session = initiate(11);
+		assertThat(uploadService.getSession(session.getId(), 1L).getReceivedBytes()).isZero();
+		assertThat(Paths.get(session.getTempPath())).isEmptyFile();
+
+		assertThat(append(session, 0, "Hello").getReceivedBytes()).isEqualTo(5);
+		assertThat(append(session, 5, " world").getReceivedBytes()).isEqualTo(11);
+
+		AtomicReference<String> handedOver = new AtomicReference<>();
+		Document document = new Document();
+		when(documentService.uploadDocument(eq(1L), eq("Notes"), eq("en"), eq(DocumentType.LECTURE), eq("notes.txt"),
+				any(Path.class))).thenAnswer(invocation -> {
+			handedOver.set(Files.readString(invocation.getArgument(5, Path.class)));
+			return document;
+		});
+
+		assertThat(uploadService.complete(session.getId(), 1L)).isSameAs(document);
+		assertThat(handedOver.get()).isEqualTo("Hello world");
+		assertThat(sessions).isEmpty();
+	}
+
+	@Test
+	void aChunkAtAnotherOffsetIsAConflictReportingTheExpectedOne() throws IOException {
+		UploadSession session = initiate(11);
+		append(session, 0, "Hello");
+
+		assertThatThrownBy(() -> append(session, 3, "lo world"))
+				.isInstanceOfSatisfying(UploadConflictException.class,
+						e -> assertThat(e.getExpectedOffset()).isEqualTo(5));
+		assertThatThrownBy(() -> append(session, 0, "Hello"))
+				.isInstanceOf(UploadConflictException.class);
+		assertThat(Paths.get(session.getTempPath())).hasContent("Hello");
+	}
+
+	@Test
+	void aChunkPastTheDeclaredSizeIsRejected() throws IOException {
+		UploadSession session = initiate(5);
+
+		assertThatThrownBy(() -> append(session, 0, "Hello world"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(uploadService.getSession(session.getId(), 1L).getReceivedBytes()).isZero();
+		assertThat(append(session, 0, "Hello").getReceivedBytes()).isEqualTo(5);
+	}
+
+	@Test
+	void aDroppedChunkKeepsWhatArrivedAndTheUploadResumesRightAfterIt() throws IOException {
+		UploadSession session = initiate(11);
+		InputStream dropped = new InputStream() {
+			private final InputStream arrived = new ByteArrayInputStream("Hell".getBytes(StandardCharsets.UTF_8));
+
+			@Override
+			public int read() throws IOException {
+				int next = arrived.read();
+				if (next == -1) {
+					throw new IOException("Connection reset");
+				}
+				return next;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int read = arrived.read(b, off, len);
+				if (read == -1) {
+					throw new IOException("Connection reset");
+				}
+				return read;
+			}
+		};
+
+		assertThatThrownBy(() -> uploadService.appendChunk(session.getId(), 1L, 0, dropped))
+				.isInstanceOf(IOException.class);
+		long offset = uploadService.getSession(session.getId(), 1L).getReceivedBytes();
+		assertThat(offset).isEqualTo(4);
+
+		append(session, offset, "o world");
+		assertThat(Paths.get(session.getTempPath())).hasContent("Hello world");
+	}
+
+	@Test
+	void unacknowledgedBytesOfAnInterruptedChunkAreOverwritten() throws IOException {
+		UploadSession session = initiate(11);
+		append(session, 0, "Hello");
+		// Reached the disk, but the session was never updated
+		Files.writeString(Paths.get(session.getTempPath()), " wor", StandardOpenOption.APPEND);
+
+		assertThat(append(session, 5, " world").getReceivedBytes()).isEqualTo(11);
+		assertThat(Paths.get(session.getTempPath())).hasContent("Hello world");
+	}
+
+	@Test
+	void aChunkReadsTheOffsetOnlyOnceItHoldsTheUpload() throws IOException {
+		UploadSession session = initiate(8);
+		AtomicReference<CompletableFuture<UploadSession>> other = new AtomicReference<>();
+		// Another request for the same upload arrives while this one reads the session
+		duringNextRead.set(() -> {
+			CompletableFuture<UploadSession> chunk = CompletableFuture.supplyAsync(() -> {
+				try {
+					return append(session, 0, "AAAA");
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			other.set(chunk);
+			chunk.handle((result, failure) -> null).join();
+		});
+
+		assertThat(append(session, 0, "BBBB").getReceivedBytes()).isEqualTo(4);
+
+		// Only one of the two chunks at offset 0 may be accepted, an acknowledged chunk is never overwritten
+		assertThatThrownBy(() -> other.get().get(5, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(UploadConflictException.class);
+		assertThat(Paths.get(session.getTempPath())).hasContent("BBBB");
+	}
+
+	@Test
+	void completingBeforeEveryByteArrivedIsAConflict() throws IOException {
+		UploadSession session = initiate(11);
+		append(session, 0, "Hello");
+
+		assertThatThrownBy(() -> uploadService.complete(session.getId(), 1L))
+				.isInstanceOfSatisfying(UploadConflictException.class,
+						e -> assertThat(e.getExpectedOffset()).isEqualTo(5));
+		verify(documentService, never()).uploadDocument(anyLong(), any(), any(), any(), anyString(), any(Path.class));
+		assertThat(sessions).containsKey(session.getId());
+	}
+
+	@Test
+	void abortingDeletesThePartialFileAndTheSession() throws IOException {
+		UploadSession session = initiate(11);
+		append(session, 0, "Hello");
+
+		uploadService.abort(session.getId(), 1L);
+
+		assertThat(Paths.get(session.getTempPath())).doesNotExist();
+		assertThatThrownBy(() -> uploadService.getSession(session.getId(), 1L))
+				.isInstanceOf(UploadSessionNotFoundException.class);
+	}
+
+	@Test
+	void uploadsOfOtherUsersAreNotFound() throws IOException {
+		UploadSession session = initiate(11);
+
+		assertThatThrownBy(() -> uploadService.appendChunk(session.getId(), 2L, 0, stream("Hello")))
+				.isInstanceOf(UploadSessionNotFoundException.class);
+		assertThatThrownBy(() -> uploadService.abort(session.getId(), 2L))
+				.isInstanceOf(UploadSessionNotFoundException.class);
+		assertThat(Paths.get(session.getTempPath())).exists();
+		// The failed attempts left the upload free for its owner
+		assertThat(append(session, 0, "Hello").getReceivedBytes()).isEqualTo(5);
+	}
+
+	@Test
+	void expiredSessionsAreDeletedWithTheirFiles() throws IOException {
+		UploadSession expired = initiate(11);
+		sessions.get(expired.getId()).setUpdatedAt(LocalDateTime.now().minusHours(25));
+		UploadSession active = initiate(11);
+
+		uploadService.deleteExpiredSessions();
+
+		assertThat(sessions).containsOnlyKeys(active.getId());
+		assertThat(Paths.get(expired.getTempPath())).doesNotExist();
+		assertThat(Paths.get(active.getTempPath())).exists();
+	}
+
+	private UploadSession initiate(long totalSize) throws IOException {
+		return uploadService.initiate(1L, "Notes", "en", DocumentType.LECTURE, "C:\\Users\\teacher\\notes.txt", totalSize);
+	}
+
+	private UploadSession append(UploadSession session, long offset, String content) throws IOException {
+		return uploadService.appendChunk(session.getId(), 1L, offset, stream(content));
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private UploadSessionRepository sessionRepository() {
+		UploadSessionRepository repository = mock(UploadSessionRepository.class);
+		when(repository.save(any())).thenAnswer(invocation -> {
+			UploadSession session = invocation.getArgument(0);
+			sessions.put(session.getId(), copy(session));
+			return session;
+		});
+		when(repository.findByIdAndUser(anyString(), any())).thenAnswer(invocation -> {
+			UploadSession stored = sessions.get(invocation.getArgument(0, String.class));
+			User user = invocation.getArgument(1);
+			UploadSession read = stored != null && stored.getUser().getId().equals(user.getId()) ? copy(stored) : null;
+			Runnable hook = duringNextRead.getAndSet(null);
+			if (hook != null) {
+				hook.run();
+			}
+			return Optional.ofNullable(read);
+		});
+		when(repository.findById(anyString())).thenAnswer(invocation ->
+				Optional.ofNullable(sessions.get(invocation.getArgument(0, String.class))).map(UploadServiceTest::copy));
+		when(repository.findByUpdatedAtBefore(any())).thenAnswer(invocation -> sessions.values().stream()
+				.filter(session -> session.getUpdatedAt().isBefore(invocation.getArgument(0)))
+				.map(UploadServiceTest::copy)
+				.toList());
+		doAnswer(invocation -> sessions.remove(invocation.getArgument(0, UploadSession.class).getId()))
+				.when(repository).delete(any());
+		return repository;
+	}
+
+	private static UploadSession copy(UploadSession session) {
+		UploadSession copy = new UploadSession(session.getId(), session.getUser(), session.getTitle(), session.getLanguage(),
+				session.getType(), session.getFormat(), session.getOriginalFilename(), session.getTotalSize(),
+				session.getTempPath());
+		copy.setReceivedBytes(session.getReceivedBytes());
+		copy.setCreatedAt(session.getCreatedAt());
+		copy.setUpdatedAt(session.getUpdatedAt());
+		return copy;
+	}
+
+	private static User user(Long id) {
+		User user = new User();
+		user.setId(id);
+		return user;
+	}
+}
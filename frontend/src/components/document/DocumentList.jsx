@@ -16,6 +16,7 @@ import {
 } from 'react-icons/fi';
 import { DocumentService } from '../../services';
 import { useAuth } from '../auth/AuthContext';
+import DocumentThumbnail from './DocumentThumbnail';
 import { Document, Page, pdfjs } from 'react-pdf';
 
 const DocumentList = ({ previewDocumentId, onClosePreview }) => {
@@ -497,7 +498,7 @@ const DocumentList = ({ previewDocumentId, onClosePreview }) => {
                                     <tr key={document.id} className="hover:bg-gray-50">
                                         <td className="px-6 py-4 whitespace-nowrap">
                                             <div className="flex items-center">
-                                                <FiFileText className="flex-shrink-0 h-5 w-5 text-gray-400 mr-3" />
+                                                <DocumentThumbnail document={document} className="mr-3" />
                                                 <div className="text-sm font-medium text-gray-900">
                                                     {document.title}
                                                 </div>
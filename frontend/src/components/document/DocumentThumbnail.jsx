@@ -0,0 +1,50 @@
+import React, { useState, useEffect } from 'react';
+import { FiFileText } from 'react-icons/fi';
+import { DocumentService } from '../../services';
+
+/**
+ * First-page thumbnail of a PDF document, falling back to a file icon
+ * for other formats or while the thumbnail is unavailable.
+ */
+const DocumentThumbnail = ({ document, width = 100, className = '' }) => {
+    const [imageUrl, setImageUrl] = useState(null);
+
+    useEffect(() => {
+        if (document.format !== 'PDF') {
+            return undefined;
+        }
+
+        let objectUrl = null;
+        let cancelled = false;
+
+        DocumentService.getThumbnail(document.id, width)
+            .then(response => {
+                if (!cancelled) {
+                    objectUrl = URL.createObjectURL(response.data);
+                    setImageUrl(objectUrl);
+                }
+            })
+            .catch(() => setImageUrl(null));
+
+        return () => {
+            cancelled = true;
+            if (objectUrl) {
+                URL.revokeObjectURL(objectUrl);
+            }
+        };
+    }, [document.id, document.format, width]);
+
+    if (!imageUrl) {
+        return <FiFileText className={`flex-shrink-0 h-5 w-5 text-gray-400 ${className}`} />;
+    }
+
+    return (
+        <img
+            src={imageUrl}
+            alt={`${document.title} thumbnail`}
+            className={`flex-shrink-0 h-10 w-8 object-cover object-top border border-gray-200 rounded ${className}`}
+        />
+    );
+};
+
+export default DocumentThumbnail;
@@ -6,7 +6,7 @@ import { useAuth } from '../auth/AuthContext';
 import { useNavigate } from 'react-router-dom';
 import GoogleDriveIntegration from './GoogleDriveIntegration';
 
-const MAX_FILE_SIZE = 5 * 1024 * 1024;
+const MAX_FILE_SIZE = 500 * 1024 * 1024;
 
 const DocumentUpload = ({ onUploadSuccess }) => {
     const { currentUser, isAuthenticated } = useAuth();
@@ -128,8 +128,7 @@ const DocumentUpload = ({ onUploadSuccess }) => {
                 {
                     title: documentMetadata.title,
                     language: documentMetadata.language,
-                    type: documentMetadata.type,
-                    format: documentMetadata.format
+                    type: documentMetadata.type
                 },
                 onUploadProgressHandler
             );
@@ -202,7 +201,7 @@ const DocumentUpload = ({ onUploadSuccess }) => {
                                         ? 'Drop the file here'
                                         : 'Drag & drop your document here'}
                                 </p>
-                                <p className="text-gray-500 text-sm mb-4">Supported formats: PDF, DOCX, TXT (Max 5MB)</p>
+                                <p className="text-gray-500 text-sm mb-4">Supported formats: PDF, DOCX, TXT (Max 500MB)</p>
                                 <button
                                     type="button"
                                     className="bg-blue-500 hover:bg-blue-600 text-white py-2 px-4 rounded transition-colors"
@@ -237,8 +237,9 @@ const QuestionForm = () => {
                 text: question.text
             };
 
+            let answersData;
             if (question.answers && question.answers.length > 0 && ['MULTIPLE_CHOICE', 'TRUE_FALSE', 'FILL_IN_THE_BLANK'].includes(question.type)) {
-                const answersData = question.answers.map(answer => {
+                answersData = question.answers.map(answer => {
                     const answerData = {
                         text: answer.text,
                         isCorrect: answer.isCorrect
@@ -257,7 +258,11 @@ const QuestionForm = () => {
 
             let response;
             if (isEdit) {
-                response = await QuestionService.updateQuestion(id, requestData);
+                response = await QuestionService.patchQuestion(id, {
+                    type: requestData.type,
+                    text: requestData.text,
+                    answers: answersData
+                });
             } else {
                 response = await QuestionService.createQuestion(requestData);
             }
@@ -9,7 +9,7 @@ import {
     FiCpu,
     FiMessageSquare
 } from 'react-icons/fi';
-import { DocumentService } from '../services';
+import { DashboardService } from '../services';
 
 const Dashboard = () => {
     const [stats, setStats] = useState({
@@ -26,35 +26,14 @@ const Dashboard = () => {
                 setIsLoading(true);
                 setError(null);
 
-                const documentsResponse = await DocumentService.getAll();
-                const documents = documentsResponse.data || [];
-
-                const recentDocumentsResponse = await DocumentService.getRecentDocuments(5);
-                const recentDocuments = recentDocumentsResponse.data || [];
-
-                const typeDistribution = {};
-                const formatDistribution = {};
-
-                documents.forEach(doc => {
-                    if (typeDistribution[doc.type]) {
-                        typeDistribution[doc.type]++;
-                    } else {
-                        typeDistribution[doc.type] = 1;
-                    }
-
-                    if (formatDistribution[doc.format]) {
-                        formatDistribution[doc.format]++;
-                    } else {
-                        formatDistribution[doc.format] = 1;
-                    }
-                });
+                const { data: summary } = await DashboardService.getSummary(5);
 
                 setStats({
-                    totalDocuments: documents.length,
-                    recentDocuments: recentDocuments
+                    totalDocuments: summary.totalDocuments,
+                    recentDocuments: summary.recentDocuments || []
                 });
-                setDocumentsByType(typeDistribution);
-                setDocumentsByFormat(formatDistribution);
+                setDocumentsByType(summary.documentsByType || {});
+                setDocumentsByFormat(summary.documentsByFormat || {});
                 setIsLoading(false);
             } catch (error) {
                 console.error('Error fetching dashboard data:', error);
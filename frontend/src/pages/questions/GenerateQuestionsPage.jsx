@@ -12,6 +12,9 @@ import {
 import { DocumentService, QuestionService } from '../../services';
 import { useAuth } from '../../components/auth/AuthContext';
 
+// Documents above this size do not fit comfortably in a single generation prompt
+const LARGE_DOCUMENT_TOKENS = 100000;
+
 const GenerateQuestionsPage = () => {
     const { isAuthenticated, user } = useAuth();
     const navigate = useNavigate();
@@ -163,6 +166,17 @@ const GenerateQuestionsPage = () => {
                 </div>
             )}
 
+            {/* Oversized document warning */}
+            {selectedDocument?.estimatedTokens > LARGE_DOCUMENT_TOKENS && (
+                <div className="mb-6 p-4 bg-yellow-100 text-yellow-800 rounded-lg flex items-center">
+                    <FiAlertCircle className="mr-2" />
+                    <span>
+                        This document is large (about {selectedDocument.estimatedTokens.toLocaleString()} tokens).
+                        Generation may be slow or only cover part of its content.
+                    </span>
+                </div>
+            )}
+
             {/* Success message */}
             {success && (
                 <div className="mb-6 p-4 bg-green-100 text-green-700 rounded-lg flex items-center">
@@ -214,6 +228,12 @@ const GenerateQuestionsPage = () => {
                                         <div>Format: <span className="text-gray-700">{document.format}</span></div>
                                         <div>Language: <span className="text-gray-700">{document.language}</span></div>
                                         <div>Uploaded: <span className="text-gray-700">{formatDate(document.uploadedDate)}</span></div>
+                                        {document.pageCount != null && (
+                                            <div>Pages: <span className="text-gray-700">{document.pageCount}</span></div>
+                                        )}
+                                        {document.wordCount != null && (
+                                            <div>Words: <span className="text-gray-700">{document.wordCount.toLocaleString()}</span></div>
+                                        )}
                                     </div>
                                 </div>
                             ))}
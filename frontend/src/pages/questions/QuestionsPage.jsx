@@ -145,8 +145,28 @@ const QuestionsPage = () => {
         setShowDeleteModal(true);
     };
 
+    const handleDeleteSelected = () => {
+        setQuestionToDelete(null);
+        setShowDeleteModal(true);
+    };
+
     const confirmDelete = async () => {
-        if (questionToDelete) {
+        if (!questionToDelete && selectedQuestions.length > 0) {
+            try {
+                const response = await QuestionService.deleteQuestions(selectedQuestions);
+                setQuestions(questions.filter(q => !selectedQuestions.includes(q.id)));
+                setSelectedQuestions([]);
+                setShowDeleteModal(false);
+                setSuccess(`Deleted ${response.data.deleted} questions`);
+
+                setTimeout(() => {
+                    setSuccess(null);
+                }, 3000);
+            } catch (err) {
+                console.error('Error deleting questions:', err);
+                setError('Failed to delete the selected questions. Please try again.');
+            }
+        } else if (questionToDelete) {
             try {
                 await QuestionService.deleteQuestion(questionToDelete.id);
                 setQuestions(questions.filter(q => q.id !== questionToDelete.id));
@@ -276,6 +296,15 @@ const QuestionsPage = () => {
                             {isExporting ? 'Exporting...' : `Export ${selectedQuestions.length} to PDF`}
                         </button>
                     )}
+                    {selectedQuestions.length > 0 && (
+                        <button
+                            onClick={handleDeleteSelected}
+                            className="px-4 py-2 bg-red-600 text-white rounded-md hover:bg-red-700 transition-colors flex items-center"
+                        >
+                            <FiTrash2 className="mr-2" />
+                            {`Delete ${selectedQuestions.length}`}
+                        </button>
+                    )}
                     <Link
                         to="/questions/create"
                         className="px-4 py-2 bg-green-600 text-white rounded-md hover:bg-green-700 transition-colors flex items-center"
@@ -560,7 +589,9 @@ const QuestionsPage = () => {
                         </div>
                         <div className="p-4">
                             <p className="mb-4">
-                                Are you sure you want to delete this question? This action cannot be undone.
+                                {questionToDelete
+                                    ? 'Are you sure you want to delete this question? This action cannot be undone.'
+                                    : `Are you sure you want to delete ${selectedQuestions.length} questions? This action cannot be undone.`}
                             </p>
                         </div>
                         <div className="p-4 border-t border-gray-200 flex justify-end space-x-3">
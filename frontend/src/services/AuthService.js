@@ -26,6 +26,12 @@ const AuthService = {
         }
     },
     logout: () => {
+        const token = localStorage.getItem('token');
+        if (token) {
+            // Revokes the token on the server, the local session ends either way
+            api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } })
+                .catch((error) => console.error('Logout error details:', error.response?.data));
+        }
         localStorage.removeItem('token');
         localStorage.removeItem('user');
     },
@@ -0,0 +1,22 @@
+import BaseApiService from './BaseApiService';
+import api from './api.config';
+
+/**
+ * Service for the dashboard aggregates
+ */
+class DashboardService extends BaseApiService {
+    constructor() {
+        super('/dashboard');
+    }
+
+    /**
+     * Get the current user's document and question counts, generation usage and recent documents
+     * @param {number} recent - Number of recent documents to include
+     * @returns {Promise} - Promise that resolves with the API response
+     */
+    getSummary(recent = 5) {
+        return this.withRetry(() => api.get(`${this.resourcePath}/summary`, { params: { recent } }));
+    }
+}
+
+export default new DashboardService();
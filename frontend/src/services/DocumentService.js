@@ -1,4 +1,8 @@
 import BaseApiService from './BaseApiService';
+import api from './api.config';
+
+const UPLOAD_CHUNK_SIZE = 5 * 1024 * 1024;
+const MAX_CHUNK_RETRIES = 5;
 
 /**
  * Service for Document-related API operations
@@ -9,28 +13,61 @@ class DocumentService extends BaseApiService {
     }
 
     /**
-     * Upload a document with metadata
+     * Upload a document with metadata through the resumable upload API.
+     * The file is sent in chunks, after a failed chunk the upload resumes
+     * from the offset the server reports instead of starting over.
      * @param {File} file - Document file
      * @param {Object} metadata - Document metadata
-     * @returns {Promise} - Promise that resolves with the API response
+     * @param {Function} onUploadProgress - Called with { loaded, total } for the whole file
+     * @returns {Promise} - Promise that resolves with the API response of the completed upload
      */
-    uploadDocument(file, metadata) {
-        const formData = new FormData();
-        formData.append('file', file);
-
-        Object.keys(metadata).forEach(key => {
-            formData.append(key, metadata[key]);
-        });
+    async uploadDocument(file, metadata, onUploadProgress) {
+        const { data: session } = await this.withRetry(() => api.post('/uploads', {
+            title: metadata.title,
+            language: metadata.language,
+            type: metadata.type,
+            filename: file.name,
+            size: file.size
+        }));
 
-        return this.withRetry(() => this.request('post', '/upload', formData, {
-            headers: {
-                'Content-Type': 'multipart/form-data'
-            },
-            onUploadProgress: progressEvent => {
-                const percentCompleted = Math.round((progressEvent.loaded * 100) / progressEvent.total);
-                console.log(`Upload progress: ${percentCompleted}%`);
+        let offset = session.receivedBytes;
+        let failures = 0;
+        while (offset < file.size) {
+            const start = offset;
+            try {
+                const response = await api.put(`/uploads/${session.id}`, file.slice(start, start + UPLOAD_CHUNK_SIZE), {
+                    headers: {
+                        'Content-Type': 'application/offset+octet-stream',
+                        'Upload-Offset': start
+                    },
+                    timeout: 0,
+                    onUploadProgress: progressEvent => onUploadProgress && onUploadProgress({
+                        loaded: start + progressEvent.loaded,
+                        total: file.size
+                    })
+                });
+                offset = Number(response.headers['upload-offset']);
+                failures = 0;
+            } catch (error) {
+                const resumable = !error.response || error.response.status === 409 || error.response.status >= 500;
+                if (!resumable || ++failures > MAX_CHUNK_RETRIES) {
+                    throw error;
+                }
+                offset = await this.getUploadOffset(session.id);
             }
-        }));
+        }
+
+        return this.withRetry(() => api.post(`/uploads/${session.id}/complete`));
+    }
+
+    /**
+     * Get the number of bytes the server has stored for an upload
+     * @param {string} uploadId - Upload ID
+     * @returns {Promise<number>} - Promise that resolves with the offset to resume from
+     */
+    async getUploadOffset(uploadId) {
+        const response = await this.withRetry(() => api.head(`/uploads/${uploadId}`));
+        return Number(response.headers['upload-offset']);
     }
 
     updateDocument(id, updateData) {
@@ -66,6 +103,32 @@ class DocumentService extends BaseApiService {
         return this.withRetry(() => this.request('get', `/${id}/content`));
     }
 
+    /**
+     * Get a first-page thumbnail of a PDF document
+     * @param {string|number} id - Document ID
+     * @param {number} width - Requested width in pixels
+     * @returns {Promise} - Promise that resolves with the API response containing a PNG blob
+     */
+    getThumbnail(id, width = 200) {
+        return this.request('get', `/${id}/thumbnail`, null, {
+            params: { width },
+            responseType: 'blob'
+        });
+    }
+
+    /**
+     * Export all questions of a document as a question bank
+     * @param {string|number} id - Document ID
+     * @param {string} format - One of moodle, gift, qti, csv or docx
+     * @returns {Promise} - Promise that resolves with the API response containing a blob
+     */
+    exportQuestions(id, format) {
+        return this.request('get', `/${id}/export`, null, {
+            params: { format },
+            responseType: 'blob'
+        });
+    }
+
     /**
      * View document in browser
      * @param {string|number} id - Document ID
@@ -87,10 +150,12 @@ class DocumentService extends BaseApiService {
     /**
      * Get recent documents
      * @param {number} limit - Maximum number of documents to return
-     * @returns {Promise} - Promise that resolves with the API response
+     * @param {string} cursor - nextCursor of the previous page, omitted for the first page
+     * @returns {Promise} - Promise that resolves with the API response containing a page
+     * ({ items, nextCursor, limit }), newest documents first
      */
-    getRecentDocuments(limit = 5) {
-        return this.getAll({ limit, sort: 'uploadedDate,desc' });
+    getRecentDocuments(limit = 5, cursor = undefined) {
+        return this.getAll({ limit, cursor });
     }
 
     /**
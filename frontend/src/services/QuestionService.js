@@ -108,6 +108,40 @@ class QuestionService extends BaseApiService {
         });
     }
 
+    /**
+     * Partially update a question. Answers, when given, replace the current ones:
+     * answers with an id are updated, answers without one are added, missing ones are removed.
+     * @param {number} id - Question ID
+     * @param {Object} changes - Any of type, text and answers ({ id?, text, isCorrect })
+     * @returns {Promise} - Promise that resolves with the merged question
+     */
+    patchQuestion(id, changes) {
+        return this.request('patch', `/${id}`, changes, {
+            headers: {
+                'Content-Type': 'application/json'
+            }
+        });
+    }
+
+    /**
+     * Delete many questions at once
+     * @param {number[]} ids - Question IDs
+     * @returns {Promise} - Promise that resolves with { deleted }
+     */
+    deleteQuestions(ids) {
+        return this.request('delete', '', null, { params: { ids: ids.join(',') } });
+    }
+
+    /**
+     * Move many questions to another document and/or change their type
+     * @param {number[]} ids - Question IDs
+     * @param {Object} changes - documentId and/or type
+     * @returns {Promise} - Promise that resolves with { updated }
+     */
+    updateQuestions(ids, changes) {
+        return this.request('patch', '', { ids, ...changes });
+    }
+
     /**
      * Delete a question
      * @param {number} id - Question ID
@@ -148,6 +182,18 @@ class QuestionService extends BaseApiService {
             responseType: 'blob'
         });
     }
+
+    /**
+     * Export questions as a question bank
+     * @param {Array} questionIds - Array of question IDs to export
+     * @param {string} format - One of moodle, gift, qti, csv or docx
+     * @returns {Promise} - Promise that resolves with the API response
+     */
+    exportQuestions(questionIds, format) {
+        return this.request('post', `/export/${format}`, { questionIds }, {
+            responseType: 'blob'
+        });
+    }
 }
 
 export default new QuestionService();
\ No newline at end of file
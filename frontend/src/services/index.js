@@ -4,6 +4,7 @@ import AuthService from './AuthService';
 import DocumentService from "./DocumentService";
 import QuestionService from "./QuestionService";
 import QuizService from "./QuizService";
+import DashboardService from "./DashboardService";
 
 export {
     api,
@@ -12,4 +13,5 @@ export {
     DocumentService,
     QuestionService,
     QuizService,
+    DashboardService,
 };
\ No newline at end of file